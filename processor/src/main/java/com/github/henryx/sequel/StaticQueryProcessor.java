@@ -0,0 +1,368 @@
+package com.github.henryx.sequel;
+
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.Trees;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * StaticQueryProcessor renders at compile time the queries of the fields annotated with {@link StaticQuery}. The
+ * initializer of the field is read with the javac Trees API and evaluated by calling the builders of the library with
+ * reflection, so the generated SQL is the same as the one rendered at runtime.
+ * <p>
+ * The processor uses the {@code com.sun.source} API of the {@code jdk.compiler} module, that is not part of the Java SE
+ * API, so it is shipped apart from the library, in the {@code sequel-processor} artifact, and never runs unless it is
+ * enabled explicitly, for example with the {@code -processor} option of javac or the {@code annotationProcessors}
+ * setting of the Maven compiler plugin
+ */
+@SupportedAnnotationTypes("com.github.henryx.sequel.StaticQuery")
+public class StaticQueryProcessor extends AbstractProcessor {
+    private static final String PACKAGE = StaticQuery.class.getPackage().getName();
+
+    private Trees trees;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+
+        try {
+            this.trees = Trees.instance(processingEnv);
+        } catch (IllegalArgumentException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "StaticQuery processing needs the javac compiler, queries are not generated");
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(java.util.Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (Objects.isNull(this.trees)) {
+            return false;
+        }
+
+        Map<TypeElement, List<Element>> fields = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(StaticQuery.class)) {
+            if (element.getKind() != ElementKind.FIELD || !element.getModifiers().contains(javax.lang.model.element.Modifier.STATIC)) {
+                this.error(element, "StaticQuery can annotate only static fields");
+                continue;
+            }
+            fields.computeIfAbsent((TypeElement) element.getEnclosingElement(), type -> new ArrayList<>()).add(element);
+        }
+
+        fields.forEach(this::generate);
+
+        return true;
+    }
+
+    private void generate(TypeElement type, List<Element> fields) {
+        Map<String, String> queries = new LinkedHashMap<>();
+        for (Element field : fields) {
+            Tree tree = this.trees.getTree(field);
+            ExpressionTree initializer = tree instanceof VariableTree ? ((VariableTree) tree).getInitializer() : null;
+            if (Objects.isNull(initializer)) {
+                this.error(field, "StaticQuery field must be initialized with a query");
+                continue;
+            }
+
+            try {
+                Object value = this.evaluate(initializer);
+                String sql = value instanceof String ? (String) value : (String) value.getClass().getMethod("getSql").invoke(value);
+                queries.put(field.getSimpleName().toString(), sql);
+            } catch (UnsupportedOperationException e) {
+                this.error(field, "Cannot evaluate StaticQuery at compile time: " + e.getMessage());
+            } catch (InvocationTargetException e) {
+                this.error(field, "StaticQuery fails at compile time: " + e.getCause());
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                this.error(field, "Cannot evaluate StaticQuery at compile time: " + e);
+            }
+        }
+
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        PackageElement pkg = this.processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String className = type.getSimpleName() + "Queries";
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import ").append(CompiledQuery.class.getName()).append(";\n\n");
+        source.append("/**\n * Queries of {@link ").append(type.getQualifiedName()).append("} rendered at compile time\n */\n");
+        source.append("public final class ").append(className).append(" {\n");
+        queries.forEach((name, sql) -> {
+            source.append("    public static final String ").append(name).append(" = ").append(literal(sql)).append(";\n");
+            source.append("    public static final int ").append(name).append("_PARAMETERS = ").append(Expressions.parameters(sql)).append(";\n");
+            source.append("    public static final CompiledQuery ").append(name).append("_QUERY = CompiledQuery.of(")
+                    .append(name).append(");\n\n");
+        });
+        source.append("    private ").append(className).append("() {\n    }\n}\n");
+
+        String qualified = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(qualified, type).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            this.error(type, "Cannot write " + qualified + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Evaluates an expression made of literals, enum constants, string concatenations, constructors and method calls
+     * on the classes of the library
+     */
+    private Object evaluate(ExpressionTree tree) throws ReflectiveOperationException {
+        switch (tree.getKind()) {
+            case STRING_LITERAL:
+            case INT_LITERAL:
+            case LONG_LITERAL:
+            case BOOLEAN_LITERAL:
+            case CHAR_LITERAL:
+            case NULL_LITERAL:
+                return ((LiteralTree) tree).getValue();
+            case PARENTHESIZED:
+                return this.evaluate(((ParenthesizedTree) tree).getExpression());
+            case PLUS:
+                BinaryTree binary = (BinaryTree) tree;
+                Object left = this.evaluate(binary.getLeftOperand());
+                Object right = this.evaluate(binary.getRightOperand());
+                if (left instanceof Integer && right instanceof Integer) {
+                    return (Integer) left + (Integer) right;
+                }
+                return String.valueOf(left) + right;
+            case MEMBER_SELECT:
+                MemberSelectTree select = (MemberSelectTree) tree;
+                Class<?> owner = this.resolve(select.getExpression());
+                if (Objects.isNull(owner)) {
+                    throw new UnsupportedOperationException(tree + " is not a constant of the library");
+                }
+                java.lang.reflect.Field field = owner.getField(select.getIdentifier().toString());
+                if (!Modifier.isStatic(field.getModifiers()) || !Modifier.isFinal(field.getModifiers())) {
+                    throw new UnsupportedOperationException(tree + " is not a constant");
+                }
+                return field.get(null);
+            case METHOD_INVOCATION:
+                return this.invoke((MethodInvocationTree) tree);
+            case NEW_CLASS:
+                NewClassTree creation = (NewClassTree) tree;
+                Class<?> created = this.resolve(creation.getIdentifier());
+                if (Objects.isNull(created) || Objects.nonNull(creation.getClassBody())) {
+                    throw new UnsupportedOperationException(tree + " is not a class of the library");
+                }
+                Object[] args = this.arguments(creation.getArguments());
+                for (java.lang.reflect.Constructor<?> constructor : created.getConstructors()) {
+                    Object[] adapted = adapt(constructor, args);
+                    if (Objects.nonNull(adapted)) {
+                        return constructor.newInstance(adapted);
+                    }
+                }
+                throw new UnsupportedOperationException("No constructor for " + tree);
+            default:
+                throw new UnsupportedOperationException(tree + " is not a literal or a builder call");
+        }
+    }
+
+    private Object invoke(MethodInvocationTree tree) throws ReflectiveOperationException {
+        ExpressionTree method = tree.getMethodSelect();
+        if (!(method instanceof MemberSelectTree)) {
+            throw new UnsupportedOperationException(tree + " must be called on a class or a builder of the library");
+        }
+
+        MemberSelectTree select = (MemberSelectTree) method;
+        String name = select.getIdentifier().toString();
+        Object[] args = this.arguments(tree.getArguments());
+
+        Class<?> owner = this.resolve(select.getExpression());
+        Object target = null;
+        if (Objects.isNull(owner)) {
+            target = this.evaluate(select.getExpression());
+            if (Objects.isNull(target) || !target.getClass().getName().startsWith(PACKAGE + ".")) {
+                throw new UnsupportedOperationException(name + " is not a method of the library");
+            }
+            owner = target.getClass();
+        }
+
+        List<Method> candidates = new ArrayList<>(Arrays.asList(owner.getMethods()));
+        // Fixed arity methods are preferred to varargs ones, like the compiler does
+        candidates.sort((a, b) -> Boolean.compare(a.isVarArgs(), b.isVarArgs()));
+        for (Method candidate : candidates) {
+            if (!candidate.getName().equals(name) || Modifier.isStatic(candidate.getModifiers()) != Objects.isNull(target)) {
+                continue;
+            }
+
+            Object[] adapted = adapt(candidate, args);
+            if (Objects.nonNull(adapted)) {
+                return candidate.invoke(target, adapted);
+            }
+        }
+
+        throw new UnsupportedOperationException("No method " + name + " for " + tree);
+    }
+
+    private Object[] arguments(List<? extends ExpressionTree> trees) throws ReflectiveOperationException {
+        Object[] args = new Object[trees.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = this.evaluate(trees.get(i));
+        }
+
+        return args;
+    }
+
+    /**
+     * Returns the class of the library named by the expression, like {@code Criterion} or {@code Sequel.Select}, or null
+     * if the expression is not a class name
+     */
+    private Class<?> resolve(ExpressionTree tree) {
+        String name;
+        if (tree instanceof IdentifierTree) {
+            name = PACKAGE + "." + ((IdentifierTree) tree).getName();
+        } else if (tree instanceof MemberSelectTree) {
+            String text = tree.toString();
+            name = text.startsWith(PACKAGE + ".") ? text : PACKAGE + "." + text;
+        } else {
+            return null;
+        }
+
+        // Nested classes are resolved replacing the last dots with $
+        while (true) {
+            try {
+                return Class.forName(name, true, StaticQueryProcessor.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                int dot = name.lastIndexOf('.');
+                if (dot <= PACKAGE.length()) {
+                    return null;
+                }
+                name = name.substring(0, dot) + "$" + name.substring(dot + 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the arguments adapted to the parameters of the method or constructor, packing varargs, or null if they
+     * don't match
+     */
+    private static Object[] adapt(Executable executable, Object[] args) {
+        Class<?>[] types = executable.getParameterTypes();
+
+        if (!executable.isVarArgs()) {
+            if (types.length != args.length) {
+                return null;
+            }
+            for (int i = 0; i < args.length; i++) {
+                if (!accepts(types[i], args[i])) {
+                    return null;
+                }
+            }
+            return args;
+        }
+
+        int fixed = types.length - 1;
+        if (args.length < fixed) {
+            return null;
+        }
+        for (int i = 0; i < fixed; i++) {
+            if (!accepts(types[i], args[i])) {
+                return null;
+            }
+        }
+
+        Class<?> component = types[fixed].getComponentType();
+        Object rest = Array.newInstance(component, args.length - fixed);
+        for (int i = fixed; i < args.length; i++) {
+            if (!accepts(component, args[i])) {
+                return null;
+            }
+            Array.set(rest, i - fixed, args[i]);
+        }
+
+        Object[] adapted = Arrays.copyOf(args, types.length);
+        adapted[fixed] = rest;
+
+        return adapted;
+    }
+
+    private static boolean accepts(Class<?> type, Object value) {
+        if (Objects.isNull(value)) {
+            return !type.isPrimitive();
+        } else if (type == int.class) {
+            return value instanceof Integer;
+        } else if (type == long.class) {
+            return value instanceof Long || value instanceof Integer;
+        } else if (type == boolean.class) {
+            return value instanceof Boolean;
+        }
+
+        return type.isInstance(value);
+    }
+
+    private static String literal(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+
+        return builder.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class StaticQueryProcessorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DiagnosticCollector<JavaFileObject> compile(String source) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///example/Repository.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        String output = this.folder.getRoot().getAbsolutePath();
+        compiler.getTask(null, null, diagnostics, Arrays.asList(
+                "-d", output, "-s", output,
+                "-classpath", System.getProperty("java.class.path"),
+                "-processor", StaticQueryProcessor.class.getName()), null, Collections.singletonList(file)).call();
+
+        return diagnostics;
+    }
+
+    @Test
+    public void testGenerate() throws Exception {
+        String source = "package example;\n"
+                + "import com.github.henryx.sequel.*;\n"
+                + "public class Repository {\n"
+                + "    @StaticQuery\n"
+                + "    static final Sequel.Select FIND = Sequel.from(\"test1 a\")\n"
+                + "            .select(\"a.t1\", Functions.count(\"*\") + \" AS n\")\n"
+                + "            .join(Join.join(\"test2 b\", JoinType.LEFT).on(Criterion.eq(\"a.t1\", \"b.t1\")))\n"
+                + "            .where(Criterion.in(\"a.t2\", \"?\", \"'x?'\"))\n"
+                + "            .groupBy(\"a.t1\")\n"
+                + "            .limit(10);\n"
+                + "    @StaticQuery\n"
+                + "    static final Sequel.Insert ADD = Sequel.into(\"test1\").insert(\"?\", \"?\");\n"
+                + "}\n";
+
+        DiagnosticCollector<JavaFileObject> diagnostics = this.compile(source);
+        Assert.assertEquals(diagnostics.getDiagnostics().toString(), 0, diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR).count());
+
+        Sequel.Select expected = Sequel.from("test1 a")
+                .select("a.t1", Functions.count("*") + " AS n")
+                .join(Join.join("test2 b", JoinType.LEFT).on(Criterion.eq("a.t1", "b.t1")))
+                .where(Criterion.in("a.t2", "?", "'x?'"))
+                .groupBy("a.t1")
+                .limit(10);
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{this.folder.getRoot().toURI().toURL()},
+                this.getClass().getClassLoader())) {
+            Class<?> queries = loader.loadClass("example.RepositoryQueries");
+
+            Assert.assertEquals(expected.getSql(), queries.getField("FIND").get(null));
+            Assert.assertEquals(1, queries.getField("FIND_PARAMETERS").get(null));
+            Assert.assertEquals(expected.getSql(), ((CompiledQuery) queries.getField("FIND_QUERY").get(null)).getSql());
+            Assert.assertEquals(Sequel.into("test1").insert("?", "?").getSql(), queries.getField("ADD").get(null));
+            Assert.assertEquals(2, queries.getField("ADD_PARAMETERS").get(null));
+        }
+
+        Assert.assertTrue(new File(this.folder.getRoot(), "example/RepositoryQueries.java").exists());
+    }
+
+    @Test
+    public void testNotStatic() throws Exception {
+        String source = "package example;\n"
+                + "import com.github.henryx.sequel.*;\n"
+                + "public class Repository {\n"
+                + "    static final String TABLE = \"test1\";\n"
+                + "    @StaticQuery\n"
+                + "    static final Sequel.Select FIND = Sequel.from(TABLE).select(\"t1\");\n"
+                + "}\n";
+
+        DiagnosticCollector<JavaFileObject> diagnostics = this.compile(source);
+        Assert.assertTrue(diagnostics.getDiagnostics().stream().anyMatch(diagnostic ->
+                diagnostic.getKind() == Diagnostic.Kind.ERROR
+                        && diagnostic.getMessage(null).startsWith("Cannot evaluate StaticQuery at compile time")));
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.henryx.sequel;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * ArrayResultSet is a forward only ResultSet over rows held in memory, used to pass rows merged or split by the
+ * execution layer to a RowMapper. Only the getters and the metadata used by mappers are supported
+ */
+final class ArrayResultSet implements InvocationHandler {
+    private final String[] labels;
+    private final int[] types;
+    private final List<Object[]> rows;
+    private int position;
+    private boolean wasNull;
+
+    private ArrayResultSet(String[] labels, int[] types, List<Object[]> rows) {
+        this.labels = labels;
+        this.types = types;
+        this.rows = rows;
+        this.position = -1;
+    }
+
+    /**
+     * Returns a ResultSet over the rows, with the passed column labels and SQL types
+     */
+    static ResultSet of(String[] labels, int[] types, List<Object[]> rows) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                new ArrayResultSet(labels, types, rows));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "next":
+                return ++this.position < this.rows.size();
+            case "wasNull":
+                return this.wasNull;
+            case "findColumn":
+                return this.index((String) args[0]);
+            case "getMetaData":
+                return Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+                        new Class<?>[]{ResultSetMetaData.class}, this::metadata);
+            case "close":
+                this.position = this.rows.size();
+                return null;
+            case "isClosed":
+                return this.position >= this.rows.size();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "ArrayResultSet" + Arrays.toString(this.labels);
+            default:
+                if (method.getName().startsWith("get") && Objects.nonNull(args) && args.length >= 1) {
+                    int index = args[0] instanceof String ? this.index((String) args[0]) : (Integer) args[0];
+                    Class<?> type = args.length == 2 && args[1] instanceof Class ? (Class<?>) args[1] : method.getReturnType();
+
+                    return this.get(index, type);
+                }
+
+                throw new SQLFeatureNotSupportedException(method.getName() + " is not supported");
+        }
+    }
+
+    private Object metadata(Object proxy, Method method, Object[] args) throws SQLException {
+        switch (method.getName()) {
+            case "getColumnCount":
+                return this.labels.length;
+            case "getColumnLabel":
+            case "getColumnName":
+                return this.labels[(Integer) args[0] - 1];
+            case "getColumnType":
+                return this.types[(Integer) args[0] - 1];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                throw new SQLFeatureNotSupportedException(method.getName() + " is not supported");
+        }
+    }
+
+    private int index(String label) throws SQLException {
+        for (int i = 0; i < this.labels.length; i++) {
+            if (this.labels[i].equalsIgnoreCase(label)) {
+                return i + 1;
+            }
+        }
+
+        throw new SQLException("Column " + label + " not found");
+    }
+
+    private Object get(int index, Class<?> type) throws SQLException {
+        if (this.position < 0 || this.position >= this.rows.size()) {
+            throw new SQLException("The cursor is not on a row");
+        }
+
+        Object value = this.rows.get(this.position)[index - 1];
+        this.wasNull = Objects.isNull(value);
+
+        try {
+            return convert(value, type);
+        } catch (RuntimeException e) {
+            throw new SQLException("Cannot convert column " + this.labels[index - 1] + " to " + type.getSimpleName(), e);
+        }
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (type == String.class) {
+            return Objects.isNull(value) ? null : value.toString();
+        } else if (!type.isPrimitive() && (Objects.isNull(value) || type.isInstance(value))) {
+            return value;
+        }
+
+        if (type == boolean.class || type == Boolean.class) {
+            return value instanceof Boolean ? value : Objects.nonNull(value) && number(value).signum() != 0;
+        }
+
+        BigDecimal number = Objects.isNull(value) ? BigDecimal.ZERO : number(value);
+        if (type == int.class || type == Integer.class) {
+            return number.intValue();
+        } else if (type == long.class || type == Long.class) {
+            return number.longValue();
+        } else if (type == double.class || type == Double.class) {
+            return number.doubleValue();
+        } else if (type == float.class || type == Float.class) {
+            return number.floatValue();
+        } else if (type == short.class || type == Short.class) {
+            return number.shortValue();
+        } else if (type == byte.class || type == Byte.class) {
+            return number.byteValue();
+        } else if (type == BigDecimal.class) {
+            return number;
+        }
+
+        throw new ClassCastException(value.getClass().getName() + " is not " + type.getName());
+    }
+
+    private static BigDecimal number(Object value) {
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+    }
+}
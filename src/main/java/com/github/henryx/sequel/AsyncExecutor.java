@@ -0,0 +1,182 @@
+package com.github.henryx.sequel;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * AsyncExecutor runs queries and statements of an Executor asynchronously, returning CompletableFuture objects.
+ * Executions run on virtual threads when the JVM supports them (Java 21 or greater), otherwise on a fixed thread pool.
+ * The number of concurrent executions is limited to protect the connection pool of the DataSource. The limit belongs
+ * to the instance unless its permits are passed to the constructor: AsyncExecutor objects using the same DataSource
+ * must share the same Semaphore, with no more permits than the size of its pool
+ */
+public class AsyncExecutor implements AutoCloseable {
+    private final Executor executor;
+    private final ExecutorService pool;
+    private final Semaphore permits;
+    private final boolean owned;
+
+    /**
+     * Creates an executor that runs on virtual threads when available, otherwise on a pool of maxConcurrency threads
+     *
+     * @param executor       the executor used to run queries and statements
+     * @param maxConcurrency the maximum number of concurrent executions of this instance
+     */
+    public AsyncExecutor(Executor executor, int maxConcurrency) {
+        this(executor, maxConcurrency, newPool(maxConcurrency), true);
+    }
+
+    /**
+     * Creates an executor that runs on the passed pool. The pool is not shut down when the executor is closed
+     *
+     * @param executor       the executor used to run queries and statements
+     * @param maxConcurrency the maximum number of concurrent executions of this instance
+     * @param pool           the pool used to run executions
+     */
+    public AsyncExecutor(Executor executor, int maxConcurrency, ExecutorService pool) {
+        this(executor, maxConcurrency, pool, false);
+    }
+
+    /**
+     * Creates an executor that runs on the passed pool and limits its executions with the passed permits, so executors
+     * using the same DataSource can share its limit. The pool is not shut down when the executor is closed
+     *
+     * @param executor the executor used to run queries and statements
+     * @param permits  the permits shared by the executions of every executor using the same DataSource
+     * @param pool     the pool used to run executions
+     */
+    public AsyncExecutor(Executor executor, Semaphore permits, ExecutorService pool) {
+        this(executor, Objects.requireNonNull(permits, "permits"), pool, false);
+    }
+
+    private AsyncExecutor(Executor executor, int maxConcurrency, ExecutorService pool, boolean owned) {
+        this(executor, permits(maxConcurrency), pool, owned);
+    }
+
+    private AsyncExecutor(Executor executor, Semaphore permits, ExecutorService pool, boolean owned) {
+        this.executor = executor;
+        this.pool = pool;
+        this.permits = permits;
+        this.owned = owned;
+    }
+
+    private static Semaphore permits(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new ValueMismatchException("Cannot build async executor. Concurrency must be greater than zero");
+        }
+
+        return new Semaphore(maxConcurrency, true);
+    }
+
+    private static ExecutorService newPool(int maxConcurrency) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(maxConcurrency);
+        }
+    }
+
+    /**
+     * Executes the query asynchronously
+     *
+     * @param select the query
+     * @param mapper the mapper used for every row
+     * @param params values bound to the query parameters
+     * @param <T>    the type of the mapped rows
+     * @return a future completed with the list of mapped rows
+     */
+    public <T> CompletableFuture<List<T>> query(Sequel.Select select, RowMapper<T> mapper, Object... params) {
+        return this.submit(() -> this.executor.query(select, mapper, params));
+    }
+
+    /**
+     * Executes the insert statement asynchronously
+     *
+     * @param insert the insert statement
+     * @param params values bound to the statement parameters
+     * @return a future completed with the number of inserted rows
+     */
+    public CompletableFuture<Integer> update(Sequel.Insert insert, Object... params) {
+        return this.submit(() -> this.executor.update(insert, params));
+    }
+
+    /**
+     * Executes an INSERT, UPDATE or DELETE statement asynchronously
+     *
+     * @param sql    the statement
+     * @param params values bound to the statement parameters
+     * @return a future completed with the number of changed rows
+     */
+    public CompletableFuture<Integer> update(String sql, Object... params) {
+        return this.submit(() -> this.executor.update(sql, params));
+    }
+
+    private <T> CompletableFuture<T> submit(Execution<T> execution) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                this.permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+
+            try {
+                return execution.execute();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            } finally {
+                this.permits.release();
+            }
+        }, this.pool);
+    }
+
+    /**
+     * Combines futures in a future completed with the list of their results, in the same order. The returned future
+     * completes exceptionally as soon as one of the futures fails
+     *
+     * @param futures the futures to combine
+     * @param <T>     the type of the results
+     * @return a future completed with the list of results
+     */
+    public static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        CompletableFuture<List<T>> result = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<T> values = new ArrayList<>();
+                    futures.forEach(future -> values.add(future.join()));
+
+                    return values;
+                });
+
+        futures.forEach(future -> future.whenComplete((value, error) -> {
+            if (Objects.nonNull(error)) {
+                result.completeExceptionally(error);
+            }
+        }));
+
+        return result;
+    }
+
+    /**
+     * Shuts down the pool created by the executor. Running executions are completed
+     */
+    @Override
+    public void close() {
+        if (this.owned) {
+            this.pool.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Execution<T> {
+        T execute() throws SQLException;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.henryx.sequel;
+
+/**
+ * BatchMode sets how the queries of a QueryBatch are sent to the database in a single execution
+ */
+public enum BatchMode {
+    /**
+     * Uses multiple results when the driver supports them, otherwise UNION ALL. MySQL and MariaDB connections use
+     * multiple results only when {@code allowMultiQueries=true} is in the URL of the connection
+     */
+    AUTO,
+    /**
+     * Sends the queries separated by semicolons and reads a result for each of them. Some drivers need an option to
+     * accept multiple statements, like {@code allowMultiQueries} on MySQL
+     */
+    MULTIPLE_RESULTS,
+    /**
+     * Combines the queries with UNION ALL, placing the columns of every query in a separate range and marking every row
+     * with the index of its query
+     */
+    UNION_ALL
+}
@@ -0,0 +1,101 @@
+package com.github.henryx.sequel;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CachingExecutor stores results of queries in a QueryCache. Statements executed through the same executor invalidate
+ * the results that read the changed table. The mapper is part of the cache key, so it should be a reused instance and
+ * not a lambda created at every call
+ */
+public class CachingExecutor extends Executor {
+    private static final Pattern TABLE = Pattern.compile(
+            "(?i)^\\s*(?:UPDATE|DELETE\\s+FROM|INSERT\\s+INTO|MERGE\\s+INTO|TRUNCATE(?:\\s+TABLE)?)\\s+([\\w$.\"`\\[\\]]+)");
+
+    private final QueryCache cache;
+
+    public CachingExecutor(DataSource dataSource, QueryCache cache) {
+        super(dataSource);
+
+        this.cache = cache;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> query(Sequel.Select select, RowMapper<T> mapper, Object... params) throws SQLException {
+        String sql = select.getSql();
+        QueryCache.Key key = new QueryCache.Key(sql, params, mapper);
+
+        List<T> rows = (List<T>) this.cache.get(key);
+        if (Objects.nonNull(rows)) {
+            return rows;
+        }
+
+        long generation = this.cache.getGeneration();
+        Set<String> tables = select.getTables();
+        rows = this.query(sql, mapper, params);
+        this.cache.put(key, rows, tables, generation);
+
+        return Collections.unmodifiableList(rows);
+    }
+
+    @Override
+    public int update(Sequel.Insert insert, Object... params) throws SQLException {
+        try {
+            return super.update(insert.getSqlWithoutReturning(), params);
+        } finally {
+            this.cache.invalidate(insert.getTable());
+        }
+    }
+
+    @Override
+    public <T> List<T> insert(Sequel.Insert insert, RowMapper<T> mapper, Object... params) throws SQLException {
+        try {
+            return super.insert(insert, mapper, params);
+        } finally {
+            this.cache.invalidate(insert.getTable());
+        }
+    }
+
+    @Override
+    public <T> List<T> insertBatch(Sequel.Insert insert, RowMapper<T> mapper, List<Object[]> batch) throws SQLException {
+        try {
+            return super.insertBatch(insert, mapper, batch);
+        } finally {
+            this.cache.invalidate(insert.getTable());
+        }
+    }
+
+    /**
+     * Executes an INSERT, UPDATE or DELETE statement and invalidates the results that read the changed table. When
+     * the table cannot be determined from the statement, all results are invalidated
+     */
+    @Override
+    public int update(String sql, Object... params) throws SQLException {
+        try {
+            return super.update(sql, params);
+        } finally {
+            Matcher matcher = TABLE.matcher(sql);
+            if (matcher.find()) {
+                this.cache.invalidate(matcher.group(1));
+            } else {
+                this.cache.invalidateAll();
+            }
+        }
+    }
+
+    /**
+     * Returns the cache used by the executor
+     *
+     * @return the cache
+     */
+    public QueryCache getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.henryx.sequel;
+
+/**
+ * Column describes a column of a {@link Table}. The column is rendered once, qualified by the alias or the name of its
+ * table
+ */
+public final class Column {
+    private final String name;
+    private final int type;
+    private final boolean nullable;
+    private final String sql;
+
+    Column(String name, int type, boolean nullable, String sql) {
+        this.name = name;
+        this.type = type;
+        this.nullable = nullable;
+        this.sql = sql.intern();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return the SQL type, as defined in {@link java.sql.Types}
+     */
+    public int getType() {
+        return this.type;
+    }
+
+    public boolean isNullable() {
+        return this.nullable;
+    }
+
+    /**
+     * getSql returns the qualified column
+     *
+     * @return a String that represents the column
+     */
+    public String getSql() {
+        return this.sql;
+    }
+
+    @Override
+    public String toString() {
+        return this.sql;
+    }
+}
@@ -0,0 +1,241 @@
+package com.github.henryx.sequel;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * ColumnVector stores the values of a numeric column in a primitive array, or in a direct buffer outside the heap, with
+ * a bitmap of the null values. Values are read from the ResultSet with the primitive getters, so they are never boxed
+ */
+public final class ColumnVector {
+    private static final int INITIAL_CAPACITY = 1024;
+    // Some virtual machines reserve header words in arrays, so the largest allocable array is a bit smaller
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final String name;
+    private final Type type;
+    private final boolean direct;
+    private int[] ints;
+    private long[] longs;
+    private double[] doubles;
+    private ByteBuffer buffer;
+    private long[] nulls;
+    private int capacity;
+    private int size;
+
+    ColumnVector(String name, Type type, boolean direct) {
+        this.name = name;
+        this.type = type;
+        this.direct = direct;
+        this.allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Type is the primitive type of the stored values
+     */
+    public enum Type {
+        INT(Integer.BYTES), LONG(Long.BYTES), DOUBLE(Double.BYTES);
+
+        private final int width;
+
+        Type(int width) {
+            this.width = width;
+        }
+
+        /**
+         * @return the size in bytes of a value
+         */
+        public int getWidth() {
+            return this.width;
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * @return true if values are stored outside the heap
+     */
+    public boolean isDirect() {
+        return this.direct;
+    }
+
+    /**
+     * @return the number of values
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param row the row index, starting from 0
+     * @return true if the value of the row is NULL
+     */
+    public boolean isNull(int row) {
+        this.check(row);
+
+        return (this.nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Returns the value of an INT column. NULL values are returned as 0
+     *
+     * @param row the row index, starting from 0
+     * @return the value
+     */
+    public int getInt(int row) {
+        this.check(row);
+        if (this.type != Type.INT) {
+            throw new IllegalStateException("Column " + this.name + " is " + this.type);
+        }
+
+        return this.direct ? this.buffer.getInt(row * Integer.BYTES) : this.ints[row];
+    }
+
+    /**
+     * Returns the value of an INT or LONG column. NULL values are returned as 0
+     *
+     * @param row the row index, starting from 0
+     * @return the value
+     */
+    public long getLong(int row) {
+        this.check(row);
+        if (this.type == Type.INT) {
+            return this.getInt(row);
+        } else if (this.type != Type.LONG) {
+            throw new IllegalStateException("Column " + this.name + " is " + this.type);
+        }
+
+        return this.direct ? this.buffer.getLong(row * Long.BYTES) : this.longs[row];
+    }
+
+    /**
+     * Returns the value of the column as a double. NULL values are returned as 0
+     *
+     * @param row the row index, starting from 0
+     * @return the value
+     */
+    public double getDouble(int row) {
+        this.check(row);
+        if (this.type != Type.DOUBLE) {
+            return this.getLong(row);
+        }
+
+        return this.direct ? this.buffer.getDouble(row * Double.BYTES) : this.doubles[row];
+    }
+
+    /**
+     * Returns a read only view of the values of a direct column, in native byte order
+     *
+     * @return the buffer
+     */
+    public ByteBuffer getBuffer() {
+        if (!this.direct) {
+            throw new IllegalStateException("Column " + this.name + " is not stored in a direct buffer");
+        }
+
+        // Positions are set through Buffer, since ByteBuffer overrides them only from Java 9
+        ByteBuffer view = this.buffer.duplicate();
+        ((Buffer) view).position(0).limit(this.size * this.type.getWidth());
+
+        return view.slice().asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * @return the bytes allocated for values and null bitmap, including unused capacity
+     */
+    public long memoryUsage() {
+        return (long) this.capacity * this.type.getWidth() + (long) this.nulls.length * Long.BYTES;
+    }
+
+    void read(ResultSet rs, int index) throws SQLException {
+        if (this.size == this.capacity) {
+            this.allocate(grow(this.capacity, this.type.getWidth(), this.direct, this.name));
+        }
+
+        int row = this.size++;
+        switch (this.type) {
+            case INT:
+                int intValue = rs.getInt(index);
+                if (this.direct) {
+                    this.buffer.putInt(row * Integer.BYTES, intValue);
+                } else {
+                    this.ints[row] = intValue;
+                }
+                break;
+            case LONG:
+                long longValue = rs.getLong(index);
+                if (this.direct) {
+                    this.buffer.putLong(row * Long.BYTES, longValue);
+                } else {
+                    this.longs[row] = longValue;
+                }
+                break;
+            default:
+                double doubleValue = rs.getDouble(index);
+                if (this.direct) {
+                    this.buffer.putDouble(row * Double.BYTES, doubleValue);
+                } else {
+                    this.doubles[row] = doubleValue;
+                }
+        }
+
+        if (rs.wasNull()) {
+            this.nulls[row >>> 6] |= 1L << row;
+        }
+    }
+
+    private void allocate(int capacity) {
+        if (this.direct) {
+            ByteBuffer allocated = ByteBuffer.allocateDirect(capacity * this.type.getWidth()).order(ByteOrder.nativeOrder());
+            if (Objects.nonNull(this.buffer)) {
+                ByteBuffer old = this.buffer.duplicate();
+                ((Buffer) old).position(0).limit(this.size * this.type.getWidth());
+                allocated.put(old);
+                ((Buffer) allocated).clear();
+            }
+            this.buffer = allocated;
+        } else if (this.type == Type.INT) {
+            this.ints = Objects.isNull(this.ints) ? new int[capacity] : Arrays.copyOf(this.ints, capacity);
+        } else if (this.type == Type.LONG) {
+            this.longs = Objects.isNull(this.longs) ? new long[capacity] : Arrays.copyOf(this.longs, capacity);
+        } else {
+            this.doubles = Objects.isNull(this.doubles) ? new double[capacity] : Arrays.copyOf(this.doubles, capacity);
+        }
+
+        int words = (capacity + 63) >>> 6;
+        this.nulls = Objects.isNull(this.nulls) ? new long[words] : Arrays.copyOf(this.nulls, words);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the doubled capacity, limited to the rows whose byte offset fits in the int index of a direct buffer, or
+     * to the length of an array. Offsets of rows within the capacity are then computed in int without overflow
+     *
+     * @throws IllegalStateException if the capacity cannot grow
+     */
+    static int grow(int capacity, int width, boolean direct, String name) {
+        int limit = direct ? Integer.MAX_VALUE / width : MAX_ARRAY_LENGTH;
+        if (capacity >= limit) {
+            throw new IllegalStateException("Cannot store more than " + limit + " values in column " + name);
+        }
+
+        return (int) Math.min(2L * capacity, limit);
+    }
+
+    private void check(int row) {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + this.size);
+        }
+    }
+}
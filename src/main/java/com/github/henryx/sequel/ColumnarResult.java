@@ -0,0 +1,110 @@
+package com.github.henryx.sequel;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ColumnarResult holds the rows of a query by column, in a vector of primitive values for every column. It is meant
+ * for analytics queries returning many numeric rows. Integer columns are stored as int, BIGINT columns as long and
+ * the other numeric columns as double
+ */
+public final class ColumnarResult {
+    private final List<ColumnVector> columns;
+    private final int rows;
+
+    private ColumnarResult(List<ColumnVector> columns, int rows) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.rows = rows;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int getRowCount() {
+        return this.rows;
+    }
+
+    /**
+     * @return the columns, in the order of the query
+     */
+    public List<ColumnVector> getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @param index the column index, starting from 0
+     * @return the column
+     */
+    public ColumnVector getColumn(int index) {
+        return this.columns.get(index);
+    }
+
+    /**
+     * @param name the column label, compared ignoring case
+     * @return the column
+     */
+    public ColumnVector getColumn(String name) {
+        for (ColumnVector column : this.columns) {
+            if (column.getName().equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+
+        throw new IllegalArgumentException("Column " + name + " not found");
+    }
+
+    /**
+     * @return the bytes allocated by all the columns
+     */
+    public long memoryUsage() {
+        return this.columns.stream().mapToLong(ColumnVector::memoryUsage).sum();
+    }
+
+    static ColumnarResult read(ResultSet rs, boolean direct) throws SQLException {
+        ResultSetMetaData metadata = rs.getMetaData();
+
+        List<ColumnVector> columns = new ArrayList<>();
+        for (int i = 1; i <= metadata.getColumnCount(); i++) {
+            columns.add(new ColumnVector(metadata.getColumnLabel(i), type(metadata, i), direct));
+        }
+
+        int rows = 0;
+        ColumnVector[] vectors = columns.toArray(new ColumnVector[0]);
+        while (rs.next()) {
+            for (int i = 0; i < vectors.length; i++) {
+                vectors[i].read(rs, i + 1);
+            }
+            rows++;
+        }
+
+        return new ColumnarResult(columns, rows);
+    }
+
+    private static ColumnVector.Type type(ResultSetMetaData metadata, int index) throws SQLException {
+        switch (metadata.getColumnType(index)) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return ColumnVector.Type.INT;
+            case Types.BIGINT:
+                return ColumnVector.Type.LONG;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                // Decimals without fraction digits fit in a long when their precision allows it
+                return metadata.getScale(index) == 0 && metadata.getPrecision(index) > 0 && metadata.getPrecision(index) < 19
+                        ? ColumnVector.Type.LONG
+                        : ColumnVector.Type.DOUBLE;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return ColumnVector.Type.DOUBLE;
+            default:
+                throw new SQLException("Column " + metadata.getColumnLabel(index) + " is not numeric");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.henryx.sequel;
+
+/**
+ * CompiledQuery holds the SQL of a query or statement rendered once. Compiled queries are compared by identity, so
+ * they are meant to be created once and kept in a constant
+ */
+public final class CompiledQuery {
+    private final String sql;
+
+    private CompiledQuery(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Compiles the query
+     *
+     * @param select the query
+     * @return the compiled query
+     */
+    public static CompiledQuery of(Sequel.Select select) {
+        return new CompiledQuery(select.getSql());
+    }
+
+    /**
+     * Compiles the insert statement
+     *
+     * @param insert the insert statement
+     * @return the compiled statement
+     */
+    public static CompiledQuery of(Sequel.Insert insert) {
+        return new CompiledQuery(insert.getSql());
+    }
+
+    /**
+     * Compiles an SQL query or statement
+     *
+     * @param sql the query or statement
+     * @return the compiled query
+     */
+    public static CompiledQuery of(String sql) {
+        return new CompiledQuery(sql);
+    }
+
+    public String getSql() {
+        return this.sql;
+    }
+
+    @Override
+    public String toString() {
+        return this.sql;
+    }
+}
@@ -0,0 +1,286 @@
+package com.github.henryx.sequel;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * CriteriaSimplifier rewrites a list of criteria, as used in WHERE and HAVING clauses, into an equivalent and shorter
+ * list. The list is evaluated with the SQL precedence, so it is a disjunction (OR) of conjunctions (AND). The rewrite:
+ * <ul>
+ * <li>removes duplicated predicates and duplicated conjunctions</li>
+ * <li>turns single value IN and NOT IN into equality and not equality</li>
+ * <li>keeps the tightest of numeric range bounds on the same column</li>
+ * <li>folds a lower and an upper bound on the same column into BETWEEN</li>
+ * <li>merges equality OR chains on the same column into IN</li>
+ * </ul>
+ * Positional parameters are never reordered, so a rewrite is skipped when it should move a parameter across another
+ */
+final class CriteriaSimplifier {
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+
+    private CriteriaSimplifier() {
+    }
+
+    static List<Criterion> simplify(List<Criterion> criteria) {
+        List<List<Criterion>> disjuncts = new ArrayList<>();
+
+        for (Criterion criterion : criteria) {
+            if (disjuncts.isEmpty() || Criterion.OR.equalsIgnoreCase(criterion.getMethod())) {
+                disjuncts.add(new ArrayList<>());
+            }
+            disjuncts.get(disjuncts.size() - 1).add(criterion);
+        }
+
+        List<List<Criterion>> simplified = new ArrayList<>();
+        Set<String> seen = new LinkedHashSet<>();
+        for (List<Criterion> conjunct : disjuncts) {
+            List<Criterion> result = simplifyConjunct(conjunct);
+            String key = render(result);
+
+            // Duplicated conjunctions are removed only when they don't bind parameters
+            if (result.stream().anyMatch(Criterion::hasParameters) || seen.add(key)) {
+                simplified.add(result);
+            }
+        }
+
+        simplified = mergeEqualities(simplified);
+
+        List<Criterion> result = new ArrayList<>();
+        for (List<Criterion> conjunct : simplified) {
+            for (int i = 0; i < conjunct.size(); i++) {
+                result.add(conjunct.get(i).withMethod(i == 0 && !result.isEmpty() ? Criterion.OR : Criterion.AND));
+            }
+        }
+
+        return result;
+    }
+
+    private static List<Criterion> simplifyConjunct(List<Criterion> conjunct) {
+        List<Criterion> result = new ArrayList<>();
+        Set<String> seen = new LinkedHashSet<>();
+
+        for (Criterion criterion : conjunct) {
+            Criterion single = singleValue(criterion);
+            if (single.hasParameters() || seen.add(single.getSql())) {
+                result.add(single);
+            }
+        }
+
+        result = tightenBounds(result, Criterion.GT, Criterion.GTE, 1);
+        result = tightenBounds(result, Criterion.LT, Criterion.LTE, -1);
+
+        return foldRanges(result);
+    }
+
+    private static Criterion singleValue(Criterion criterion) {
+        if (criterion.isGroup()) {
+            return simplifyGroup(criterion);
+        }
+
+        if (Objects.isNull(criterion.getSubquery()) && criterion.getValues().size() == 1) {
+            if (Criterion.IN.equals(criterion.getOperator())) {
+                return Criterion.of(criterion.getColumn(), Criterion.EQ, criterion.getValues());
+            } else if (Criterion.NOT_IN.equals(criterion.getOperator())) {
+                return Criterion.of(criterion.getColumn(), Criterion.NEQ, criterion.getValues());
+            }
+        }
+
+        return criterion;
+    }
+
+    /**
+     * Simplifies criteria inside an AND or OR group. A group left with one criterion is replaced by the criterion
+     */
+    private static Criterion simplifyGroup(Criterion group) {
+        if (Criterion.NOT.equals(group.getOperator())) {
+            return Criterion.group(Criterion.NOT, Collections.singletonList(singleValue(group.getChildren().get(0))));
+        }
+
+        List<Criterion> children = new ArrayList<>();
+        group.getChildren().forEach(child -> children.add(child.withMethod(group.getOperator())));
+
+        List<Criterion> simplified = simplify(children);
+        if (simplified.size() == 1) {
+            return simplified.get(0);
+        }
+
+        return Criterion.group(group.getOperator(), simplified);
+    }
+
+    /**
+     * Removes numeric bounds made redundant by a tighter bound on the same column. Direction is 1 for lower bounds and
+     * -1 for upper bounds
+     */
+    private static List<Criterion> tightenBounds(List<Criterion> criteria, String strict, String inclusive, int direction) {
+        List<Criterion> result = new ArrayList<>(criteria);
+
+        for (Criterion criterion : criteria) {
+            if (!isNumericBound(criterion, strict, inclusive) || !result.contains(criterion)) {
+                continue;
+            }
+
+            result.removeIf(other -> other != criterion
+                    && Objects.equals(other.getColumn(), criterion.getColumn())
+                    && isNumericBound(other, strict, inclusive)
+                    && isTighter(criterion, other, strict, direction));
+        }
+
+        return result;
+    }
+
+    private static boolean isTighter(Criterion bound, Criterion other, String strict, int direction) {
+        int comparison = new BigDecimal(bound.getValues().get(0)).compareTo(new BigDecimal(other.getValues().get(0)));
+        if (comparison == 0) {
+            return strict.equals(bound.getOperator()) || !strict.equals(other.getOperator());
+        }
+
+        return comparison * direction > 0;
+    }
+
+    private static boolean isNumericBound(Criterion criterion, String strict, String inclusive) {
+        return Objects.isNull(criterion.getSubquery())
+                && (strict.equals(criterion.getOperator()) || inclusive.equals(criterion.getOperator()))
+                && NUMBER.matcher(criterion.getValues().get(0)).matches();
+    }
+
+    private static List<Criterion> foldRanges(List<Criterion> criteria) {
+        List<Criterion> result = new ArrayList<>(criteria);
+
+        for (int i = 0; i < result.size(); i++) {
+            Criterion lower = result.get(i);
+            if (!Criterion.GTE.equals(lower.getOperator()) || Objects.nonNull(lower.getSubquery())) {
+                continue;
+            }
+
+            for (int j = 0; j < result.size(); j++) {
+                Criterion upper = result.get(j);
+                if (!Criterion.LTE.equals(upper.getOperator()) || Objects.nonNull(upper.getSubquery())
+                        || !Objects.equals(lower.getColumn(), upper.getColumn())
+                        || !canFold(result, i, j)) {
+                    continue;
+                }
+
+                List<String> values = new ArrayList<>();
+                values.add(lower.getValues().get(0));
+                values.add(upper.getValues().get(0));
+
+                int position = Math.min(i, j);
+                result.set(position, Criterion.of(lower.getColumn(), Criterion.BETWEEN, values));
+                result.remove(Math.max(i, j));
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean canFold(List<Criterion> criteria, int lower, int upper) {
+        boolean lowerParameters = criteria.get(lower).hasParameters();
+        boolean upperParameters = criteria.get(upper).hasParameters();
+
+        if (lowerParameters && upperParameters && upper < lower) {
+            return false;
+        }
+
+        // The bound rendered in the position of the other must not cross parameters
+        int moved = lower < upper ? upper : lower;
+        if (!criteria.get(moved).hasParameters()) {
+            return true;
+        }
+
+        for (int k = Math.min(lower, upper) + 1; k < Math.max(lower, upper); k++) {
+            if (criteria.get(k).hasParameters()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static List<List<Criterion>> mergeEqualities(List<List<Criterion>> disjuncts) {
+        List<List<Criterion>> result = new ArrayList<>();
+        boolean[] merged = new boolean[disjuncts.size()];
+
+        for (int i = 0; i < disjuncts.size(); i++) {
+            if (merged[i]) {
+                continue;
+            }
+
+            Criterion first = equality(disjuncts.get(i));
+            if (Objects.isNull(first)) {
+                result.add(disjuncts.get(i));
+                continue;
+            }
+
+            List<String> values = new ArrayList<>(first.getValues());
+            for (int j = i + 1; j < disjuncts.size(); j++) {
+                Criterion other = equality(disjuncts.get(j));
+                if (Objects.isNull(other) || merged[j] || !Objects.equals(first.getColumn(), other.getColumn())
+                        || (other.hasParameters() && crossesParameters(disjuncts, merged, i, j))) {
+                    continue;
+                }
+
+                values.addAll(other.getValues());
+                merged[j] = true;
+            }
+
+            List<String> distinct = new ArrayList<>();
+            for (String value : values) {
+                if ("?".equals(value) || !distinct.contains(value)) {
+                    distinct.add(value);
+                }
+            }
+
+            List<Criterion> conjunct = new ArrayList<>();
+            conjunct.add(distinct.size() == 1
+                    ? Criterion.of(first.getColumn(), Criterion.EQ, distinct)
+                    : Criterion.of(first.getColumn(), Criterion.IN, distinct));
+            result.add(conjunct);
+        }
+
+        return result;
+    }
+
+    private static boolean crossesParameters(List<List<Criterion>> disjuncts, boolean[] merged, int from, int to) {
+        for (int k = from + 1; k < to; k++) {
+            if (!merged[k] && disjuncts.get(k).stream().anyMatch(Criterion::hasParameters)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the criterion when the conjunction is a single equality or IN on values, otherwise null
+     */
+    private static Criterion equality(List<Criterion> conjunct) {
+        if (conjunct.size() != 1) {
+            return null;
+        }
+
+        Criterion criterion = conjunct.get(0);
+        if (Objects.nonNull(criterion.getSubquery())) {
+            return null;
+        }
+
+        if (Criterion.EQ.equals(criterion.getOperator()) || Criterion.IN.equals(criterion.getOperator())) {
+            return criterion;
+        }
+
+        return null;
+    }
+
+    private static String render(List<Criterion> conjunct) {
+        List<String> pieces = new ArrayList<>();
+        conjunct.forEach(criterion -> pieces.add(criterion.getSql()));
+
+        return String.join(" AND ", pieces);
+    }
+}
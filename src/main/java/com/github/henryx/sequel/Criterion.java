@@ -1,7 +1,14 @@
 package com.github.henryx.sequel;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -11,17 +18,173 @@ public class Criterion {
     public static final String AND = "AND";
     public static final String OR = "OR";
 
+    static final String EQ = "=";
+    static final String NEQ = "!=";
+    static final String GT = ">";
+    static final String GTE = ">=";
+    static final String LT = "<";
+    static final String LTE = "<=";
+    static final String IN = "IN";
+    static final String NOT_IN = "NOT IN";
+    static final String BETWEEN = "BETWEEN";
+    static final String IS_NULL = "IS NULL";
+    static final String IS_NOT_NULL = "IS NOT NULL";
+    static final String NOT = "NOT";
+    static final String EXISTS = "EXISTS";
+    static final String NOT_EXISTS = "NOT EXISTS";
+
     private final String criterion;
+    private final String column;
+    private final String operator;
+    private final List<String> values;
+    private final Sequel.Select subquery;
+    private final List<Criterion> children;
     private String method;
 
-    private Criterion(String criterion) {
-        this.criterion = criterion;
+    private Criterion(String column, String operator, List<String> values, Sequel.Select subquery) {
+        this.column = column;
+        this.operator = operator;
+        this.values = Collections.unmodifiableList(values);
+        this.subquery = subquery;
+        this.children = Collections.emptyList();
+        this.criterion = build(column, operator, values, subquery);
 
         this.method = Criterion.AND; // Default value
     }
 
-    private static String build(String... pieces) {
-        return String.join(" ", pieces);
+    private Criterion(String operator, List<Criterion> children) {
+        if (children.isEmpty()) {
+            throw new ValueMismatchException("Cannot build " + operator + " group. No criteria are passed");
+        }
+
+        this.column = null;
+        this.operator = operator;
+        this.values = Collections.emptyList();
+        this.subquery = null;
+        this.children = Collections.unmodifiableList(children);
+        this.criterion = build(operator, children);
+
+        this.method = Criterion.AND; // Default value
+    }
+
+    private Criterion(String column, String operator, String... values) {
+        this(column, operator, Arrays.asList(values), null);
+    }
+
+    private Criterion(String column, String operator, Sequel.Select subquery) {
+        this(column, operator, Collections.singletonList(subquery.render()), subquery);
+    }
+
+    private static String build(String column, String operator, List<String> values, Sequel.Select subquery) {
+        if (Objects.nonNull(subquery)) {
+            StringJoiner val = new StringJoiner("", "(", ")");
+            val.add(values.get(0));
+
+            if (Objects.isNull(column)) {
+                return String.join(" ", operator, val.toString());
+            }
+
+            return String.join(" ", column, operator, val.toString());
+        }
+
+        switch (operator) {
+            case IN:
+            case NOT_IN:
+                return String.join(" ", column, operator, values.stream().collect(Collectors.joining(", ", "(", ")")));
+            case BETWEEN:
+                return String.join(" ", column, operator, values.get(0), "AND", values.get(1));
+            case IS_NULL:
+            case IS_NOT_NULL:
+                return String.join(" ", column, operator);
+            default:
+                return String.join(" ", column, operator, values.get(0));
+        }
+    }
+
+    private static String build(String operator, List<Criterion> children) {
+        if (NOT.equals(operator)) {
+            Criterion child = children.get(0);
+            return child.isGroup() && !NOT.equals(child.operator) ? NOT + " " + child.getSql() : NOT + " (" + child.getSql() + ")";
+        }
+
+        StringJoiner joiner = new StringJoiner(" " + operator + " ", "(", ")");
+        children.forEach(child -> joiner.add(child.getSql()));
+
+        return joiner.toString();
+    }
+
+    /**
+     * Returns a new group with the same operator and with the passed criteria
+     */
+    static Criterion group(String operator, List<Criterion> children) {
+        return new Criterion(operator, children);
+    }
+
+    /**
+     * Returns a list of criteria, evaluated with the SQL precedence of their methods, as an OR group of AND groups
+     */
+    static Criterion disjunction(List<Criterion> criteria) {
+        List<List<Criterion>> conjuncts = new ArrayList<>();
+        for (Criterion criterion : criteria) {
+            if (conjuncts.isEmpty() || OR.equalsIgnoreCase(criterion.getMethod())) {
+                conjuncts.add(new ArrayList<>());
+            }
+            conjuncts.get(conjuncts.size() - 1).add(criterion);
+        }
+
+        List<Criterion> children = new ArrayList<>();
+        conjuncts.forEach(conjunct -> children.add(conjunct.size() == 1 ? conjunct.get(0) : new Criterion(AND, conjunct)));
+
+        return new Criterion(OR, children);
+    }
+
+    /**
+     * Returns a copy of the criterion where column and values are transformed by the passed function. Groups are
+     * transformed recursively and subqueries are kept unchanged
+     */
+    Criterion map(Function<String, String> function) {
+        Criterion criterion;
+        if (this.isGroup()) {
+            List<Criterion> mapped = new ArrayList<>();
+            this.children.forEach(child -> mapped.add(child.map(function)));
+            criterion = new Criterion(this.operator, mapped);
+        } else if (Objects.nonNull(this.subquery)) {
+            criterion = new Criterion(Objects.isNull(this.column) ? null : function.apply(this.column), this.operator,
+                    this.values, this.subquery);
+        } else {
+            criterion = new Criterion(function.apply(this.column), this.operator,
+                    this.values.stream().map(function).collect(Collectors.toList()), null);
+        }
+        criterion.method = this.method;
+
+        return criterion;
+    }
+
+    /**
+     * Returns the names of the tables read by subqueries used in the criterion
+     */
+    Set<String> getTables() {
+        Set<String> tables = new LinkedHashSet<>();
+        if (Objects.nonNull(this.subquery)) {
+            tables.addAll(this.subquery.getTables());
+        }
+        this.children.forEach(child -> tables.addAll(child.getTables()));
+
+        return tables;
+    }
+
+    /**
+     * Checks if the criterion, or one of the criteria of the group, uses a subquery
+     */
+    boolean hasSubquery() {
+        return Objects.nonNull(this.subquery) || this.children.stream().anyMatch(Criterion::hasSubquery);
+    }
+
+    /**
+     * Returns a new criterion with the same column and operator and with the passed values
+     */
+    static Criterion of(String column, String operator, List<String> values) {
+        return new Criterion(column, operator, values, null);
     }
 
     /**
@@ -32,7 +195,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion eq(String col1, String col2) {
-        return new Criterion(build(col1, "=", col2));
+        return new Criterion(col1, EQ, col2);
     }
 
     /**
@@ -43,10 +206,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion eq(String col1, Sequel.Select subquery) {
-        StringJoiner val = new StringJoiner("", "(", ")");
-        val.add(subquery.getSql());
-
-        return new Criterion(build(col1, "=", val.toString()));
+        return new Criterion(col1, EQ, subquery);
     }
 
     /**
@@ -57,7 +217,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion neq(String col1, String col2) {
-        return new Criterion(build(col1, "!=", col2));
+        return new Criterion(col1, NEQ, col2);
     }
 
     /**
@@ -68,10 +228,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion neq(String col1, Sequel.Select subquery) {
-        StringJoiner val = new StringJoiner("", "(", ")");
-        val.add(subquery.getSql());
-
-        return new Criterion(build(col1, "!=", val.toString()));
+        return new Criterion(col1, NEQ, subquery);
     }
 
     /**
@@ -82,7 +239,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion gt(String col1, String col2) {
-        return new Criterion(build(col1, ">", col2));
+        return new Criterion(col1, GT, col2);
     }
 
     /**
@@ -93,9 +250,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion gt(String col1, Sequel.Select subquery) {
-        StringJoiner val = new StringJoiner("", "(", ")");
-        val.add(subquery.getSql());
-        return new Criterion(build(col1, ">", val.toString()));
+        return new Criterion(col1, GT, subquery);
     }
 
     /**
@@ -106,7 +261,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion gte(String col1, String col2) {
-        return new Criterion(build(col1, ">=", col2));
+        return new Criterion(col1, GTE, col2);
     }
 
     /**
@@ -117,9 +272,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion gte(String col1, Sequel.Select subquery) {
-        StringJoiner val = new StringJoiner("", "(", ")");
-        val.add(subquery.getSql());
-        return new Criterion(build(col1, ">=", val.toString()));
+        return new Criterion(col1, GTE, subquery);
     }
 
     /**
@@ -130,7 +283,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion lt(String col1, String col2) {
-        return new Criterion(build(col1, "<", col2));
+        return new Criterion(col1, LT, col2);
     }
 
     /**
@@ -141,9 +294,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion lt(String col1, Sequel.Select subquery) {
-        StringJoiner val = new StringJoiner("", "(", ")");
-        val.add(subquery.getSql());
-        return new Criterion(build(col1, "<", val.toString()));
+        return new Criterion(col1, LT, subquery);
     }
 
     /**
@@ -154,7 +305,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion lte(String col1, String col2) {
-        return new Criterion(build(col1, "<=", col2));
+        return new Criterion(col1, LTE, col2);
     }
 
     /**
@@ -165,9 +316,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion lte(String col1, Sequel.Select subquery) {
-        StringJoiner val = new StringJoiner("", "(", ")");
-        val.add(subquery.getSql());
-        return new Criterion(build(col1, "<=", val.toString()));
+        return new Criterion(col1, LTE, subquery);
     }
 
     /**
@@ -178,8 +327,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion in(String col1, String... values) {
-        String val = Arrays.stream(values).collect(Collectors.joining(", ", "(", ")"));
-        return new Criterion(build(col1, "IN", val));
+        return new Criterion(col1, IN, values);
     }
 
     /**
@@ -190,9 +338,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion in(String col1, Sequel.Select subquery) {
-        StringJoiner val = new StringJoiner("", "(", ")");
-        val.add(subquery.getSql());
-        return new Criterion(build(col1, "IN", val.toString()));
+        return new Criterion(col1, IN, subquery);
     }
 
     /**
@@ -203,8 +349,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion nin(String col1, String... values) {
-        String val = Arrays.stream(values).collect(Collectors.joining(", ", "(", ")"));
-        return new Criterion(build(col1, "NOT IN", val));
+        return new Criterion(col1, NOT_IN, values);
     }
 
     /**
@@ -215,9 +360,27 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion nin(String col1, Sequel.Select subquery) {
-        StringJoiner val = new StringJoiner("", "(", ")");
-        val.add(subquery.getSql());
-        return new Criterion(build(col1, "NOT IN", val.toString()));
+        return new Criterion(col1, NOT_IN, subquery);
+    }
+
+    /**
+     * EXISTS filter. The subquery can reference columns of the outer query, using their table name or alias
+     *
+     * @param subquery Select object used as subquery filter
+     * @return a builder instance of the class
+     */
+    public static Criterion exists(Sequel.Select subquery) {
+        return new Criterion(null, EXISTS, subquery);
+    }
+
+    /**
+     * NOT EXISTS filter. The subquery can reference columns of the outer query, using their table name or alias
+     *
+     * @param subquery Select object used as subquery filter
+     * @return a builder instance of the class
+     */
+    public static Criterion notExists(Sequel.Select subquery) {
+        return new Criterion(null, NOT_EXISTS, subquery);
     }
 
     /**
@@ -229,7 +392,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion between(String column, String start, String end) {
-        return new Criterion(build(column, "BETWEEN", start, "AND", end));
+        return new Criterion(column, BETWEEN, start, end);
     }
 
     /**
@@ -239,7 +402,7 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion isNull(String col1) {
-        return new Criterion(build(col1, "IS NULL"));
+        return new Criterion(col1, IS_NULL);
     }
 
     /**
@@ -249,7 +412,170 @@ public class Criterion {
      * @return a builder instance of the class
      */
     public static Criterion isNotNull(String col1) {
-        return new Criterion(build(col1, "IS NOT NULL"));
+        return new Criterion(col1, IS_NOT_NULL);
+    }
+
+    /**
+     * Equality filter
+     *
+     * @param col1 Column at left of the filter
+     * @param col2 Column at the right of the filter
+     * @return a builder instance of the class
+     */
+    public static Criterion eq(Column col1, String col2) {
+        return new Criterion(col1.getSql(), EQ, col2);
+    }
+
+    /**
+     * Equality filter between two columns, e.g. in a join condition
+     *
+     * @param col1 Column at left of the filter
+     * @param col2 Column at the right of the filter
+     * @return a builder instance of the class
+     */
+    public static Criterion eq(Column col1, Column col2) {
+        return new Criterion(col1.getSql(), EQ, col2.getSql());
+    }
+
+    /**
+     * Not equality filter
+     *
+     * @param col1 Column at left of the filter
+     * @param col2 Column at the right of the filter
+     * @return a builder instance of the class
+     */
+    public static Criterion neq(Column col1, String col2) {
+        return new Criterion(col1.getSql(), NEQ, col2);
+    }
+
+    /**
+     * Greater than filter
+     *
+     * @param col1 Column at left of the filter
+     * @param col2 Column at the right of the filter
+     * @return a builder instance of the class
+     */
+    public static Criterion gt(Column col1, String col2) {
+        return new Criterion(col1.getSql(), GT, col2);
+    }
+
+    /**
+     * Greater or equal than filter
+     *
+     * @param col1 Column at left of the filter
+     * @param col2 Column at the right of the filter
+     * @return a builder instance of the class
+     */
+    public static Criterion gte(Column col1, String col2) {
+        return new Criterion(col1.getSql(), GTE, col2);
+    }
+
+    /**
+     * Less than filter
+     *
+     * @param col1 Column at left of the filter
+     * @param col2 Column at the right of the filter
+     * @return a builder instance of the class
+     */
+    public static Criterion lt(Column col1, String col2) {
+        return new Criterion(col1.getSql(), LT, col2);
+    }
+
+    /**
+     * Less or equal than filter
+     *
+     * @param col1 Column at left of the filter
+     * @param col2 Column at the right of the filter
+     * @return a builder instance of the class
+     */
+    public static Criterion lte(Column col1, String col2) {
+        return new Criterion(col1.getSql(), LTE, col2);
+    }
+
+    /**
+     * IN filter
+     *
+     * @param col1   Column at left of the filter
+     * @param values Values used in the IN filter
+     * @return a builder instance of the class
+     */
+    public static Criterion in(Column col1, String... values) {
+        return new Criterion(col1.getSql(), IN, values);
+    }
+
+    /**
+     * NOT IN filter
+     *
+     * @param col1   Column at left of the filter
+     * @param values Values used in the IN filter
+     * @return a builder instance of the class
+     */
+    public static Criterion nin(Column col1, String... values) {
+        return new Criterion(col1.getSql(), NOT_IN, values);
+    }
+
+    /**
+     * Between filter
+     *
+     * @param column Column to be evaluated
+     * @param start  Value used to start evaluation
+     * @param end    Value used to end evaluation
+     * @return a builder instance of the class
+     */
+    public static Criterion between(Column column, String start, String end) {
+        return new Criterion(column.getSql(), BETWEEN, start, end);
+    }
+
+    /**
+     * Is null filter
+     *
+     * @param col1 Column to be evaluated
+     * @return a builder instance of the class
+     */
+    public static Criterion isNull(Column col1) {
+        return new Criterion(col1.getSql(), IS_NULL);
+    }
+
+    /**
+     * Is not null filter
+     *
+     * @param col1 Column to be evaluated
+     * @return a builder instance of the class
+     */
+    public static Criterion isNotNull(Column col1) {
+        return new Criterion(col1.getSql(), IS_NOT_NULL);
+    }
+
+    /**
+     * AND group evaluates all passed criteria in AND, enclosed in parentheses. Methods of the passed criteria are
+     * ignored
+     *
+     * @param criteria criteria that are part of the group
+     * @return a builder instance of the class
+     */
+    public static Criterion and(Criterion... criteria) {
+        return new Criterion(AND, Arrays.asList(criteria));
+    }
+
+    /**
+     * OR group evaluates all passed criteria in OR, enclosed in parentheses. Methods of the passed criteria are
+     * ignored
+     *
+     * @param criteria criteria that are part of the group
+     * @return a builder instance of the class
+     */
+    public static Criterion or(Criterion... criteria) {
+        return new Criterion(OR, Arrays.asList(criteria));
+    }
+
+    /**
+     * NOT negates the passed criterion
+     *
+     * @param criterion criterion to be negated
+     * @return a builder instance of the class
+     */
+    public static Criterion not(Criterion criterion) {
+        return new Criterion(NOT, Collections.singletonList(criterion));
     }
 
     /**
@@ -273,6 +599,52 @@ public class Criterion {
         return method;
     }
 
+    /**
+     * Returns a copy of the criterion evaluated with the passed method
+     */
+    Criterion withMethod(String method) {
+        Criterion criterion = this.isGroup()
+                ? new Criterion(this.operator, this.children)
+                : new Criterion(this.column, this.operator, this.values, this.subquery);
+        criterion.method = method;
+
+        return criterion;
+    }
+
+    String getColumn() {
+        return column;
+    }
+
+    String getOperator() {
+        return operator;
+    }
+
+    List<String> getValues() {
+        return values;
+    }
+
+    Sequel.Select getSubquery() {
+        return subquery;
+    }
+
+    List<Criterion> getChildren() {
+        return children;
+    }
+
+    /**
+     * Checks if the criterion is an AND, OR or NOT group
+     */
+    boolean isGroup() {
+        return !this.children.isEmpty();
+    }
+
+    /**
+     * Checks if the criterion contains positional parameters
+     */
+    boolean hasParameters() {
+        return this.criterion.indexOf('?') >= 0;
+    }
+
 
     /**
      * getSql returns generated criterion
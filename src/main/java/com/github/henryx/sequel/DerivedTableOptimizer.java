@@ -0,0 +1,231 @@
+package com.github.henryx.sequel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * DerivedTableOptimizer optimizes subqueries used in FROM clause, that some planners materialize before applying the
+ * outer query:
+ * <ul>
+ * <li>criteria of the outer WHERE clause that only reference columns of the subquery are moved in the subquery, when
+ * the subquery doesn't aggregate, limit or combine rows and is not on the null-supplying side of an outer join</li>
+ * <li>columns of the subquery that are never referenced by the outer query are removed</li>
+ * </ul>
+ * Positional parameters are never reordered, so a criterion is not moved when it should cross another parameter
+ */
+final class DerivedTableOptimizer {
+    private static final Pattern AGGREGATE = Pattern.compile("(?i)\\b(COUNT|SUM|AVG|MIN|MAX)\\s*\\(|\\bOVER\\s*\\(");
+
+    private DerivedTableOptimizer() {
+    }
+
+    static Sequel.Select optimize(Sequel.Select select) {
+        Sequel.Select outer = select.copy();
+        outer.setOptimizeDerivedTables(false);
+
+        // Subqueries are processed from the last one, so parameters of the following ones are already in place
+        List<String> aliases = new ArrayList<>(outer.getDerived().keySet());
+        Collections.reverse(aliases);
+
+        for (String alias : aliases) {
+            Sequel.Select inner = outer.getDerived().get(alias).copy();
+            inner.setOptimizeDerivedTables(true);
+
+            pushDown(outer, alias, inner);
+            prune(outer, alias, inner);
+
+            outer.getDerived().put(alias, inner);
+        }
+
+        return outer;
+    }
+
+    private static void pushDown(Sequel.Select outer, String alias, Sequel.Select inner) {
+        if (!inner.getGroupBy().isEmpty() || !inner.getHavingCriteria().isEmpty()
+                || Objects.nonNull(inner.getLimit()) || Objects.nonNull(inner.getOffset()) || inner.hasSetOperations()
+                || inner.getColumns().stream().anyMatch(column -> isDistinct(column) || AGGREGATE.matcher(column).find())) {
+            return;
+        }
+
+        if (isNullSupplying(outer, alias)) {
+            return;
+        }
+
+        List<Criterion> criteria = outer.getWhereCriteria();
+        if (criteria.stream().skip(1).anyMatch(criterion -> !Criterion.AND.equalsIgnoreCase(criterion.getMethod()))) {
+            return;
+        }
+
+        boolean parameters = inner.getOrderBy().stream().anyMatch(column -> column.indexOf('?') >= 0)
+                || outer.getJoins().stream().anyMatch(join -> join.getSql().indexOf('?') >= 0)
+                || followingParameters(outer, alias);
+
+        List<Criterion> kept = new ArrayList<>();
+        List<Criterion> pushed = new ArrayList<>();
+        for (Criterion criterion : criteria) {
+            Criterion mapped = map(criterion, alias, inner);
+
+            if (Objects.nonNull(mapped) && (!criterion.hasParameters() || !parameters)) {
+                pushed.add(mapped.withMethod(Criterion.AND));
+            } else {
+                kept.add(criterion);
+                parameters = parameters || criterion.hasParameters();
+            }
+        }
+
+        if (pushed.isEmpty()) {
+            return;
+        }
+
+        List<Criterion> where = new ArrayList<>(inner.getWhereCriteria());
+        inner.getWhereCriteria().clear();
+        if (where.stream().skip(1).anyMatch(criterion -> Criterion.OR.equalsIgnoreCase(criterion.getMethod()))) {
+            inner.where(Criterion.disjunction(where));
+        } else {
+            where.forEach(inner::where);
+        }
+        pushed.forEach(inner::where);
+
+        criteria.clear();
+        for (int i = 0; i < kept.size(); i++) {
+            criteria.add(i == 0 ? kept.get(i).withMethod(Criterion.AND) : kept.get(i));
+        }
+    }
+
+    /**
+     * Checks if the subquery can be replaced by NULL values by an outer join, so a criterion of the outer WHERE clause
+     * filters rows that the subquery cannot filter. The subquery is at the left of every RIGHT and FULL OUTER join
+     */
+    private static boolean isNullSupplying(Sequel.Select outer, String alias) {
+        for (Join join : outer.getJoins()) {
+            switch (join.getType()) {
+                case RIGHT:
+                case RIGHTOUTER:
+                case FULLOUTER:
+                    return true;
+                case LEFT:
+                case LEFTOUTER:
+                    if (Expressions.alias(join.getTable()).equals(alias)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the criterion rewritten on the columns of the subquery, or null if it references other columns
+     */
+    private static Criterion map(Criterion criterion, String alias, Sequel.Select inner) {
+        if (criterion.hasSubquery()) {
+            return null;
+        }
+
+        List<String> identifiers = Expressions.identifiers(criterion.getSql());
+        if (identifiers.isEmpty()) {
+            return null;
+        }
+
+        for (String identifier : identifiers) {
+            if (!identifier.startsWith(alias + ".") || Objects.isNull(resolve(inner, identifier.substring(alias.length() + 1)))) {
+                return null;
+            }
+        }
+
+        return criterion.map(text -> Expressions.replaceIdentifiers(text, identifier -> {
+            String expression = resolve(inner, identifier.substring(alias.length() + 1));
+            return Expressions.outputName(expression) != null && !expression.contains(" ") ? expression : "(" + expression + ")";
+        }));
+    }
+
+    /**
+     * Returns the expression of the subquery column with the passed name, or null if it doesn't exist
+     */
+    private static String resolve(Sequel.Select inner, String name) {
+        for (String column : inner.getColumns()) {
+            if (name.equalsIgnoreCase(Expressions.outputName(column)) && !column.trim().endsWith("*")) {
+                return Expressions.expression(column);
+            }
+        }
+
+        // Columns selected with a wildcard are available only when the subquery reads a single table
+        if (inner.getJoins().isEmpty() && inner.getFrom().size() == 1 && inner.getDerived().isEmpty()) {
+            for (String column : inner.getColumns()) {
+                if (Expressions.isWildcard(column)) {
+                    return name;
+                } else if (column.trim().endsWith(".*")) {
+                    String qualifier = column.trim().substring(0, column.trim().length() - 2);
+                    return qualifier + "." + name;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean followingParameters(Sequel.Select outer, String alias) {
+        List<String> from = outer.getFrom();
+        Map<String, Sequel.Select> derived = outer.getDerived();
+
+        for (int i = from.indexOf(alias) + 1; i < from.size(); i++) {
+            String table = from.get(i);
+            String sql = derived.containsKey(table) ? derived.get(table).render() : table;
+            if (sql.indexOf('?') >= 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void prune(Sequel.Select outer, String alias, Sequel.Select inner) {
+        if (inner.hasSetOperations() || inner.getColumns().stream().anyMatch(column -> isDistinct(column) || column.trim().endsWith("*"))) {
+            return;
+        }
+
+        List<String> texts = new ArrayList<>(outer.getColumns());
+        if (texts.stream().anyMatch(column -> Expressions.isWildcard(column) || column.trim().equals(alias + ".*"))) {
+            return;
+        }
+
+        texts.addAll(outer.getGroupBy());
+        texts.addAll(outer.getOrderBy());
+        outer.getWhereCriteria().forEach(criterion -> texts.add(criterion.getSql()));
+        outer.getHavingCriteria().forEach(criterion -> texts.add(criterion.getSql()));
+        outer.getJoins().forEach(join -> join.getCriteria().forEach(criterion -> texts.add(criterion.getSql())));
+        // LATERAL subqueries can reference the columns of the derived tables at their left
+        outer.getJoins().stream()
+                .filter(join -> Objects.nonNull(join.getSubquery()))
+                .forEach(join -> texts.add(join.getSubquery().render()));
+
+        // Aliases can be referenced by the subquery itself in ORDER BY and HAVING
+        texts.addAll(inner.getOrderBy());
+        inner.getHavingCriteria().forEach(criterion -> texts.add(criterion.getSql()));
+
+        List<String> columns = new ArrayList<>();
+        for (String column : inner.getColumns()) {
+            String name = Expressions.outputName(column);
+            if (Objects.isNull(name) || texts.stream().anyMatch(text -> Expressions.referencesName(text, name))) {
+                columns.add(column);
+            }
+        }
+
+        if (columns.isEmpty()) {
+            columns.add(inner.getColumns().get(0));
+        }
+
+        inner.setColumns(columns);
+    }
+
+    private static boolean isDistinct(String column) {
+        return column.trim().toUpperCase().startsWith("DISTINCT ");
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.henryx.sequel;
+
+/**
+ * Dialect identifies the SQL flavour used to render statements. Parts of the statement that are not supported by a
+ * dialect (like optimizer hints) are dropped when the statement is rendered
+ */
+public enum Dialect {
+    STANDARD,
+    H2,
+    MYSQL,
+    POSTGRESQL,
+    ORACLE,
+    SQLSERVER,
+    SQLITE
+}
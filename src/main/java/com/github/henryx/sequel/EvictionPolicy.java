@@ -0,0 +1,15 @@
+package com.github.henryx.sequel;
+
+/**
+ * EvictionPolicy sets which entry is removed from a full cache
+ */
+public enum EvictionPolicy {
+    /**
+     * Removes the least recently used entry
+     */
+    LRU,
+    /**
+     * Removes the least frequently used entry. Ties are broken by the least recently used
+     */
+    LFU
+}
@@ -0,0 +1,324 @@
+package com.github.henryx.sequel;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Executor executes queries and statements generated by Sequel using JDBC. Every execution borrows a connection from
+ * the DataSource and releases it when done
+ */
+public class Executor {
+    private final DataSource dataSource;
+
+    public Executor(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Executes the query and maps every returned row
+     *
+     * @param select the query
+     * @param mapper the mapper used for every row
+     * @param params values bound to the query parameters
+     * @param <T>    the type of the mapped rows
+     * @return the list of mapped rows
+     * @throws SQLException if the query fails
+     */
+    public <T> List<T> query(Sequel.Select select, RowMapper<T> mapper, Object... params) throws SQLException {
+        return this.query(select.getSql(), mapper, params);
+    }
+
+    /**
+     * Executes the query and maps every returned row to an instance of the class
+     *
+     * @param select the query
+     * @param type   the class of the mapped rows
+     * @param params values bound to the query parameters
+     * @param <T>    the type of the mapped rows
+     * @return the list of mapped rows
+     * @throws SQLException if the query fails or the columns cannot be mapped to the class
+     * @see RowMappers
+     */
+    public <T> List<T> query(Sequel.Select select, Class<T> type, Object... params) throws SQLException {
+        return this.query(select, RowMappers.of(type), params);
+    }
+
+    /**
+     * Executes the query and stores the returned rows by column, in primitive arrays or in direct buffers outside the
+     * heap. All the columns of the query must be numeric
+     *
+     * @param select the query
+     * @param direct true to store values in direct buffers
+     * @param params values bound to the query parameters
+     * @return the columns of the result
+     * @throws SQLException if the query fails or a column is not numeric
+     */
+    public ColumnarResult queryColumnar(Sequel.Select select, boolean direct, Object... params) throws SQLException {
+        Connection connection = this.getConnection(false);
+        try (PreparedStatement statement = connection.prepareStatement(select.getSql())) {
+            bind(statement, params);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                return ColumnarResult.read(rs, direct);
+            }
+        } finally {
+            this.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Returns a publisher that streams the rows of the query on demand. The query is executed when the subscriber
+     * requests the first rows
+     *
+     * @param select the query
+     * @param mapper the mapper used for every row
+     * @param params values bound to the query parameters
+     * @param <T>    the type of the mapped rows
+     * @return the publisher of the mapped rows
+     */
+    public <T> RowPublisher<T> publish(Sequel.Select select, RowMapper<T> mapper, Object... params) {
+        return new RowPublisher<>(this, select.getSql(), mapper, params);
+    }
+
+    /**
+     * Returns a batch of queries executed in a single round trip
+     *
+     * @return the batch
+     */
+    public QueryBatch batch() {
+        return new QueryBatch(this);
+    }
+
+    /**
+     * Executes the insert statement, without the RETURNING or OUTPUT clause since only the count is returned
+     *
+     * @param insert the insert statement
+     * @param params values bound to the statement parameters
+     * @return the number of inserted rows
+     * @throws SQLException if the statement fails
+     */
+    public int update(Sequel.Insert insert, Object... params) throws SQLException {
+        return this.update(insert.getSqlWithoutReturning(), params);
+    }
+
+    /**
+     * Executes the insert statement and maps the returned columns of every inserted row, in a single round trip. The
+     * columns are read from the RETURNING or OUTPUT clause when the dialect of the statement renders it, otherwise as
+     * generated keys. Without returned columns, the generated keys chosen by the driver are read
+     *
+     * @param insert the insert statement
+     * @param mapper the mapper used for every inserted row
+     * @param params values bound to the statement parameters
+     * @param <T>    the type of the mapped rows
+     * @return the list of mapped rows
+     * @throws SQLException if the statement fails
+     */
+    public <T> List<T> insert(Sequel.Insert insert, RowMapper<T> mapper, Object... params) throws SQLException {
+        boolean clause = insert.hasReturningClause();
+
+        Connection connection = this.getConnection(true);
+        try (PreparedStatement statement = prepare(connection, insert, clause ? insert.getSql() : insert.getSqlWithoutReturning(), clause)) {
+            bind(statement, params);
+
+            if (clause) {
+                try (ResultSet rs = statement.executeQuery()) {
+                    return map(rs, mapper);
+                }
+            }
+
+            statement.executeUpdate();
+            try (ResultSet rs = statement.getGeneratedKeys()) {
+                return map(rs, mapper);
+            }
+        } finally {
+            this.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Executes the insert statement once for every set of parameters in a single JDBC batch, and maps the generated
+     * keys of all the inserted rows. The RETURNING or OUTPUT clause is not rendered, since it cannot return rows in a
+     * batch, so the driver must support generated keys for batches, like the PostgreSQL, MySQL and H2 drivers do
+     *
+     * @param insert the insert statement
+     * @param mapper the mapper used for every inserted row
+     * @param batch  values bound to the statement parameters, for every execution
+     * @param <T>    the type of the mapped rows
+     * @return the list of mapped rows
+     * @throws SQLException if the statement fails
+     */
+    public <T> List<T> insertBatch(Sequel.Insert insert, RowMapper<T> mapper, List<Object[]> batch) throws SQLException {
+        Connection connection = this.getConnection(true);
+        try (PreparedStatement statement = prepare(connection, insert, insert.getSqlWithoutReturning(), false)) {
+            for (Object[] params : batch) {
+                bind(statement, params);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            try (ResultSet rs = statement.getGeneratedKeys()) {
+                return map(rs, mapper);
+            }
+        } finally {
+            this.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Executes an INSERT, UPDATE or DELETE statement
+     *
+     * @param sql    the statement
+     * @param params values bound to the statement parameters
+     * @return the number of changed rows
+     * @throws SQLException if the statement fails
+     */
+    public int update(String sql, Object... params) throws SQLException {
+        Connection connection = this.getConnection(true);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, params);
+
+            return statement.executeUpdate();
+        } finally {
+            this.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Returns the estimated number of rows of the table, read from the statistics kept by the database instead of
+     * scanning the table. The table is never scanned: the estimate is unknown when the dialect keeps no statistics
+     * readable by a query (like H2 and SQLite), when the table is not found or when its statistics are not collected
+     * yet. PostgreSQL before version 14 reports no rows for tables never analyzed, so an empty table is unknown too
+     *
+     * @param table   the table name, optionally qualified with the schema
+     * @param dialect the dialect of the database
+     * @return the estimated number of rows, or null if it is unknown
+     * @throws SQLException if the statistics cannot be read
+     */
+    public Long approximateCount(String table, Dialect dialect) throws SQLException {
+        String sql = statistics(dialect);
+        if (Objects.isNull(sql)) {
+            return null;
+        }
+
+        int separator = table.lastIndexOf('.');
+        String schema = separator < 0 ? null : table.substring(0, separator);
+        String name = table.substring(separator + 1);
+
+        Object[] params = Objects.equals(dialect, Dialect.POSTGRESQL) || Objects.equals(dialect, Dialect.SQLSERVER)
+                ? new Object[]{table}
+                : new Object[]{schema, name};
+        List<Long> rows = this.query(sql, rs -> {
+            long value = rs.getLong(1);
+            return rs.wasNull() ? null : value;
+        }, params);
+
+        return rows.isEmpty() || Objects.isNull(rows.get(0)) || rows.get(0) < 0 ? null : rows.get(0);
+    }
+
+    /**
+     * Returns the query reading the estimated number of rows of a table, or null if the dialect has no statistics
+     */
+    private static String statistics(Dialect dialect) {
+        switch (dialect) {
+            case POSTGRESQL:
+                // reltuples is -1 when the table is never analyzed, or 0 with no pages before version 14
+                return "SELECT CASE WHEN reltuples < 0 OR reltuples = 0 AND relpages = 0"
+                        + " AND current_setting('server_version_num')::int < 140000 THEN NULL"
+                        + " ELSE CAST(reltuples AS BIGINT) END FROM pg_class WHERE oid = to_regclass(?)";
+            case MYSQL:
+                return "SELECT table_rows FROM information_schema.tables"
+                        + " WHERE table_schema = COALESCE(?, DATABASE()) AND table_name = ?";
+            case SQLSERVER:
+                return "SELECT SUM(rows) FROM sys.partitions WHERE object_id = OBJECT_ID(?) AND index_id IN (0, 1)";
+            case ORACLE:
+                // num_rows is NULL when the table is never analyzed
+                return "SELECT num_rows FROM all_tables WHERE owner = COALESCE(UPPER(?), USER) AND table_name = UPPER(?)";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Executes the query and maps every returned row
+     *
+     * @param sql    the query
+     * @param mapper the mapper used for every row
+     * @param params values bound to the query parameters
+     * @param <T>    the type of the mapped rows
+     * @return the list of mapped rows
+     * @throws SQLException if the query fails
+     */
+    protected <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        Connection connection = this.getConnection(false);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, params);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                return map(rs, mapper);
+            }
+        } finally {
+            this.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Returns the connection used for the execution
+     *
+     * @param write true if the statement changes data
+     * @return the connection
+     * @throws SQLException if the connection cannot be obtained
+     */
+    protected Connection getConnection(boolean write) throws SQLException {
+        return this.dataSource.getConnection();
+    }
+
+    /**
+     * Releases the connection used for the execution
+     *
+     * @param connection the connection
+     * @throws SQLException if the connection cannot be released
+     */
+    protected void releaseConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * Prepares the insert statement, asking the driver for the returned columns when they are not in the statement
+     */
+    private static PreparedStatement prepare(Connection connection, Sequel.Insert insert, String sql, boolean clause) throws SQLException {
+        List<String> columns = insert.getReturning();
+        if (clause) {
+            return connection.prepareStatement(sql);
+        } else if (columns.isEmpty() || columns.contains("*")) {
+            return connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        }
+
+        return connection.prepareStatement(sql, columns.toArray(new String[0]));
+    }
+
+    private static <T> List<T> map(ResultSet rs, RowMapper<T> mapper) throws SQLException {
+        RowMapper<T> bound = RowMappers.bind(mapper, rs);
+        List<T> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(bound.map(rs));
+        }
+
+        return rows;
+    }
+
+    /**
+     * Binds the values to the statement parameters, in order
+     */
+    static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+    }
+}
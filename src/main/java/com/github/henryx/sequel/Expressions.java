@@ -0,0 +1,182 @@
+package com.github.henryx.sequel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Expressions contains helpers used to inspect table and column expressions passed as strings to the builders
+ */
+final class Expressions {
+    private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern IDENTIFIER = Pattern.compile("(?<![\\w$.:])([A-Za-z_][\\w$]*(?:\\.(?:[A-Za-z_][\\w$]*|\\*))?)(?![\\w$])(\\s*\\()?");
+    private static final Pattern ALIAS = Pattern.compile("(?i)^.*\\s+AS\\s+([A-Za-z_][\\w$]*)$");
+    private static final Pattern COLUMN = Pattern.compile("^(?:[A-Za-z_][\\w$]*\\.)*([A-Za-z_][\\w$]*)(?:\\s+([A-Za-z_][\\w$]*))?$");
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "AND", "OR", "NOT", "IN", "IS", "NULL", "BETWEEN", "EXISTS", "LIKE", "ESCAPE", "TRUE", "FALSE",
+            "CASE", "WHEN", "THEN", "ELSE", "END", "DISTINCT", "AS", "ALL", "ANY", "SOME", "UNKNOWN"));
+
+    private Expressions() {
+    }
+
+    /**
+     * Returns the name of a table expression like {@code test1 a} or {@code test1 AS a}
+     */
+    static String table(String expression) {
+        return expression.trim().split("\\s+")[0];
+    }
+
+    /**
+     * Returns the alias of a table expression, or the table name when no alias is defined
+     */
+    static String alias(String expression) {
+        String[] tokens = expression.trim().split("\\s+");
+        return tokens[tokens.length - 1];
+    }
+
+    /**
+     * Checks if the text contains a column qualified with the passed table name or alias, like {@code a.t1} or
+     * {@code a.*}
+     */
+    static boolean references(String text, String qualifier) {
+        return Pattern.compile("(?<![\\w$.])" + Pattern.quote(qualifier) + "\\.").matcher(text).find();
+    }
+
+    /**
+     * Checks if the text contains the passed name as a whole identifier, qualified or not. The check ignores case as
+     * unquoted SQL identifiers do
+     */
+    static boolean referencesName(String text, String name) {
+        return Pattern.compile("(?<![\\w$])" + Pattern.quote(name) + "(?![\\w$])", Pattern.CASE_INSENSITIVE)
+                .matcher(LITERAL.matcher(text).replaceAll("''"))
+                .find();
+    }
+
+    /**
+     * Returns the column identifiers, qualified or not, used in the text. Keywords, function names and string
+     * literals are ignored
+     */
+    static List<String> identifiers(String text) {
+        List<String> identifiers = new ArrayList<>();
+        Matcher matcher = IDENTIFIER.matcher(LITERAL.matcher(text).replaceAll("''"));
+
+        while (matcher.find()) {
+            String identifier = matcher.group(1);
+            if (matcher.group(2) == null && !KEYWORDS.contains(identifier.toUpperCase())) {
+                identifiers.add(identifier);
+            }
+        }
+
+        return identifiers;
+    }
+
+    /**
+     * Replaces the column identifiers used in the text, leaving string literals unchanged
+     */
+    static String replaceIdentifiers(String text, Function<String, String> replacement) {
+        StringBuilder builder = new StringBuilder();
+        Matcher literals = LITERAL.matcher(text);
+        int start = 0;
+
+        while (literals.find()) {
+            builder.append(replaceInCode(text.substring(start, literals.start()), replacement)).append(literals.group());
+            start = literals.end();
+        }
+        builder.append(replaceInCode(text.substring(start), replacement));
+
+        return builder.toString();
+    }
+
+    private static String replaceInCode(String code, Function<String, String> replacement) {
+        StringBuffer buffer = new StringBuffer();
+        Matcher matcher = IDENTIFIER.matcher(code);
+
+        while (matcher.find()) {
+            String identifier = matcher.group(1);
+            String replaced = matcher.group(2) == null && !KEYWORDS.contains(identifier.toUpperCase())
+                    ? replacement.apply(identifier)
+                    : identifier;
+            matcher.appendReplacement(buffer, Matcher.quoteReplacement(replaced + (matcher.group(2) == null ? "" : matcher.group(2))));
+        }
+        matcher.appendTail(buffer);
+
+        return buffer.toString();
+    }
+
+    /**
+     * Returns the name of a selected column, that is the alias or the unqualified column name, or null when the
+     * column is an expression without alias
+     */
+    static String outputName(String column) {
+        String trimmed = column.trim();
+
+        Matcher matcher = ALIAS.matcher(trimmed);
+        if (matcher.matches()) {
+            return matcher.group(1);
+        }
+
+        matcher = COLUMN.matcher(trimmed);
+        if (matcher.matches()) {
+            return matcher.group(2) == null ? matcher.group(1) : matcher.group(2);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the expression of a selected column, without its alias
+     */
+    static String expression(String column) {
+        String trimmed = column.trim();
+
+        Matcher matcher = ALIAS.matcher(trimmed);
+        if (matcher.matches()) {
+            return trimmed.substring(0, trimmed.length() - matcher.group(1).length()).trim().replaceFirst("(?i)\\s+AS$", "");
+        }
+
+        matcher = COLUMN.matcher(trimmed);
+        if (matcher.matches() && matcher.group(2) != null) {
+            return trimmed.split("\\s+")[0];
+        }
+
+        return trimmed;
+    }
+
+    /**
+     * Checks if a column list contains an unqualified {@code *}, that references all tables of the query
+     */
+    static boolean isWildcard(String column) {
+        return column.trim().equals("*");
+    }
+
+    /**
+     * Checks if a table expression is identified by the passed name, that can be the expression itself, the table name
+     * or the alias
+     */
+    static boolean matches(String expression, String name) {
+        return expression.equals(name) || table(expression).equals(name) || alias(expression).equals(name);
+    }
+
+    /**
+     * Returns the number of positional parameters in the SQL text, ignoring question marks in string literals
+     */
+    static int parameters(String sql) {
+        int count = 0;
+        boolean literal = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                literal = !literal;
+            } else if (c == '?' && !literal) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
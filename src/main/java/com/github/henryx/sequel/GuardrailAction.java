@@ -0,0 +1,19 @@
+package com.github.henryx.sequel;
+
+/**
+ * GuardrailAction sets what happens when a query violates a guardrail
+ */
+public enum GuardrailAction {
+    /**
+     * Logs a warning and renders the query
+     */
+    WARN,
+    /**
+     * Throws a {@link GuardrailException}
+     */
+    THROW,
+    /**
+     * Renders the query with the default limit of the guardrails. Available only for required filters
+     */
+    APPLY_LIMIT
+}
@@ -0,0 +1,7 @@
+package com.github.henryx.sequel;
+
+public class GuardrailException extends RuntimeException {
+    public GuardrailException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,261 @@
+package com.github.henryx.sequel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * Guardrails holds limits checked every time a query or an insert statement is rendered, to stop statements that are
+ * too big or that scan whole tables. Every limit has an action: a warning is logged, a {@link GuardrailException} is
+ * thrown, or, for required filters, a default limit is applied to the query
+ */
+public final class Guardrails {
+    private static final Logger LOGGER = Logger.getLogger(Guardrails.class.getName());
+    private static volatile Guardrails defaults;
+
+    private final Map<String, GuardrailAction> filtered;
+    private Limit length;
+    private Limit inEntries;
+    private Limit joins;
+    private Limit depth;
+    private int defaultLimit;
+
+    public Guardrails() {
+        this.filtered = new LinkedHashMap<>();
+        this.defaultLimit = 1000;
+    }
+
+    /**
+     * Sets the guardrails used by queries and insert statements without their own guardrails
+     *
+     * @param guardrails the guardrails, or null to disable them
+     */
+    public static void setDefault(Guardrails guardrails) {
+        defaults = guardrails;
+    }
+
+    public static Guardrails getDefault() {
+        return defaults;
+    }
+
+    /**
+     * maxLength sets the maximum number of characters of the rendered statement
+     *
+     * @param characters the maximum number of characters
+     * @param action     the action executed when the statement is longer
+     * @return a builder instance of the class
+     */
+    public Guardrails maxLength(int characters, GuardrailAction action) {
+        this.length = new Limit(characters, action);
+
+        return this;
+    }
+
+    /**
+     * maxInEntries sets the maximum number of values of an IN or NOT IN filter
+     *
+     * @param entries the maximum number of values
+     * @param action  the action executed when a filter has more values
+     * @return a builder instance of the class
+     */
+    public Guardrails maxInEntries(int entries, GuardrailAction action) {
+        this.inEntries = new Limit(entries, action);
+
+        return this;
+    }
+
+    /**
+     * maxJoins sets the maximum number of joins of every query, subqueries included
+     *
+     * @param joins  the maximum number of joins
+     * @param action the action executed when a query has more joins
+     * @return a builder instance of the class
+     */
+    public Guardrails maxJoins(int joins, GuardrailAction action) {
+        this.joins = new Limit(joins, action);
+
+        return this;
+    }
+
+    /**
+     * maxSubqueryDepth sets the maximum nesting of subqueries, used in filters or in FROM. A query without subqueries
+     * has depth 0
+     *
+     * @param depth  the maximum nesting
+     * @param action the action executed when the subqueries are nested deeper
+     * @return a builder instance of the class
+     */
+    public Guardrails maxSubqueryDepth(int depth, GuardrailAction action) {
+        this.depth = new Limit(depth, action);
+
+        return this;
+    }
+
+    /**
+     * requireFilter requires a WHERE clause or a limit on queries reading the passed tables, in FROM or in a join. The
+     * check is applied to the outer query only, since the rows of subqueries are filtered by the outer query
+     *
+     * @param action the action executed when a query has no filter and no limit
+     * @param tables the table names
+     * @return a builder instance of the class
+     */
+    public Guardrails requireFilter(GuardrailAction action, String... tables) {
+        Objects.requireNonNull(action);
+        for (String table : tables) {
+            this.filtered.put(table.toLowerCase(Locale.ROOT), action);
+        }
+
+        return this;
+    }
+
+    /**
+     * defaultLimit sets the limit applied to queries by {@link GuardrailAction#APPLY_LIMIT}. Default is 1000 rows
+     *
+     * @param rows the number of rows
+     * @return a builder instance of the class
+     */
+    public Guardrails defaultLimit(int rows) {
+        if (rows <= 0) {
+            throw new ValueMismatchException("Default limit must be greater than 0");
+        }
+        this.defaultLimit = rows;
+
+        return this;
+    }
+
+    /**
+     * Checks the query before rendering and returns the query to render, that is a copy with the default limit when a
+     * required filter is missing and the action is {@link GuardrailAction#APPLY_LIMIT}
+     */
+    Sequel.Select check(Sequel.Select select) {
+        this.inspect(select, 0);
+
+        if (!select.getWhereCriteria().isEmpty() || Objects.nonNull(select.getLimit())) {
+            return select;
+        }
+
+        List<String> tables = new ArrayList<>();
+        select.getFrom().stream()
+                .filter(table -> !select.getDerived().containsKey(table))
+                .forEach(table -> tables.add(Expressions.table(table)));
+        select.getJoins().stream()
+                .filter(join -> Objects.isNull(join.getSubquery()))
+                .forEach(join -> tables.add(Expressions.table(join.getTable())));
+
+        GuardrailAction action = null;
+        String table = null;
+        for (String name : tables) {
+            GuardrailAction current = this.filtered.get(name.toLowerCase(Locale.ROOT));
+            if (Objects.nonNull(current) && (Objects.isNull(action) || severity(current) > severity(action))) {
+                action = current;
+                table = name;
+            }
+        }
+
+        if (Objects.isNull(action)) {
+            return select;
+        } else if (action == GuardrailAction.APPLY_LIMIT) {
+            return select.copy().limit(this.defaultLimit);
+        }
+
+        report(action, "Query on " + table + " has no WHERE clause and no limit");
+        return select;
+    }
+
+    /**
+     * Checks the query of an insert statement before rendering
+     */
+    void check(Sequel.Insert insert) {
+        if (Objects.nonNull(insert.getQuery())) {
+            this.inspect(insert.getQuery(), 0);
+        }
+    }
+
+    /**
+     * Checks the rendered statement
+     */
+    void check(String sql) {
+        if (Objects.nonNull(this.length) && sql.length() > this.length.value) {
+            report(this.length.action, "Statement has " + sql.length() + " characters, maximum is " + this.length.value);
+        }
+    }
+
+    private void inspect(Sequel.Select select, int level) {
+        if (Objects.nonNull(this.depth) && level > this.depth.value) {
+            report(this.depth.action, "Subqueries are nested " + level + " levels, maximum is " + this.depth.value);
+        }
+
+        if (Objects.nonNull(this.joins) && select.getJoins().size() > this.joins.value) {
+            report(this.joins.action, "Query has " + select.getJoins().size() + " joins, maximum is " + this.joins.value);
+        }
+
+        List<Criterion> criteria = new ArrayList<>(select.getWhereCriteria());
+        criteria.addAll(select.getHavingCriteria());
+        select.getJoins().forEach(join -> criteria.addAll(join.getCriteria()));
+        criteria.forEach(criterion -> this.inspect(criterion, level));
+
+        select.getDerived().values().forEach(derived -> this.inspect(derived, level + 1));
+        select.getJoins().stream()
+                .filter(join -> Objects.nonNull(join.getSubquery()))
+                .forEach(join -> this.inspect(join.getSubquery(), level + 1));
+        select.getSetOperations().forEach(operand -> this.inspect(operand, level));
+    }
+
+    private void inspect(Criterion criterion, int level) {
+        if (Objects.nonNull(criterion.getSubquery())) {
+            this.inspect(criterion.getSubquery(), level + 1);
+        } else if (Objects.nonNull(this.inEntries)
+                && (Objects.equals(criterion.getOperator(), Criterion.IN) || Objects.equals(criterion.getOperator(), Criterion.NOT_IN))
+                && criterion.getValues().size() > this.inEntries.value) {
+            report(this.inEntries.action, criterion.getOperator() + " filter on " + criterion.getColumn() + " has "
+                    + criterion.getValues().size() + " values, maximum is " + this.inEntries.value);
+        }
+
+        criterion.getChildren().forEach(child -> this.inspect(child, level));
+    }
+
+    /**
+     * Returns the severity of the action, used when tables with different actions are read by the same query
+     */
+    private static int severity(GuardrailAction action) {
+        switch (action) {
+            case THROW:
+                return 2;
+            case APPLY_LIMIT:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static void report(GuardrailAction action, String message) {
+        if (action == GuardrailAction.THROW) {
+            throw new GuardrailException(message);
+        }
+
+        LOGGER.warning(message);
+    }
+
+    /**
+     * Limit is a maximum value with the action executed when it is exceeded
+     */
+    private static final class Limit {
+        private final int value;
+        private final GuardrailAction action;
+
+        private Limit(int value, GuardrailAction action) {
+            if (value < 0) {
+                throw new ValueMismatchException("Guardrail limit must not be negative");
+            } else if (Objects.isNull(action) || action == GuardrailAction.APPLY_LIMIT) {
+                throw new ValueMismatchException("Guardrail action must be " + GuardrailAction.WARN + " or " + GuardrailAction.THROW);
+            }
+
+            this.value = value;
+            this.action = action;
+        }
+    }
+}
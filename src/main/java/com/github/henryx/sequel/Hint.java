@@ -0,0 +1,108 @@
+package com.github.henryx.sequel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hint class sets statement level optimizer hints. Hints are rendered in the position required by the dialect used by
+ * the query and are dropped when the dialect doesn't support them
+ */
+public class Hint {
+    private enum Kind {
+        COMMENT,
+        JOIN_ORDER,
+        PARALLEL
+    }
+
+    private final Kind kind;
+    private final List<String> arguments;
+
+    private Hint(Kind kind, String... arguments) {
+        this.kind = kind;
+        this.arguments = Arrays.asList(arguments);
+    }
+
+    /**
+     * Comment sets a free form hint rendered in a {@code /*+ ... *}{@code /} comment. It is rendered for dialects that
+     * read hints from comments (MySQL, Oracle and PostgreSQL with pg_hint_plan)
+     *
+     * @param hint the hint text
+     * @return a builder instance of the class
+     */
+    public static Hint comment(String hint) {
+        return new Hint(Kind.COMMENT, hint);
+    }
+
+    /**
+     * JoinOrder forces the planner to join tables in the passed order
+     *
+     * @param tables tables, or their aliases, in the wanted join order
+     * @return a builder instance of the class
+     */
+    public static Hint joinOrder(String... tables) {
+        return new Hint(Kind.JOIN_ORDER, tables);
+    }
+
+    /**
+     * Parallel sets the degree of parallelism used to execute the query
+     *
+     * @param degree the degree of parallelism
+     * @return a builder instance of the class
+     */
+    public static Hint parallel(int degree) {
+        if (degree <= 0) {
+            throw new ValueMismatchException("Cannot build PARALLEL hint. Degree must be greater than zero");
+        }
+
+        return new Hint(Kind.PARALLEL, Integer.toString(degree));
+    }
+
+    /**
+     * Returns the hint rendered inside the optimizer comment, or null if the dialect doesn't read it from comments
+     */
+    String getComment(Dialect dialect) {
+        switch (this.kind) {
+            case COMMENT:
+                if (Objects.equals(dialect, Dialect.MYSQL) || Objects.equals(dialect, Dialect.ORACLE)
+                        || Objects.equals(dialect, Dialect.POSTGRESQL)) {
+                    return this.arguments.get(0);
+                }
+                return null;
+            case JOIN_ORDER:
+                if (Objects.equals(dialect, Dialect.MYSQL)) {
+                    return "JOIN_ORDER(" + String.join(", ", this.arguments) + ")";
+                } else if (Objects.equals(dialect, Dialect.ORACLE)) {
+                    return "LEADING(" + String.join(" ", this.arguments) + ")";
+                } else if (Objects.equals(dialect, Dialect.POSTGRESQL)) {
+                    return "Leading(" + String.join(" ", this.arguments) + ")";
+                }
+                return null;
+            case PARALLEL:
+                if (Objects.equals(dialect, Dialect.ORACLE)) {
+                    return "PARALLEL(" + this.arguments.get(0) + ")";
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the hint rendered in the trailing OPTION clause, or null if the dialect doesn't use it
+     */
+    String getOption(Dialect dialect) {
+        if (!Objects.equals(dialect, Dialect.SQLSERVER)) {
+            return null;
+        }
+
+        switch (this.kind) {
+            case JOIN_ORDER:
+                return "FORCE ORDER";
+            case PARALLEL:
+                return "MAXDOP " + this.arguments.get(0);
+            default:
+                return null;
+        }
+    }
+}
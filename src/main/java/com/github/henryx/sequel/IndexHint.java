@@ -0,0 +1,92 @@
+package com.github.henryx.sequel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * IndexHint class sets index hints on tables used in FROM and JOIN clauses. Hints are rendered next to the table for
+ * MySQL and SQL Server, in the optimizer comment for Oracle and are dropped for other dialects
+ */
+public class IndexHint {
+    private enum Kind {
+        USE,
+        FORCE,
+        IGNORE
+    }
+
+    private final Kind kind;
+    private final List<String> indexes;
+
+    private IndexHint(Kind kind, String... indexes) {
+        if (indexes.length == 0) {
+            throw new ValueMismatchException("Cannot build index hint. No indexes are passed");
+        }
+
+        this.kind = kind;
+        this.indexes = Arrays.asList(indexes);
+    }
+
+    /**
+     * Use suggests the planner to use one of the passed indexes
+     *
+     * @param indexes index names
+     * @return a builder instance of the class
+     */
+    public static IndexHint use(String... indexes) {
+        return new IndexHint(Kind.USE, indexes);
+    }
+
+    /**
+     * Force forces the planner to use one of the passed indexes
+     *
+     * @param indexes index names
+     * @return a builder instance of the class
+     */
+    public static IndexHint force(String... indexes) {
+        return new IndexHint(Kind.FORCE, indexes);
+    }
+
+    /**
+     * Ignore forbids the planner to use the passed indexes
+     *
+     * @param indexes index names
+     * @return a builder instance of the class
+     */
+    public static IndexHint ignore(String... indexes) {
+        return new IndexHint(Kind.IGNORE, indexes);
+    }
+
+    /**
+     * Returns the hint rendered inside the optimizer comment, or null if the dialect doesn't read it from comments
+     */
+    String getComment(Dialect dialect, String table) {
+        if (!Objects.equals(dialect, Dialect.ORACLE)) {
+            return null;
+        }
+
+        String name = Objects.equals(this.kind, Kind.IGNORE) ? "NO_INDEX" : "INDEX";
+        return name + "(" + Expressions.alias(table) + " " + String.join(" ", this.indexes) + ")";
+    }
+
+    /**
+     * Renders hints placed next to the table name, or an empty string if the dialect doesn't support them
+     */
+    static String render(List<IndexHint> hints, Dialect dialect) {
+        if (Objects.equals(dialect, Dialect.MYSQL)) {
+            StringJoiner joiner = new StringJoiner(" ");
+            hints.forEach(hint -> joiner.add(hint.kind + " INDEX (" + String.join(", ", hint.indexes) + ")"));
+            return joiner.toString();
+        } else if (Objects.equals(dialect, Dialect.SQLSERVER)) {
+            StringJoiner joiner = new StringJoiner(", ", "WITH (", ")");
+            joiner.setEmptyValue("");
+            hints.stream()
+                    .filter(hint -> !Objects.equals(hint.kind, Kind.IGNORE))
+                    .forEach(hint -> joiner.add("INDEX(" + String.join(", ", hint.indexes) + ")"));
+            return joiner.toString();
+        }
+
+        return "";
+    }
+}
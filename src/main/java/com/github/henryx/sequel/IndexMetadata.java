@@ -0,0 +1,133 @@
+package com.github.henryx.sequel;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * IndexMetadata describes the indexes of the tables, as ordered lists of columns. Table and column names are compared
+ * ignoring case, and tables are identified by their name without schema
+ */
+public final class IndexMetadata {
+    private final Map<String, List<List<String>>> indexes;
+
+    public IndexMetadata() {
+        this.indexes = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds an index
+     *
+     * @param table   the table name
+     * @param columns the columns of the index, in the index order
+     * @return a builder instance of the class
+     */
+    public IndexMetadata index(String table, String... columns) {
+        if (columns.length == 0) {
+            throw new ValueMismatchException("Cannot add index on " + table + ". No columns are passed");
+        }
+
+        this.indexes.computeIfAbsent(name(table), key -> new ArrayList<>())
+                .add(Arrays.stream(columns).map(column -> column.toLowerCase(Locale.ROOT)).collect(Collectors.toList()));
+
+        return this;
+    }
+
+    /**
+     * Adds the primary key and the unique keys of the table as indexes
+     *
+     * @param table the table
+     * @return a builder instance of the class
+     */
+    public IndexMetadata index(Table table) {
+        if (!table.getPrimaryKey().isEmpty()) {
+            this.index(table.getName(), table.getPrimaryKey().toArray(new String[0]));
+        }
+        table.getUniqueKeys().forEach(key -> this.index(table.getName(), key.toArray(new String[0])));
+
+        return this;
+    }
+
+    /**
+     * Reads the indexes of the tables from the database metadata
+     *
+     * @param connection the connection
+     * @param schema     the schema, or null to search in all schemas
+     * @param tables     the table names
+     * @return the index metadata
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static IndexMetadata read(Connection connection, String schema, String... tables) throws SQLException {
+        DatabaseMetaData metadata = connection.getMetaData();
+        IndexMetadata indexes = new IndexMetadata();
+
+        for (String table : tables) {
+            Map<String, Map<Short, String>> columns = new LinkedHashMap<>();
+            try (ResultSet rs = metadata.getIndexInfo(null, Table.stored(metadata, schema), Table.stored(metadata, table), false, true)) {
+                while (rs.next()) {
+                    String column = rs.getString("COLUMN_NAME");
+                    if (Objects.nonNull(column)) {
+                        columns.computeIfAbsent(rs.getString("INDEX_NAME"), index -> new TreeMap<>())
+                                .put(rs.getShort("ORDINAL_POSITION"), column);
+                    }
+                }
+            }
+
+            indexes.indexes.computeIfAbsent(name(table), key -> new ArrayList<>());
+            columns.values().forEach(index -> indexes.index(table, index.values().toArray(new String[0])));
+        }
+
+        return indexes;
+    }
+
+    /**
+     * Returns the indexes of the table, with the column names in lower case
+     *
+     * @param table the table name
+     * @return the indexes
+     */
+    public List<List<String>> getIndexes(String table) {
+        return Collections.unmodifiableList(this.indexes.getOrDefault(name(table), Collections.emptyList()));
+    }
+
+    /**
+     * Checks if the indexes of the table are known, that is if at least an index is added or the table is read from
+     * the database metadata
+     */
+    boolean isDescribed(String table) {
+        return this.indexes.containsKey(name(table));
+    }
+
+    /**
+     * Checks if the column is part of an index of the table
+     */
+    boolean isIndexed(String table, String column) {
+        return this.getIndexes(table).stream().anyMatch(index -> index.contains(column.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Checks if the column is the first column of an index of the table
+     */
+    boolean isLeading(String table, String column) {
+        return this.getIndexes(table).stream().anyMatch(index -> index.get(0).equals(column.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Returns the table name in lower case, without schema
+     */
+    static String name(String table) {
+        String name = table.trim().toLowerCase(Locale.ROOT);
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
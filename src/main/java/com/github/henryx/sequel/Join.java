@@ -2,30 +2,48 @@ package com.github.henryx.sequel;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.StringJoiner;
 
 public class Join {
     private final String table;
     private final String joinType;
+    private final JoinType type;
     private final List<Criterion> criteria;
+    private final List<IndexHint> indexHints;
+    private Sequel.Select subquery;
+    private Table keys;
+    private boolean unique;
 
     private Join(String table, JoinType joinType) {
         if (Objects.equals(joinType, JoinType.NO)) {
             this.joinType = "JOIN";
         } else {
-            this.joinType = joinType + " JOIN";
+            this.joinType = joinType.getJoinType() + " JOIN";
         }
+        this.type = joinType;
         this.criteria = new ArrayList<>();
+        this.indexHints = new ArrayList<>();
 
         this.table = table;
     }
 
-    private String build() {
+    private String build(Dialect dialect) {
+        if (Objects.nonNull(this.subquery)) {
+            return this.buildLateral(dialect);
+        }
+
         StringJoiner joiner = new StringJoiner(" ");
         int counter = 0;
 
-        joiner.add(this.joinType).add(this.table).add("ON");
+        joiner.add(this.joinType).add(this.table);
+        String hints = IndexHint.render(this.indexHints, dialect);
+        if (!hints.isEmpty()) {
+            joiner.add(hints);
+        }
+
+        joiner.add("ON");
         for (Criterion criterion : this.criteria) {
             if (counter != 0) {
                 joiner.add(criterion.getMethod());
@@ -37,6 +55,38 @@ public class Join {
         return joiner.toString();
     }
 
+    private String buildLateral(Dialect dialect) {
+        StringJoiner criteria = new StringJoiner(" ");
+        for (Criterion criterion : this.criteria) {
+            if (criteria.length() != 0) {
+                criteria.add(criterion.getMethod());
+            }
+            criteria.add(criterion.getSql());
+        }
+
+        String target = "(" + this.subquery.render(dialect) + ") " + this.table;
+        boolean outer = Objects.equals(this.type, JoinType.LEFT) || Objects.equals(this.type, JoinType.LEFTOUTER);
+        switch (dialect) {
+            case SQLITE:
+                throw new ValueMismatchException("Cannot build LATERAL join. " + dialect + " dialect is not supported");
+            case SQLSERVER:
+                if (criteria.length() != 0) {
+                    target = "(SELECT * FROM " + target + " WHERE " + criteria + ") " + this.table;
+                }
+
+                return (outer ? "OUTER" : "CROSS") + " APPLY " + target;
+            default:
+                if (outer) {
+                    String on = Objects.equals(dialect, Dialect.ORACLE) ? "1 = 1" : "TRUE";
+                    return this.joinType + " LATERAL " + target + " ON " + (criteria.length() == 0 ? on : criteria);
+                } else if (criteria.length() == 0) {
+                    return "CROSS JOIN LATERAL " + target;
+                }
+
+                return (Objects.equals(this.type, JoinType.CROSS) ? "JOIN" : this.joinType) + " LATERAL " + target + " ON " + criteria;
+        }
+    }
+
     /**
      * on sets criterion used in JOIN to compare data
      *
@@ -49,6 +99,30 @@ public class Join {
         return this;
     }
 
+    /**
+     * unique declares that the ON criteria match at most one row of the joined table, e.g. because they compare its
+     * primary key. Unique LEFT joins not referenced by the query can be removed without changing its result
+     *
+     * @return a builder instance of the class
+     */
+    public Join unique() {
+        this.unique = true;
+
+        return this;
+    }
+
+    /**
+     * indexHint sets an index hint on the joined table
+     *
+     * @param hint sets the index hint
+     * @return a builder instance of the class
+     */
+    public Join indexHint(IndexHint hint) {
+        this.indexHints.add(hint);
+
+        return this;
+    }
+
     /**
      * join sets table used in JOIN operation. This is the entry point
      *
@@ -70,13 +144,169 @@ public class Join {
         return new Join(table, joinType);
     }
 
+    /**
+     * join sets table used in JOIN operation. This is the entry point. When the ON criteria compare all the columns of
+     * a key of the table, the join is unique
+     *
+     * @param table Sets the table
+     * @return a builder instance of the class
+     */
+    public static Join join(Table table) {
+        return join(table, JoinType.NO);
+    }
+
+    /**
+     * join sets table used in JOIN operation. This is the entry point. When the ON criteria compare all the columns of
+     * a key of the table, the join is unique
+     *
+     * @param table    Sets the table
+     * @param joinType Sets the join type used in JOIN operation
+     * @return a builder instance of the class
+     */
+    public static Join join(Table table, JoinType joinType) {
+        Join join = new Join(table.getSql(), joinType);
+        join.keys = table;
+
+        return join;
+    }
+
+    /**
+     * lateral sets a subquery, evaluated for every row of the tables at its left, used in JOIN operation. The
+     * subquery can reference their columns, e.g. to read the first rows of every group using an index. The join is
+     * rendered as {@code CROSS JOIN LATERAL} or, on SQL Server, as {@code CROSS APPLY}. Rendering it for the SQLite
+     * dialect throws a {@link ValueMismatchException}. This is the entry point
+     *
+     * @param subquery Sets the subquery
+     * @param alias    Sets the subquery alias
+     * @return a builder instance of the class
+     */
+    public static Join lateral(Sequel.Select subquery, String alias) {
+        return lateral(subquery, alias, JoinType.NO);
+    }
+
+    /**
+     * lateral sets a subquery, evaluated for every row of the tables at its left, used in JOIN operation. LEFT joins
+     * keep the rows without subquery results and are rendered as {@code LEFT JOIN LATERAL} or, on SQL Server, as
+     * {@code OUTER APPLY}. This is the entry point
+     *
+     * @param subquery Sets the subquery
+     * @param alias    Sets the subquery alias
+     * @param joinType Sets the join type, that can be an inner, cross or left join
+     * @return a builder instance of the class
+     */
+    public static Join lateral(Sequel.Select subquery, String alias, JoinType joinType) {
+        switch (joinType) {
+            case NO:
+            case INNER:
+            case CROSS:
+            case LEFT:
+            case LEFTOUTER:
+                break;
+            default:
+                throw new ValueMismatchException("Cannot build LATERAL join. " + joinType + " join is not supported");
+        }
+
+        Join join = new Join(alias, joinType);
+        join.subquery = subquery;
+
+        return join;
+    }
+
     /**
      * getSql returns the generated join
      *
      * @return a String that represents the generated query
      */
     public String getSql() {
-        return this.build();
+        return this.build(Dialect.STANDARD);
+    }
+
+    /**
+     * Returns the generated join rendered for the passed dialect
+     */
+    String getSql(Dialect dialect) {
+        return this.build(dialect);
+    }
+
+    String getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the subquery of a LATERAL join, or null when a table is joined
+     */
+    Sequel.Select getSubquery() {
+        return subquery;
+    }
+
+    JoinType getType() {
+        return type;
+    }
+
+    List<Criterion> getCriteria() {
+        return criteria;
+    }
+
+    /**
+     * Returns the table passed to {@link #join(Table, JoinType)}, or null if the join is built on a table name
+     */
+    Table getDefinition() {
+        return this.keys;
+    }
+
+    boolean isUnique() {
+        return unique || this.isKeyed();
+    }
+
+    /**
+     * Checks if the ON criteria, all in AND, compare with equality every column of a key of the joined table to values
+     * not coming from the joined table
+     */
+    private boolean isKeyed() {
+        if (Objects.isNull(this.keys) || this.criteria.isEmpty()) {
+            return false;
+        }
+
+        String prefix = this.keys.getQualifier().toLowerCase(Locale.ROOT) + ".";
+        List<String> columns = new ArrayList<>();
+        for (int i = 0; i < this.criteria.size(); i++) {
+            Criterion criterion = this.criteria.get(i);
+            if (i > 0 && !Objects.equals(criterion.getMethod(), Criterion.AND)) {
+                return false;
+            }
+
+            if (criterion.isGroup() || criterion.hasSubquery() || !Objects.equals(criterion.getOperator(), Criterion.EQ)
+                    || criterion.getValues().size() != 1) {
+                continue;
+            }
+
+            String left = criterion.getColumn().trim();
+            String right = criterion.getValues().get(0).trim();
+            boolean leftKey = left.toLowerCase(Locale.ROOT).startsWith(prefix);
+            boolean rightKey = right.toLowerCase(Locale.ROOT).startsWith(prefix);
+            if (leftKey && !rightKey) {
+                columns.add(Quoting.unquote(left.substring(prefix.length())));
+            } else if (rightKey && !leftKey) {
+                columns.add(Quoting.unquote(right.substring(prefix.length())));
+            }
+        }
+
+        return this.keys.isKey(columns);
+    }
+
+    /**
+     * Returns the index hints rendered inside the optimizer comment for the passed dialect
+     */
+    List<String> getComments(Dialect dialect) {
+        List<String> comments = new ArrayList<>();
+        this.indexHints.forEach(hint -> {
+            String comment = hint.getComment(dialect, this.table);
+            if (Objects.nonNull(comment)) {
+                comments.add(comment);
+            }
+        });
+
+        return comments;
     }
 
     @Override
@@ -0,0 +1,125 @@
+package com.github.henryx.sequel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * JoinEliminator removes LEFT joins that don't change the result of the query. A join is removed when it is declared
+ * unique, so it cannot multiply rows, and its table name or alias is never used as column qualifier in the selected
+ * columns, WHERE, GROUP BY, HAVING, ORDER BY or ON criteria of the other joins. Unqualified columns can belong to any
+ * table of the query, so the join is kept when they are used, unless the join is built on a {@link Table} whose
+ * columns don't include them
+ */
+final class JoinEliminator {
+    private static final Pattern DIRECTION = Pattern.compile("(?i)\\s+(ASC|DESC)(?:\\s+NULLS\\s+(?:FIRST|LAST))?$");
+
+    private JoinEliminator() {
+    }
+
+    static List<Join> eliminate(Sequel.Select select) {
+        List<Join> joins = new ArrayList<>(select.getJoins());
+        if (select.getColumns().stream().anyMatch(Expressions::isWildcard)) {
+            return joins;
+        }
+
+        boolean removed = true;
+        while (removed) {
+            removed = false;
+
+            // Starting from the last join, that can be referenced only by the query itself
+            for (int i = joins.size() - 1; i >= 0; i--) {
+                Join join = joins.get(i);
+                if (isRemovable(select, joins, join)) {
+                    joins.remove(i);
+                    removed = true;
+                }
+            }
+        }
+
+        return joins;
+    }
+
+    private static boolean isRemovable(Sequel.Select select, List<Join> joins, Join join) {
+        if (!join.isUnique() || !(Objects.equals(join.getType(), JoinType.LEFT) || Objects.equals(join.getType(), JoinType.LEFTOUTER))) {
+            return false;
+        }
+
+        String table = Expressions.table(join.getTable());
+        String alias = Expressions.alias(join.getTable());
+
+        List<String> texts = new ArrayList<>(select.getColumns());
+        texts.addAll(select.getGroupBy());
+        texts.addAll(select.getOrderBy());
+        select.getWhereCriteria().forEach(criterion -> texts.add(criterion.getSql()));
+        select.getHavingCriteria().forEach(criterion -> texts.add(criterion.getSql()));
+        joins.stream()
+                .filter(other -> other != join)
+                .forEach(other -> {
+                    other.getCriteria().forEach(criterion -> texts.add(criterion.getSql()));
+                    if (Objects.nonNull(other.getSubquery())) {
+                        texts.add(other.getSubquery().render());
+                    }
+                });
+
+        if (texts.stream().anyMatch(text -> Expressions.references(text, alias) || Expressions.references(text, table))) {
+            return false;
+        }
+
+        Table definition = join.getDefinition();
+        boolean described = Objects.nonNull(definition) && !definition.getColumns().isEmpty();
+
+        return unqualified(select, joins, join).stream().noneMatch(column -> !described || definition.hasColumn(column));
+    }
+
+    /**
+     * Returns the unqualified columns used by the query, outside subqueries, that could belong to the joined table.
+     * Aliases of the selected columns are not returned
+     */
+    private static Set<String> unqualified(Sequel.Select select, List<Join> joins, Join join) {
+        Set<String> aliases = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        List<String> texts = new ArrayList<>();
+        for (String column : select.getColumns()) {
+            String expression = Expressions.expression(column);
+            String name = Expressions.outputName(column);
+            if (Objects.nonNull(name) && !expression.equals(column.trim())) {
+                aliases.add(name);
+            }
+            texts.add(expression);
+        }
+        texts.addAll(select.getGroupBy());
+        select.getOrderBy().forEach(term -> texts.add(DIRECTION.matcher(term.trim()).replaceFirst("")));
+
+        List<Criterion> criteria = new ArrayList<>(select.getWhereCriteria());
+        criteria.addAll(select.getHavingCriteria());
+        joins.stream().filter(other -> other != join).forEach(other -> criteria.addAll(other.getCriteria()));
+        criteria.forEach(criterion -> texts(criterion, texts));
+
+        Set<String> columns = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        texts.forEach(text -> Expressions.identifiers(text).stream()
+                .filter(identifier -> identifier.indexOf('.') < 0)
+                .filter(identifier -> !aliases.contains(identifier))
+                .map(identifier -> identifier.toLowerCase(Locale.ROOT))
+                .forEach(columns::add));
+
+        return columns;
+    }
+
+    private static void texts(Criterion criterion, List<String> texts) {
+        if (criterion.isGroup()) {
+            criterion.getChildren().forEach(child -> texts(child, texts));
+            return;
+        }
+
+        if (Objects.nonNull(criterion.getColumn())) {
+            texts.add(criterion.getColumn());
+        }
+        if (!criterion.hasSubquery()) {
+            texts.addAll(criterion.getValues());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.henryx.sequel;
+
+/**
+ * LoadBalancing sets how a query is assigned to one of the replicas
+ */
+public enum LoadBalancing {
+    /**
+     * Assigns queries to replicas in turn
+     */
+    ROUND_ROBIN,
+    /**
+     * Assigns a query to the replica with the fewest executions in progress. Ties are broken in turn
+     */
+    LEAST_LOADED
+}
@@ -0,0 +1,361 @@
+package com.github.henryx.sequel;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * QueryBatch executes several independent queries in a single round trip and returns a separate list of rows for each
+ * of them:
+ * <pre>{@code
+ * QueryBatch batch = executor.batch();
+ * QueryBatch.Result<String> names = batch.add(namesQuery, rs -> rs.getString(1));
+ * QueryBatch.Result<Long> ids = batch.add(idsQuery, rs -> rs.getLong(1), 42);
+ * batch.execute();
+ * }</pre>
+ * With UNION ALL, queries selecting columns with a wildcard are executed separately, on the same connection, since
+ * their column count is not known. Columns of the queries after the first one that are expressions without alias are
+ * labeled {@code column_n}. The order of the rows of every query is kept by numbering them with the
+ * {@code ROW_NUMBER()} window function, so the database must support window functions
+ */
+public class QueryBatch {
+    static final String DISCRIMINATOR = "batch_query";
+    static final String ORDINAL = "batch_row";
+
+    private final Executor executor;
+    private final List<Result<?>> results;
+    private BatchMode mode;
+
+    QueryBatch(Executor executor) {
+        this.executor = executor;
+        this.results = new ArrayList<>();
+        this.mode = BatchMode.AUTO;
+    }
+
+    /**
+     * Sets how the queries are combined. Default value is {@link BatchMode#AUTO}
+     *
+     * @param mode the batch mode
+     * @return a builder instance of the class
+     */
+    public QueryBatch mode(BatchMode mode) {
+        this.mode = mode;
+
+        return this;
+    }
+
+    /**
+     * Adds a query to the batch
+     *
+     * @param select the query
+     * @param mapper the mapper used for every row
+     * @param params values bound to the query parameters
+     * @param <T>    the type of the mapped rows
+     * @return the result, available after the execution
+     */
+    public <T> Result<T> add(Sequel.Select select, RowMapper<T> mapper, Object... params) {
+        Result<T> result = new Result<>(select, mapper, params);
+        this.results.add(result);
+
+        return result;
+    }
+
+    /**
+     * Executes all the queries of the batch
+     *
+     * @throws SQLException if a query fails
+     */
+    public void execute() throws SQLException {
+        if (this.results.isEmpty()) {
+            return;
+        }
+
+        Connection connection = this.executor.getConnection(false);
+        try {
+            BatchMode chosen = this.mode;
+            if (chosen == BatchMode.AUTO) {
+                chosen = supportsMultipleResults(connection.getMetaData()) ? BatchMode.MULTIPLE_RESULTS : BatchMode.UNION_ALL;
+            }
+
+            if (chosen == BatchMode.MULTIPLE_RESULTS || this.results.size() == 1) {
+                this.executeMultiple(connection);
+            } else {
+                this.executeUnion(connection);
+            }
+        } finally {
+            this.executor.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Checks if the connection accepts several statements in a single execution. MySQL and MariaDB drivers report
+     * multiple results as supported, but reject several statements unless {@code allowMultiQueries} is enabled, that
+     * is detected in the URL of the connection only
+     */
+    static boolean supportsMultipleResults(DatabaseMetaData metadata) throws SQLException {
+        if (!metadata.supportsMultipleResultSets()) {
+            return false;
+        }
+
+        String product = metadata.getDatabaseProductName().toLowerCase(Locale.ROOT);
+        if (product.contains("mysql") || product.contains("mariadb")) {
+            String url = Objects.toString(metadata.getURL(), "").toLowerCase(Locale.ROOT);
+            return url.matches(".*[?&;]allowmultiqueries=true(?:[&;].*)?");
+        }
+
+        return true;
+    }
+
+    private void executeMultiple(Connection connection) throws SQLException {
+        StringJoiner sql = new StringJoiner("; ");
+        List<Object> params = new ArrayList<>();
+        this.results.forEach(result -> {
+            sql.add(result.sql);
+            params.addAll(Arrays.asList(result.params));
+        });
+
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            Executor.bind(statement, params.toArray());
+
+            boolean isResultSet = statement.execute();
+            for (Result<?> result : this.results) {
+                // Update counts returned by the driver are skipped
+                while (!isResultSet && statement.getUpdateCount() != -1) {
+                    isResultSet = statement.getMoreResults();
+                }
+                if (!isResultSet) {
+                    throw new SQLException("The driver returned fewer results than the queries of the batch");
+                }
+
+                try (ResultSet rs = statement.getResultSet()) {
+                    result.read(rs);
+                }
+                isResultSet = statement.getMoreResults();
+            }
+        }
+    }
+
+    private void executeUnion(Connection connection) throws SQLException {
+        List<Result<?>> combined = new ArrayList<>();
+        for (Result<?> result : this.results) {
+            if (result.width > 0) {
+                combined.add(result);
+            } else {
+                try (PreparedStatement statement = connection.prepareStatement(result.sql)) {
+                    Executor.bind(statement, result.params);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        result.read(rs);
+                    }
+                }
+            }
+        }
+
+        if (combined.isEmpty()) {
+            return;
+        }
+
+        List<Object> params = new ArrayList<>();
+        combined.forEach(result -> params.addAll(Arrays.asList(result.params)));
+
+        try (PreparedStatement statement = connection.prepareStatement(union(combined))) {
+            Executor.bind(statement, params.toArray());
+
+            try (ResultSet rs = statement.executeQuery()) {
+                ResultSetMetaData metadata = rs.getMetaData();
+                List<List<Object[]>> rows = new ArrayList<>();
+                combined.forEach(result -> rows.add(new ArrayList<>()));
+
+                while (rs.next()) {
+                    int index = rs.getInt(1);
+                    int offset = offset(combined, index);
+                    Object[] values = new Object[combined.get(index).width];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = rs.getObject(offset + i + 3);
+                    }
+                    rows.get(index).add(values);
+                }
+
+                for (int index = 0; index < combined.size(); index++) {
+                    Result<?> result = combined.get(index);
+                    int offset = offset(combined, index);
+                    String[] labels = new String[result.width];
+                    int[] types = new int[result.width];
+                    for (int i = 0; i < result.width; i++) {
+                        labels[i] = metadata.getColumnLabel(offset + i + 3);
+                        types[i] = metadata.getColumnType(offset + i + 3);
+                    }
+
+                    result.read(ArrayResultSet.of(labels, types, rows.get(index)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the UNION ALL of the queries. Every query is read as a subquery, so its limit is kept, and its columns
+     * are placed after the columns of the previous queries, followed by the position of the row in the order of the
+     * query. Columns of the other queries are NULL. Rows are ordered by query and position, since the order of a
+     * subquery is not kept by the outer query
+     */
+    static String union(List<Result<?>> results) {
+        int total = offset(results, results.size());
+
+        StringJoiner union = new StringJoiner(" UNION ALL ");
+        for (int index = 0; index < results.size(); index++) {
+            int offset = offset(results, index);
+            int span = results.get(index).width + 1;
+
+            StringJoiner columns = new StringJoiner(", ");
+            columns.add(index == 0 ? index + " AS " + DISCRIMINATOR : String.valueOf(index));
+            columns.add("q" + index + "." + ORDINAL);
+            for (int i = 0; i < offset; i++) {
+                columns.add(index == 0 ? "NULL AS " + label(results, i) : "NULL");
+            }
+            columns.add("q" + index + ".*");
+            for (int i = offset + span; i < total; i++) {
+                columns.add(index == 0 ? "NULL AS " + label(results, i) : "NULL");
+            }
+
+            union.add("SELECT " + columns + " FROM (" + results.get(index).numbered + ") q" + index);
+        }
+
+        return union + " ORDER BY 1, 2";
+    }
+
+    /**
+     * Returns the position of the first column of the query in the combined columns, excluding the discriminator and
+     * the position of the row
+     */
+    private static int offset(List<Result<?>> results, int index) {
+        int offset = 0;
+        for (int i = 0; i < index; i++) {
+            offset += results.get(i).width + 1;
+        }
+
+        return offset;
+    }
+
+    /**
+     * Returns the label of a combined column, that is the output name of the column in its query
+     */
+    private static String label(List<Result<?>> results, int position) {
+        int offset = 0;
+        for (int index = 0; index < results.size(); index++) {
+            Result<?> result = results.get(index);
+            if (position < offset + result.width) {
+                String name = result.names.get(position - offset);
+                return Objects.isNull(name) ? "column_" + (position + 1) : name;
+            } else if (position == offset + result.width) {
+                return ORDINAL + "_" + index;
+            }
+            offset += result.width + 1;
+        }
+
+        throw new IndexOutOfBoundsException("Column " + position);
+    }
+
+    /**
+     * Result holds the rows of a query of the batch
+     *
+     * @param <T> the type of the mapped rows
+     */
+    public static final class Result<T> {
+        private final String sql;
+        private final String numbered;
+        private final RowMapper<T> mapper;
+        private final Object[] params;
+        private final List<String> names;
+        private final int width;
+        private List<T> rows;
+
+        private Result(Sequel.Select select, RowMapper<T> mapper, Object... params) {
+            this.sql = select.getSql();
+            this.mapper = mapper;
+            this.params = params.clone();
+            this.names = names(select);
+            this.width = Objects.isNull(this.names) ? 0 : this.names.size();
+            this.numbered = this.width > 0 ? select.withRowNumber(ORDINAL).getSql() : null;
+        }
+
+        /**
+         * Returns the mapped rows of the query
+         *
+         * @return the list of mapped rows
+         */
+        public List<T> get() {
+            if (Objects.isNull(this.rows)) {
+                throw new IllegalStateException("The batch is not executed");
+            }
+
+            return this.rows;
+        }
+
+        private void read(ResultSet rs) throws SQLException {
+            RowMapper<T> bound = RowMappers.bind(this.mapper, rs);
+            List<T> mapped = new ArrayList<>();
+            while (rs.next()) {
+                mapped.add(bound.map(rs));
+            }
+
+            this.rows = mapped;
+        }
+
+        /**
+         * Returns the output names of the selected columns, null for expressions without alias, or null if the query
+         * selects a wildcard
+         */
+        private static List<String> names(Sequel.Select select) {
+            if (select.hasSetOperations()) {
+                return null;
+            }
+
+            List<String> names = new ArrayList<>();
+            for (String column : select.getColumns()) {
+                for (String single : split(column)) {
+                    if (single.trim().endsWith("*")) {
+                        return null;
+                    }
+                    names.add(Expressions.outputName(single));
+                }
+            }
+
+            return names;
+        }
+
+        /**
+         * Splits a column list passed as a single string at commas outside parentheses and literals
+         */
+        private static List<String> split(String columns) {
+            List<String> result = new ArrayList<>();
+            int depth = 0;
+            boolean literal = false;
+            int start = 0;
+
+            for (int i = 0; i < columns.length(); i++) {
+                char c = columns.charAt(i);
+                if (c == '\'') {
+                    literal = !literal;
+                } else if (!literal && c == '(') {
+                    depth++;
+                } else if (!literal && c == ')') {
+                    depth--;
+                } else if (!literal && depth == 0 && c == ',') {
+                    result.add(columns.substring(start, i));
+                    start = i + 1;
+                }
+            }
+            result.add(columns.substring(start));
+
+            return result;
+        }
+    }
+}
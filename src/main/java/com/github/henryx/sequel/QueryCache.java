@@ -0,0 +1,251 @@
+package com.github.henryx.sequel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QueryCache stores results of queries keyed by SQL, bound parameters and row mapper. The cache is bounded by the
+ * number of entries and entries expire after a time to live. Entries are invalidated by the names of the tables read
+ * by the query
+ */
+public class QueryCache {
+    private final int capacity;
+    private final long ttl;
+    private final EvictionPolicy policy;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<String, Set<Key>> tables;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache
+     *
+     * @param capacity the maximum number of cached results
+     * @param ttl      the time to live of a cached result, zero or less for no expiration
+     * @param unit     the unit of the time to live
+     * @param policy   the policy used to remove entries when the cache is full
+     */
+    public QueryCache(int capacity, long ttl, TimeUnit unit, EvictionPolicy policy) {
+        if (capacity <= 0) {
+            throw new ValueMismatchException("Cannot build query cache. Capacity must be greater than zero");
+        }
+
+        this.capacity = capacity;
+        this.ttl = ttl > 0 ? unit.toNanos(ttl) : 0;
+        this.policy = policy;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.tables = new HashMap<>();
+    }
+
+    /**
+     * Returns the cached result, or null if it is not cached or expired
+     */
+    synchronized List<?> get(Key key) {
+        Entry entry = this.entries.get(key);
+        if (Objects.nonNull(entry) && entry.isExpired(System.nanoTime())) {
+            this.remove(key);
+            entry = null;
+        }
+
+        if (Objects.isNull(entry)) {
+            this.misses++;
+            return null;
+        }
+
+        this.hits++;
+        entry.frequency++;
+        return entry.rows;
+    }
+
+    /**
+     * Returns the generation of the cache. The generation changes at every invalidation, so a result read before an
+     * invalidation is not stored
+     */
+    synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Stores the result, if no invalidation happened since the passed generation
+     */
+    synchronized void put(Key key, List<?> rows, Collection<String> tables, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+
+        this.remove(key);
+        while (this.entries.size() >= this.capacity) {
+            this.evict();
+        }
+
+        long expiration = this.ttl > 0 ? System.nanoTime() + this.ttl : 0;
+        this.entries.put(key, new Entry(Collections.unmodifiableList(new ArrayList<>(rows)), tables, expiration));
+        tables.forEach(table -> this.tables.computeIfAbsent(table, t -> new HashSet<>()).add(key));
+    }
+
+    /**
+     * Removes all results that read the passed tables. Names are compared without schema and quotes, ignoring case
+     *
+     * @param tables the table names, optionally qualified by the schema
+     */
+    public synchronized void invalidate(String... tables) {
+        this.generation++;
+
+        for (String table : tables) {
+            Set<Key> keys = this.tables.remove(Quoting.tableName(table));
+            if (Objects.nonNull(keys)) {
+                new ArrayList<>(keys).forEach(this::remove);
+            }
+        }
+    }
+
+    /**
+     * Removes all results
+     */
+    public synchronized void invalidateAll() {
+        this.generation++;
+        this.entries.clear();
+        this.tables.clear();
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        Key victim = null;
+        long frequency = Long.MAX_VALUE;
+
+        // Entries are iterated from the least recently used
+        for (Map.Entry<Key, Entry> entry : this.entries.entrySet()) {
+            if (entry.getValue().isExpired(now)) {
+                victim = entry.getKey();
+                break;
+            }
+
+            if (Objects.equals(this.policy, EvictionPolicy.LRU)) {
+                if (Objects.isNull(victim)) {
+                    victim = entry.getKey();
+                }
+            } else if (entry.getValue().frequency < frequency) {
+                victim = entry.getKey();
+                frequency = entry.getValue().frequency;
+            }
+        }
+
+        this.remove(victim);
+        this.evictions++;
+    }
+
+    private void remove(Key key) {
+        Entry entry = this.entries.remove(key);
+        if (Objects.isNull(entry)) {
+            return;
+        }
+
+        entry.tables.forEach(table -> {
+            Set<Key> keys = this.tables.get(table);
+            if (Objects.nonNull(keys)) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    this.tables.remove(table);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the number of cached results
+     *
+     * @return the number of cached results
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a cached result
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that didn't find a cached result
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of results removed because the cache was full
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    static final class Key {
+        private final String sql;
+        private final List<Object> params;
+        private final RowMapper<?> mapper;
+        private final int hash;
+
+        Key(String sql, Object[] params, RowMapper<?> mapper) {
+            this.sql = sql;
+            this.params = Arrays.asList(params.clone());
+            this.mapper = mapper;
+            this.hash = Objects.hash(sql, this.params, mapper);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return this.mapper == key.mapper && this.sql.equals(key.sql) && this.params.equals(key.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class Entry {
+        private final List<?> rows;
+        private final Collection<String> tables;
+        private final long expiration;
+        private long frequency;
+
+        private Entry(List<?> rows, Collection<String> tables, long expiration) {
+            this.rows = rows;
+            this.tables = tables;
+            this.expiration = expiration;
+        }
+
+        private boolean isExpired(long now) {
+            return this.expiration != 0 && now - this.expiration >= 0;
+        }
+    }
+}
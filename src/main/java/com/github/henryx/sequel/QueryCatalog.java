@@ -0,0 +1,334 @@
+package com.github.henryx.sequel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * QueryCatalog holds named queries and statements rendered once, with their parameters count, the tables they
+ * reference and a fingerprint of their SQL. The catalog can be saved to a binary file and memory mapped at startup, so
+ * the queries are not built again. A catalog is valid only for the version of the library and of the definitions that
+ * wrote it: {@link #load(Path, String, Consumer)} rebuilds it when one of them changes
+ */
+public final class QueryCatalog {
+    private static final int MAGIC = 0x53514c43;
+    private static final int FORMAT = 1;
+
+    private final String version;
+    private final Map<String, Entry> entries;
+
+    /**
+     * Creates an empty catalog
+     *
+     * @param version the version of the query definitions, changed every time the definitions change
+     */
+    public QueryCatalog(String version) {
+        if (Objects.isNull(version)) {
+            throw new ValueMismatchException("Cannot build catalog. Version is null");
+        }
+
+        this.version = version;
+        this.entries = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds a query to the catalog
+     *
+     * @param name   the name of the query
+     * @param select the query
+     * @return a builder instance of the class
+     */
+    public QueryCatalog add(String name, Sequel.Select select) {
+        return this.add(new Entry(name, select.getSql(), select.getTables()));
+    }
+
+    /**
+     * Adds an insert statement to the catalog
+     *
+     * @param name   the name of the statement
+     * @param insert the insert statement
+     * @return a builder instance of the class
+     */
+    public QueryCatalog add(String name, Sequel.Insert insert) {
+        return this.add(new Entry(name, insert.getSql(), insert.getTables()));
+    }
+
+    private QueryCatalog add(Entry entry) {
+        if (this.entries.containsKey(entry.name)) {
+            throw new ValueMismatchException("Query " + entry.name + " is already defined in catalog");
+        }
+        this.entries.put(entry.name, entry);
+
+        return this;
+    }
+
+    /**
+     * Returns a query of the catalog
+     *
+     * @param name the name of the query
+     * @return the query
+     */
+    public Entry get(String name) {
+        Entry entry = this.entries.get(name);
+        if (Objects.isNull(entry)) {
+            throw new ValueMismatchException("Query " + name + " is not defined in catalog");
+        }
+
+        return entry;
+    }
+
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(this.entries.values());
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Writes the catalog to a file. The file is written aside and then moved, so a reader never sees it partially
+     * written
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            write(out, library());
+            write(out, this.version);
+            out.writeInt(this.entries.size());
+
+            for (Entry entry : this.entries.values()) {
+                write(out, entry.name);
+                write(out, entry.sql);
+                out.writeInt(entry.parameters);
+                out.writeInt(entry.tables.size());
+                for (String table : entry.tables) {
+                    write(out, table);
+                }
+                out.writeLong(entry.fingerprint);
+            }
+        }
+
+        Path absolute = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, bytes.toByteArray());
+            try {
+                Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads a catalog from a file, mapping it in memory
+     *
+     * @param file the file
+     * @return the catalog
+     * @throws IOException if the file cannot be read, is not a catalog, was written by another version of the library
+     *                     or is corrupted
+     */
+    public static QueryCatalog read(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                throw new IOException(file + " is not a query catalog");
+            }
+
+            String library = read(buffer);
+            if (!Objects.equals(library, library())) {
+                throw new IOException(file + " was written by version " + library + " of the library");
+            }
+
+            QueryCatalog catalog = new QueryCatalog(read(buffer));
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                String name = read(buffer);
+                String sql = read(buffer);
+                int parameters = buffer.getInt();
+                Set<String> tables = new LinkedHashSet<>();
+                for (int j = buffer.getInt(); j > 0; j--) {
+                    tables.add(read(buffer));
+                }
+
+                Entry entry = new Entry(name, sql, tables);
+                if (entry.parameters != parameters || entry.fingerprint != buffer.getLong()) {
+                    throw new IOException("Query " + name + " in " + file + " is corrupted");
+                }
+                catalog.add(entry);
+            }
+
+            return catalog;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException(file + " is truncated or corrupted", e);
+        }
+    }
+
+    /**
+     * Loads a catalog from a file. When the file does not exist, cannot be read or was written by another version of
+     * the library or of the definitions, the catalog is built again by the definitions and the file is rewritten
+     *
+     * @param file        the file
+     * @param version     the version of the query definitions
+     * @param definitions adds the queries to an empty catalog
+     * @return the catalog
+     * @throws IOException if the catalog is built again and cannot be written
+     */
+    public static QueryCatalog load(Path file, String version, Consumer<QueryCatalog> definitions) throws IOException {
+        if (Files.isRegularFile(file)) {
+            try {
+                QueryCatalog catalog = read(file);
+                if (Objects.equals(catalog.version, version)) {
+                    return catalog;
+                }
+            } catch (IOException e) {
+                // The catalog is built again
+            }
+        }
+
+        QueryCatalog catalog = new QueryCatalog(version);
+        definitions.accept(catalog);
+        catalog.write(file);
+
+        return catalog;
+    }
+
+    /**
+     * Returns the version of the library, or the format version when the library is not packaged
+     */
+    private static String library() {
+        String version = QueryCatalog.class.getPackage().getImplementationVersion();
+        return Objects.isNull(version) ? "format-" + FORMAT : version;
+    }
+
+    private static void write(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String read(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Computes the 64 bit FNV-1a hash of the SQL
+     */
+    private static long fingerprint(String sql) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : sql.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Entry is a query of the catalog
+     */
+    public static final class Entry {
+        private final String name;
+        private final String sql;
+        private final int parameters;
+        private final List<String> tables;
+        private final long fingerprint;
+        private final CompiledQuery query;
+
+        private Entry(String name, String sql, Set<String> tables) {
+            if (Objects.isNull(name) || name.isEmpty()) {
+                throw new ValueMismatchException("Cannot add query to catalog. Name is empty");
+            }
+
+            this.name = name;
+            this.sql = sql;
+            this.parameters = Expressions.parameters(sql);
+            this.tables = Collections.unmodifiableList(new ArrayList<>(tables));
+            this.fingerprint = fingerprint(sql);
+            this.query = CompiledQuery.of(sql);
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public String getSql() {
+            return this.sql;
+        }
+
+        /**
+         * @return the number of positional parameters of the query
+         */
+        public int getParameters() {
+            return this.parameters;
+        }
+
+        /**
+         * @return the names, in lower case, of the tables referenced by the query
+         */
+        public List<String> getTables() {
+            return this.tables;
+        }
+
+        /**
+         * @return the 64 bit FNV-1a hash of the SQL
+         */
+        public long getFingerprint() {
+            return this.fingerprint;
+        }
+
+        /**
+         * Returns the compiled query, that is created once with the entry and can be registered in a
+         * {@link StatementCachingExecutor}
+         *
+         * @return the compiled query
+         */
+        public CompiledQuery getQuery() {
+            return this.query;
+        }
+
+        @Override
+        public String toString() {
+            return this.name + ": " + this.sql;
+        }
+    }
+}
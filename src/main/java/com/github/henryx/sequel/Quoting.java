@@ -0,0 +1,158 @@
+package com.github.henryx.sequel;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Quoting quotes identifiers as the database expects them: with its quote characters, when the identifier is not a
+ * simple SQL identifier, is a reserved word, or is stored in a case different from the one the database converts
+ * unquoted identifiers to
+ */
+final class Quoting {
+    private static final Pattern SIMPLE = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+    // Words reserved by every supported database, that cannot be used as unquoted identifiers
+    private static final String[] RESERVED = {
+            "ALL", "AND", "ANY", "AS", "ASC", "BETWEEN", "BY", "CASE", "CHECK", "COLUMN", "CONSTRAINT", "CREATE",
+            "CROSS", "CURRENT_DATE", "CURRENT_TIME", "CURRENT_TIMESTAMP", "CURRENT_USER", "DEFAULT", "DELETE", "DESC",
+            "DISTINCT", "DROP", "ELSE", "END", "EXCEPT", "EXISTS", "FALSE", "FETCH", "FOR", "FOREIGN", "FROM", "FULL",
+            "GRANT", "GROUP", "HAVING", "IN", "INNER", "INSERT", "INTERSECT", "INTO", "IS", "JOIN", "LEFT", "LIKE",
+            "NOT", "NULL", "ON", "OR", "ORDER", "OUTER", "PRIMARY", "REFERENCES", "RIGHT", "SELECT", "SESSION_USER",
+            "SOME", "TABLE", "THEN", "TO", "TRUE", "UNION", "UNIQUE", "UPDATE", "USER", "USING", "VALUES", "WHEN",
+            "WHERE", "WITH"
+    };
+
+    static final Quoting STANDARD = new Quoting("\"", "\"", null, new String[0]);
+
+    private final String open;
+    private final String close;
+    private final Boolean upperCase;
+    private final Set<String> reserved;
+
+    private Quoting(String open, String close, Boolean upperCase, String[] keywords) {
+        this.open = open;
+        this.close = close;
+        this.upperCase = upperCase;
+        this.reserved = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        this.reserved.addAll(Arrays.asList(RESERVED));
+        Arrays.stream(keywords).map(String::trim).filter(keyword -> !keyword.isEmpty()).forEach(this.reserved::add);
+    }
+
+    /**
+     * Returns the quoting of the dialect
+     */
+    static Quoting of(Dialect dialect) {
+        switch (dialect) {
+            case MYSQL:
+                return new Quoting("`", "`", null, new String[0]);
+            case SQLSERVER:
+                return new Quoting("[", "]", null, new String[0]);
+            case POSTGRESQL:
+                return new Quoting("\"", "\"", false, new String[0]);
+            case H2:
+            case ORACLE:
+                return new Quoting("\"", "\"", true, new String[0]);
+            default:
+                return STANDARD;
+        }
+    }
+
+    /**
+     * Returns the quoting of the database, with its quote string, case conversion and keywords
+     */
+    static Quoting of(DatabaseMetaData metadata) throws SQLException {
+        String quote = metadata.getIdentifierQuoteString();
+        if (Objects.isNull(quote) || quote.trim().isEmpty()) {
+            quote = "\"";
+        }
+
+        Boolean upperCase = null;
+        if (metadata.storesUpperCaseIdentifiers()) {
+            upperCase = true;
+        } else if (metadata.storesLowerCaseIdentifiers()) {
+            upperCase = false;
+        }
+
+        return new Quoting(quote, quote, upperCase, Objects.toString(metadata.getSQLKeywords(), "").split(","));
+    }
+
+    /**
+     * Quotes the identifier when needed. An identifier written by the user is an unquoted identifier, converted to the
+     * case of the database when it must be quoted, while a stored identifier, read from the database metadata, keeps
+     * its case and is quoted when the database would convert it
+     *
+     * @param identifier the identifier
+     * @param stored     true if the identifier is read from the database metadata
+     * @return the quoted identifier
+     */
+    String quote(String identifier, boolean stored) {
+        if (!SIMPLE.matcher(identifier).matches()) {
+            return this.enclose(identifier);
+        } else if (stored && Objects.nonNull(this.upperCase) && !identifier.equals(this.convert(identifier))) {
+            return this.enclose(identifier);
+        } else if (this.reserved.contains(identifier)) {
+            return this.enclose(stored || Objects.isNull(this.upperCase) ? identifier : this.convert(identifier));
+        }
+
+        return identifier;
+    }
+
+    private String convert(String identifier) {
+        return this.upperCase ? identifier.toUpperCase(Locale.ROOT) : identifier.toLowerCase(Locale.ROOT);
+    }
+
+    private String enclose(String identifier) {
+        return this.open + identifier.replace(this.close, this.close + this.close) + this.close;
+    }
+
+    /**
+     * Returns the name identifying a table in the results of a cache: the table name without the schema and the quotes,
+     * in lower case. The schema is removed, so statements changing a table of any schema invalidate the results reading
+     * a table with the same name
+     */
+    static String tableName(String table) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder part = new StringBuilder();
+        char quote = 0;
+        for (char c : table.trim().toCharArray()) {
+            if (quote == 0 && c == '.') {
+                parts.add(part.toString());
+                part.setLength(0);
+                continue;
+            } else if (quote == 0 && (c == '"' || c == '`' || c == '[')) {
+                quote = c == '[' ? ']' : c;
+            } else if (c == quote) {
+                quote = 0;
+            }
+            part.append(c);
+        }
+        parts.add(part.toString());
+
+        return unquote(parts.get(parts.size() - 1)).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Removes the quotes of an identifier quoted by any of the supported dialects
+     */
+    static String unquote(String identifier) {
+        if (identifier.length() > 1) {
+            char first = identifier.charAt(0);
+            char last = identifier.charAt(identifier.length() - 1);
+            if ((first == '"' || first == '`') && last == first) {
+                String quote = String.valueOf(first);
+                return identifier.substring(1, identifier.length() - 1).replace(quote + quote, quote);
+            } else if (first == '[' && last == ']') {
+                return identifier.substring(1, identifier.length() - 1).replace("]]", "]");
+            }
+        }
+
+        return identifier;
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.henryx.sequel;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * RoutingExecutor sends queries to replica DataSources and statements to the primary DataSource. Inside a session,
+ * queries executed after a statement are sent to the primary, so they read the changes of the session even when
+ * replicas lag behind
+ */
+public class RoutingExecutor extends Executor {
+    private final List<DataSource> replicas;
+    private final LoadBalancing balancing;
+    private final AtomicIntegerArray load;
+    private final AtomicInteger next;
+    private final Map<Connection, Integer> borrowed;
+    private final ThreadLocal<Session> session;
+
+    public RoutingExecutor(DataSource primary, List<DataSource> replicas, LoadBalancing balancing) {
+        super(primary);
+
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.balancing = balancing;
+        this.load = new AtomicIntegerArray(replicas.size());
+        this.next = new AtomicInteger();
+        this.borrowed = Collections.synchronizedMap(new IdentityHashMap<>());
+        this.session = new ThreadLocal<>();
+    }
+
+    /**
+     * Opens a session on the current thread, to be closed when the unit of work (like a transaction) ends. Once a
+     * statement is executed in the session, all the following queries of the session read from the primary
+     *
+     * @return the session
+     */
+    public Session session() {
+        if (Objects.nonNull(this.session.get())) {
+            throw new IllegalStateException("A session is already open on the current thread");
+        }
+
+        Session opened = new Session();
+        this.session.set(opened);
+
+        return opened;
+    }
+
+    /**
+     * Returns the number of executions in progress on the replica
+     *
+     * @param replica the replica index
+     * @return the number of executions
+     */
+    public int getLoad(int replica) {
+        return this.load.get(replica);
+    }
+
+    @Override
+    protected Connection getConnection(boolean write) throws SQLException {
+        Session current = this.session.get();
+        if (write && Objects.nonNull(current)) {
+            current.written = true;
+        }
+
+        if (write || this.replicas.isEmpty() || (Objects.nonNull(current) && current.written)) {
+            return super.getConnection(true);
+        }
+
+        int replica = this.choose();
+        this.load.incrementAndGet(replica);
+        try {
+            Connection connection = this.replicas.get(replica).getConnection();
+            this.borrowed.put(connection, replica);
+
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            this.load.decrementAndGet(replica);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void releaseConnection(Connection connection) throws SQLException {
+        Integer replica = this.borrowed.remove(connection);
+        try {
+            super.releaseConnection(connection);
+        } finally {
+            if (Objects.nonNull(replica)) {
+                this.load.decrementAndGet(replica);
+            }
+        }
+    }
+
+    private int choose() {
+        int size = this.replicas.size();
+        int start = Math.floorMod(this.next.getAndIncrement(), size);
+        if (this.balancing == LoadBalancing.ROUND_ROBIN) {
+            return start;
+        }
+
+        int chosen = start;
+        for (int i = 1; i < size; i++) {
+            int candidate = (start + i) % size;
+            if (this.load.get(candidate) < this.load.get(chosen)) {
+                chosen = candidate;
+            }
+        }
+
+        return chosen;
+    }
+
+    /**
+     * Session tracks whether the current unit of work changed data
+     */
+    public final class Session implements AutoCloseable {
+        private boolean written;
+
+        private Session() {
+        }
+
+        /**
+         * @return true if a statement was executed in the session
+         */
+        public boolean isWritten() {
+            return this.written;
+        }
+
+        @Override
+        public void close() {
+            RoutingExecutor.this.session.remove();
+        }
+    }
+}
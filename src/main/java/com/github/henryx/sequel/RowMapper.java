@@ -0,0 +1,21 @@
+package com.github.henryx.sequel;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowMapper maps the current row of a ResultSet to an object
+ *
+ * @param <T> the type of the mapped object
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    /**
+     * Maps the current row. Implementations must not move the cursor
+     *
+     * @param rs the ResultSet positioned on the row
+     * @return the mapped object
+     * @throws SQLException if a column cannot be read
+     */
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,343 @@
+package com.github.henryx.sequel;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RowMappers creates mappers that convert rows to instances of a class. Columns are matched by label to the
+ * properties of the class, ignoring case and underscores, so {@code first_name} is mapped to {@code firstName}.
+ * Supported classes are:
+ * <ul>
+ * <li>records, through the canonical constructor</li>
+ * <li>classes with a constructor taking a parameter for every column, matched by name when the class is compiled
+ * with {@code -parameters}, otherwise by position</li>
+ * <li>classes with a no-args constructor, through setters or public fields</li>
+ * </ul>
+ * The mapping plan, with the column indexes and the method handles used to build the object, is created once for
+ * every column list and class, and reused for the following executions. Executors resolve the plan once for every
+ * ResultSet, so the mapper can be shared by concurrent executions
+ */
+public final class RowMappers {
+    private static final Map<Class<?>, ClassMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private RowMappers() {
+    }
+
+    /**
+     * Returns the mapper of the class
+     *
+     * @param type the class of the mapped objects
+     * @param <T>  the type of the mapped objects
+     * @return the mapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(Class<T> type) {
+        return (RowMapper<T>) MAPPERS.computeIfAbsent(type, ClassMapper::new);
+    }
+
+    /**
+     * Returns the mapper used for all the rows of the ResultSet. Mappers of classes resolve the mapping plan from the
+     * ResultSet metadata once, instead of reading the metadata for every row; other mappers are returned as they are
+     */
+    @SuppressWarnings("unchecked")
+    static <T> RowMapper<T> bind(RowMapper<T> mapper, ResultSet rs) throws SQLException {
+        if (mapper instanceof ClassMapper) {
+            return ((ClassMapper<T>) mapper).bind(rs);
+        }
+
+        return mapper;
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Reads a column with the getter that matches the Java type, without boxing through getObject
+     */
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, int index) throws SQLException;
+    }
+
+    private static ColumnReader reader(Class<?> type) {
+        if (type == int.class) {
+            return ResultSet::getInt;
+        } else if (type == long.class) {
+            return ResultSet::getLong;
+        } else if (type == double.class) {
+            return ResultSet::getDouble;
+        } else if (type == float.class) {
+            return ResultSet::getFloat;
+        } else if (type == short.class) {
+            return ResultSet::getShort;
+        } else if (type == byte.class) {
+            return ResultSet::getByte;
+        } else if (type == boolean.class) {
+            return ResultSet::getBoolean;
+        } else if (type == String.class) {
+            return ResultSet::getString;
+        } else if (type == BigDecimal.class) {
+            return ResultSet::getBigDecimal;
+        } else if (type == Integer.class) {
+            return (rs, index) -> nullable(rs, rs.getInt(index));
+        } else if (type == Long.class) {
+            return (rs, index) -> nullable(rs, rs.getLong(index));
+        } else if (type == Double.class) {
+            return (rs, index) -> nullable(rs, rs.getDouble(index));
+        } else if (type == Boolean.class) {
+            return (rs, index) -> nullable(rs, rs.getBoolean(index));
+        } else if (type == Object.class) {
+            return ResultSet::getObject;
+        }
+
+        return (rs, index) -> rs.getObject(index, type);
+    }
+
+    private static Object nullable(ResultSet rs, Object value) throws SQLException {
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * Plan maps a row with a fixed list of columns
+     */
+    private static final class Plan {
+        private final int[] indexes;
+        private final ColumnReader[] readers;
+        private final MethodHandle constructor;
+        private final MethodHandle[] setters;
+
+        private Plan(int[] indexes, ColumnReader[] readers, MethodHandle constructor, MethodHandle[] setters) {
+            this.indexes = indexes;
+            this.readers = readers;
+            this.constructor = constructor;
+            this.setters = setters;
+        }
+
+        private Object map(ResultSet rs) throws Throwable {
+            if (Objects.isNull(this.setters)) {
+                Object[] args = new Object[this.indexes.length];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = this.readers[i].read(rs, this.indexes[i]);
+                }
+
+                return this.constructor.invokeExact(args);
+            }
+
+            Object result = this.constructor.invokeExact();
+            for (int i = 0; i < this.setters.length; i++) {
+                this.setters[i].invokeExact(result, this.readers[i].read(rs, this.indexes[i]));
+            }
+
+            return result;
+        }
+    }
+
+    private static final class ClassMapper<T> implements RowMapper<T> {
+        private final Class<T> type;
+        private final Map<List<String>, Plan> plans;
+
+        private ClassMapper(Class<T> type) {
+            this.type = type;
+            this.plans = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Maps the row resolving the plan from the ResultSet metadata. Executors use {@link #bind(ResultSet)} to
+         * resolve it once for all the rows
+         */
+        @Override
+        public T map(ResultSet rs) throws SQLException {
+            return this.map(this.resolve(rs.getMetaData()), rs);
+        }
+
+        private RowMapper<T> bind(ResultSet rs) throws SQLException {
+            Plan plan = this.resolve(rs.getMetaData());
+            return row -> this.map(plan, row);
+        }
+
+        @SuppressWarnings("unchecked")
+        private T map(Plan plan, ResultSet rs) throws SQLException {
+            try {
+                return (T) plan.map(rs);
+            } catch (SQLException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SQLException("Cannot create an instance of " + this.type.getName(), e);
+            }
+        }
+
+        private Plan resolve(ResultSetMetaData metadata) throws SQLException {
+            List<String> labels = new ArrayList<>();
+            for (int i = 1; i <= metadata.getColumnCount(); i++) {
+                labels.add(metadata.getColumnLabel(i));
+            }
+
+            Plan plan = this.plans.get(labels);
+            if (Objects.isNull(plan)) {
+                plan = this.plan(labels);
+                this.plans.putIfAbsent(labels, plan);
+            }
+
+            return plan;
+        }
+
+        private Plan plan(List<String> labels) throws SQLException {
+            try {
+                Constructor<?> canonical = this.canonical();
+                if (Objects.nonNull(canonical)) {
+                    return this.constructorPlan(labels, canonical, this.componentNames());
+                }
+
+                for (Constructor<?> constructor : this.type.getConstructors()) {
+                    if (constructor.getParameterCount() == labels.size() && labels.size() > 0) {
+                        return this.constructorPlan(labels, constructor, parameterNames(constructor));
+                    }
+                }
+
+                return this.setterPlan(labels);
+            } catch (ReflectiveOperationException e) {
+                throw new SQLException("Cannot map columns " + labels + " to " + this.type.getName(), e);
+            }
+        }
+
+        private Plan constructorPlan(List<String> labels, Constructor<?> constructor, List<String> names)
+                throws SQLException, IllegalAccessException {
+            Class<?>[] types = constructor.getParameterTypes();
+            int[] indexes = new int[types.length];
+            ColumnReader[] readers = new ColumnReader[types.length];
+
+            for (int i = 0; i < types.length; i++) {
+                indexes[i] = Objects.isNull(names) ? i + 1 : index(labels, names.get(i));
+                readers[i] = reader(types[i]);
+            }
+
+            MethodHandle handle = LOOKUP.unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, types.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+
+            return new Plan(indexes, readers, handle, null);
+        }
+
+        private Plan setterPlan(List<String> labels) throws SQLException, ReflectiveOperationException {
+            MethodHandle constructor = LOOKUP.unreflectConstructor(this.type.getConstructor())
+                    .asType(MethodType.methodType(Object.class));
+            Map<String, MethodHandle> properties = this.properties();
+
+            int[] indexes = new int[labels.size()];
+            ColumnReader[] readers = new ColumnReader[labels.size()];
+            MethodHandle[] setters = new MethodHandle[labels.size()];
+
+            for (int i = 0; i < labels.size(); i++) {
+                MethodHandle setter = properties.get(normalize(labels.get(i)));
+                if (Objects.isNull(setter)) {
+                    throw new SQLException("Cannot map column " + labels.get(i) + " to " + this.type.getName());
+                }
+
+                indexes[i] = i + 1;
+                readers[i] = reader(setter.type().parameterType(1));
+                setters[i] = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            }
+
+            return new Plan(indexes, readers, constructor, setters);
+        }
+
+        /**
+         * Returns the setters and the public fields of the class by normalized name. Setters take precedence
+         */
+        private Map<String, MethodHandle> properties() throws IllegalAccessException {
+            Map<String, MethodHandle> properties = new HashMap<>();
+
+            for (Field field : this.type.getFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())) {
+                    properties.put(normalize(field.getName()), LOOKUP.unreflectSetter(field));
+                }
+            }
+
+            for (Method method : this.type.getMethods()) {
+                if (method.getName().startsWith("set") && method.getName().length() > 3
+                        && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                    properties.put(normalize(method.getName().substring(3)),
+                            LOOKUP.unreflect(method).asType(MethodType.methodType(void.class, this.type,
+                                    method.getParameterTypes()[0])));
+                }
+            }
+
+            return properties;
+        }
+
+        /**
+         * Returns the canonical constructor when the class is a record, otherwise null. Records are detected
+         * reflectively, so the library runs on Java versions without records
+         */
+        private Constructor<?> canonical() throws ReflectiveOperationException {
+            if (Objects.isNull(this.type.getSuperclass()) || !"java.lang.Record".equals(this.type.getSuperclass().getName())) {
+                return null;
+            }
+
+            Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(this.type);
+            Class<?>[] types = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                types[i] = (Class<?>) components[i].getClass().getMethod("getType").invoke(components[i]);
+            }
+
+            return this.type.getConstructor(types);
+        }
+
+        private List<String> componentNames() throws ReflectiveOperationException {
+            Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(this.type);
+            List<String> names = new ArrayList<>();
+            for (Object component : components) {
+                names.add((String) component.getClass().getMethod("getName").invoke(component));
+            }
+
+            return names;
+        }
+
+        private int index(List<String> labels, String name) throws SQLException {
+            for (int i = 0; i < labels.size(); i++) {
+                if (normalize(labels.get(i)).equals(normalize(name))) {
+                    return i + 1;
+                }
+            }
+
+            throw new SQLException("No column for property " + name + " of " + this.type.getName()
+                    + " in " + labels);
+        }
+    }
+
+    /**
+     * Returns the names of the constructor parameters, or null if the class is compiled without them
+     */
+    private static List<String> parameterNames(Constructor<?> constructor) {
+        Parameter[] parameters = constructor.getParameters();
+        if (parameters.length == 0 || !parameters[0].isNamePresent()) {
+            return null;
+        }
+
+        List<String> names = new ArrayList<>();
+        Arrays.stream(parameters).forEach(parameter -> names.add(parameter.getName()));
+
+        return Collections.unmodifiableList(names);
+    }
+}
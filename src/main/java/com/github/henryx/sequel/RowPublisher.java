@@ -0,0 +1,291 @@
+package com.github.henryx.sequel;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RowPublisher streams the rows of a query to a subscriber with backpressure. Rows are fetched from the cursor only
+ * when requested by the subscriber, and the fetch size of the ResultSet follows the requested amount, so a slow
+ * subscriber never forces the whole result in memory. The query is executed at the first request and cancelling the
+ * subscription closes the cursor immediately.
+ * <p>
+ * Subscriber and Subscription follow the Reactive Streams contract of {@code java.util.concurrent.Flow}, that is not
+ * available on Java 8. On Java 9 or greater, {@code FlowRowPublisher} adapts the publisher to a {@code Flow.Publisher}.
+ * A publisher can be subscribed only once.
+ * <p>
+ * Some drivers (like PostgreSQL) use the fetch size only when auto commit is disabled on the connection
+ *
+ * @param <T> the type of the mapped rows
+ */
+public class RowPublisher<T> {
+    private final Executor executor;
+    private final String sql;
+    private final RowMapper<T> mapper;
+    private final Object[] params;
+    private final AtomicBoolean subscribed;
+    private java.util.concurrent.Executor runner;
+    private int fetchSize;
+
+    RowPublisher(Executor executor, String sql, RowMapper<T> mapper, Object... params) {
+        this.executor = executor;
+        this.sql = sql;
+        this.mapper = mapper;
+        this.params = params.clone();
+        this.subscribed = new AtomicBoolean();
+        this.runner = Runnable::run;
+        this.fetchSize = 1000;
+    }
+
+    /**
+     * Sets the maximum number of rows fetched from the database in a single round trip. Default value is 1000
+     *
+     * @param fetchSize the maximum fetch size
+     * @return a builder instance of the class
+     */
+    public RowPublisher<T> fetchSize(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new ValueMismatchException("Cannot build row publisher. Fetch size must be greater than zero");
+        }
+        this.fetchSize = fetchSize;
+
+        return this;
+    }
+
+    /**
+     * Sets the executor used to fetch rows and signal the subscriber. By default rows are fetched by the thread that
+     * requests them
+     *
+     * @param runner the executor
+     * @return a builder instance of the class
+     */
+    public RowPublisher<T> runOn(java.util.concurrent.Executor runner) {
+        this.runner = runner;
+
+        return this;
+    }
+
+    /**
+     * Subscribes to the rows of the query
+     *
+     * @param subscriber the subscriber
+     */
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+
+        if (!this.subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("RowPublisher can be subscribed only once"));
+            return;
+        }
+
+        subscriber.onSubscribe(new RowSubscription(subscriber));
+    }
+
+    /**
+     * Subscriber receives the rows of the query
+     *
+     * @param <T> the type of the mapped rows
+     */
+    public interface Subscriber<T> {
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    /**
+     * Subscription links a subscriber to the cursor of the query
+     */
+    public interface Subscription {
+        void request(long n);
+
+        void cancel();
+    }
+
+    private final class RowSubscription implements Subscription, Runnable {
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong demand;
+        private final AtomicInteger pending;
+        private volatile boolean cancelled;
+        private volatile PreparedStatement statement;
+        private volatile Throwable invalid;
+        private boolean done;
+        private Connection connection;
+        private ResultSet rs;
+        private RowMapper<T> mapper;
+
+        private RowSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.demand = new AtomicLong();
+            this.pending = new AtomicInteger();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.invalid = new IllegalArgumentException("Requested rows must be greater than zero, got " + n);
+            } else {
+                this.demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+
+            this.schedule();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+
+            // Interrupts a fetch in progress on another thread
+            PreparedStatement running = this.statement;
+            if (Objects.nonNull(running)) {
+                try {
+                    running.cancel();
+                } catch (SQLException ignored) {
+                    // The cursor is closed anyway by the draining thread
+                }
+            }
+
+            this.schedule();
+        }
+
+        private void schedule() {
+            if (this.pending.getAndIncrement() == 0) {
+                RowPublisher.this.runner.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                this.drain();
+                missed = this.pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (this.done) {
+                return;
+            }
+
+            if (this.cancelled) {
+                this.finish(null, false);
+                return;
+            }
+
+            if (Objects.nonNull(this.invalid)) {
+                this.finish(this.invalid, true);
+                return;
+            }
+
+            try {
+                if (Objects.isNull(this.rs)) {
+                    this.open();
+                }
+
+                while (this.demand.get() > 0 && !this.cancelled) {
+                    this.rs.setFetchSize((int) Math.min(this.demand.get(), RowPublisher.this.fetchSize));
+
+                    if (!this.rs.next()) {
+                        this.finish(null, true);
+                        return;
+                    }
+
+                    T row = this.mapper.map(this.rs);
+                    if (this.demand.get() != Long.MAX_VALUE) {
+                        this.demand.decrementAndGet();
+                    }
+                    this.subscriber.onNext(row);
+
+                    if (Objects.nonNull(this.invalid)) {
+                        this.finish(this.invalid, true);
+                        return;
+                    }
+                }
+
+                if (this.cancelled) {
+                    this.finish(null, false);
+                }
+            } catch (Throwable e) {
+                this.finish(e, !this.cancelled);
+            }
+        }
+
+        private void open() throws SQLException {
+            this.connection = RowPublisher.this.executor.getConnection(false);
+
+            PreparedStatement prepared = this.connection.prepareStatement(RowPublisher.this.sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            this.statement = prepared;
+            prepared.setFetchSize((int) Math.min(this.demand.get(), RowPublisher.this.fetchSize));
+            Executor.bind(prepared, RowPublisher.this.params);
+
+            this.rs = prepared.executeQuery();
+            this.mapper = RowMappers.bind(RowPublisher.this.mapper, this.rs);
+        }
+
+        private void finish(Throwable error, boolean signal) {
+            this.done = true;
+            this.close();
+
+            if (!signal) {
+                return;
+            }
+
+            if (Objects.isNull(error)) {
+                this.subscriber.onComplete();
+            } else {
+                this.subscriber.onError(error);
+            }
+        }
+
+        private void close() {
+            ResultSet cursor = this.rs;
+            PreparedStatement prepared = this.statement;
+            this.rs = null;
+            this.statement = null;
+
+            try {
+                if (Objects.nonNull(cursor)) {
+                    cursor.close();
+                }
+            } catch (SQLException ignored) {
+                // Closing a cancelled cursor can fail, the statement is closed anyway
+            }
+
+            try {
+                if (Objects.nonNull(prepared)) {
+                    prepared.close();
+                }
+            } catch (SQLException ignored) {
+                // Closing a cancelled statement can fail, the connection is released anyway
+            }
+
+            if (Objects.nonNull(this.connection)) {
+                try {
+                    RowPublisher.this.executor.releaseConnection(this.connection);
+                } catch (SQLException ignored) {
+                    // Nothing can be done on a connection that cannot be released
+                }
+                this.connection = null;
+            }
+        }
+    }
+}
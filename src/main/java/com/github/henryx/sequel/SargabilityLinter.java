@@ -0,0 +1,364 @@
+package com.github.henryx.sequel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SargabilityLinter reports the parts of a query that cannot use the indexes described by an {@link IndexMetadata}:
+ * functions and expressions wrapping indexed columns, negations on the first column of an index, ORDER BY clauses not
+ * matching an index and joins on columns not leading an index. Subqueries are checked too. Tables without metadata are
+ * ignored, as are columns that cannot be resolved to a table, like unqualified columns of queries reading many tables
+ */
+public final class SargabilityLinter {
+    private static final Pattern COLUMN = Pattern.compile("^(?:([A-Za-z_][\\w$]*)\\.)?([A-Za-z_][\\w$]*)$");
+    private static final Pattern DIRECTION = Pattern.compile("(?i)\\s+(ASC|DESC)(?:\\s+NULLS\\s+(?:FIRST|LAST))?$");
+
+    private final IndexMetadata indexes;
+
+    /**
+     * Creates a linter
+     *
+     * @param indexes the indexes of the tables
+     */
+    public SargabilityLinter(IndexMetadata indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * Checks the query
+     *
+     * @param select the query
+     * @return the findings, empty if the query can use the indexes
+     */
+    public List<Finding> lint(Sequel.Select select) {
+        List<Finding> findings = new ArrayList<>();
+        this.lint(select, findings);
+
+        return findings;
+    }
+
+    private void lint(Sequel.Select select, List<Finding> findings) {
+        Scope scope = new Scope(select);
+
+        select.getWhereCriteria().forEach(criterion -> this.lint(criterion, scope, findings));
+        select.getHavingCriteria().forEach(criterion -> this.lint(criterion, scope, findings));
+        for (Join join : select.getJoins()) {
+            join.getCriteria().forEach(criterion -> this.lint(criterion, scope, findings));
+            if (Objects.isNull(join.getSubquery())) {
+                this.lint(join, scope, findings);
+            } else {
+                this.lint(join.getSubquery(), findings);
+            }
+        }
+        this.lintOrder(select, scope, findings);
+
+        select.getDerived().values().forEach(derived -> this.lint(derived, findings));
+        select.getSetOperations().forEach(operand -> this.lint(operand, findings));
+    }
+
+    private void lint(Criterion criterion, Scope scope, List<Finding> findings) {
+        if (Objects.nonNull(criterion.getSubquery())) {
+            this.lint(criterion.getSubquery(), findings);
+        }
+        criterion.getChildren().forEach(child -> this.lint(child, scope, findings));
+
+        if (criterion.isGroup() || Objects.isNull(criterion.getColumn())) {
+            return;
+        }
+
+        String column = criterion.getColumn().trim();
+        Reference reference = scope.resolve(column);
+        if (Objects.nonNull(reference)) {
+            boolean negation = Objects.equals(criterion.getOperator(), Criterion.NEQ)
+                    || Objects.equals(criterion.getOperator(), Criterion.NOT_IN);
+            if (negation && this.indexes.isLeading(reference.table, reference.column)) {
+                findings.add(new Finding(Rule.NEGATION_ON_KEY, reference.table, criterion.getSql(),
+                        criterion.getOperator() + " on " + reference + " cannot seek the index starting with the column"));
+            }
+
+            return;
+        }
+
+        for (String identifier : Expressions.identifiers(column)) {
+            Reference wrapped = scope.resolve(identifier);
+            if (Objects.nonNull(wrapped) && this.indexes.isIndexed(wrapped.table, wrapped.column)) {
+                findings.add(new Finding(Rule.FUNCTION_ON_COLUMN, wrapped.table, criterion.getSql(),
+                        "Expression " + column + " wraps the indexed column " + wrapped));
+                return;
+            }
+        }
+    }
+
+    private void lint(Join join, Scope scope, List<Finding> findings) {
+        String qualifier = Expressions.alias(join.getTable()).toLowerCase(Locale.ROOT);
+        String table = IndexMetadata.name(Expressions.table(join.getTable()));
+        if (!this.indexes.isDescribed(table)) {
+            return;
+        }
+
+        Set<String> columns = scope.equalities(join.getCriteria(), qualifier);
+        boolean indexed = this.indexes.getIndexes(table).stream().anyMatch(index -> columns.contains(index.get(0)));
+        if (!indexed) {
+            findings.add(new Finding(Rule.JOIN_WITHOUT_INDEX, table, join.getSql(),
+                    "Join on " + table + " compares " + (columns.isEmpty() ? "no column" : "columns " + columns)
+                            + " not leading an index"));
+        }
+    }
+
+    private void lintOrder(Sequel.Select select, Scope scope, List<Finding> findings) {
+        if (select.getOrderBy().isEmpty()) {
+            return;
+        }
+
+        String sql = String.join(", ", select.getOrderBy());
+        List<String> columns = new ArrayList<>();
+        Reference first = null;
+        Boolean descending = null;
+        for (String term : select.getOrderBy()) {
+            Matcher matcher = DIRECTION.matcher(term.trim());
+            boolean desc = matcher.find() && matcher.group(1).equalsIgnoreCase("DESC");
+            String expression = matcher.reset().replaceFirst("").trim();
+
+            if (Objects.nonNull(descending) && descending != desc) {
+                findings.add(new Finding(Rule.ORDER_WITHOUT_INDEX, null, sql, "ORDER BY mixes ascending and descending columns"));
+                return;
+            }
+            descending = desc;
+
+            if (isAlias(select, expression)) {
+                return;
+            }
+
+            Reference reference = scope.resolve(expression);
+            if (Objects.isNull(reference)) {
+                if (!COLUMN.matcher(expression).matches() && !expression.matches("\\d+")) {
+                    findings.add(new Finding(Rule.ORDER_WITHOUT_INDEX, null, sql, "ORDER BY sorts the expression " + expression));
+                }
+                return;
+            } else if (Objects.nonNull(first) && !first.qualifier.equals(reference.qualifier)) {
+                findings.add(new Finding(Rule.ORDER_WITHOUT_INDEX, null, sql, "ORDER BY sorts columns of several tables"));
+                return;
+            }
+
+            first = reference;
+            columns.add(reference.column);
+        }
+
+        if (!this.indexes.isDescribed(first.table)) {
+            return;
+        }
+
+        boolean conjunction = select.getWhereCriteria().stream()
+                .allMatch(criterion -> Objects.equals(criterion.getMethod(), Criterion.AND));
+        Set<String> fixed = conjunction ? scope.equalities(select.getWhereCriteria(), first.qualifier) : new HashSet<>();
+        if (this.indexes.getIndexes(first.table).stream().noneMatch(index -> sorts(index, columns, fixed))) {
+            findings.add(new Finding(Rule.ORDER_WITHOUT_INDEX, first.table, sql,
+                    "ORDER BY " + columns + " does not match an index of " + first.table));
+        }
+    }
+
+    /**
+     * Checks if the expression is the alias of a selected column, that the ORDER BY clause can reference
+     */
+    private static boolean isAlias(Sequel.Select select, String expression) {
+        return Objects.nonNull(select.getColumns()) && select.getColumns().stream()
+                .anyMatch(column -> expression.equalsIgnoreCase(Expressions.outputName(column))
+                        && !Expressions.expression(column).equals(column.trim()));
+    }
+
+    /**
+     * Checks if reading the index returns the rows sorted by the columns, when the columns compared with equality
+     * have a single value
+     */
+    private static boolean sorts(List<String> index, List<String> columns, Set<String> fixed) {
+        int position = 0;
+        for (String column : columns) {
+            if (fixed.contains(column)) {
+                continue;
+            }
+
+            while (position < index.size() && !index.get(position).equals(column) && fixed.contains(index.get(position))) {
+                position++;
+            }
+
+            if (position == index.size() || !index.get(position).equals(column)) {
+                return false;
+            }
+            position++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Rule identifies the kind of a finding
+     */
+    public enum Rule {
+        /**
+         * A function or an expression wraps an indexed column
+         */
+        FUNCTION_ON_COLUMN,
+        /**
+         * {@code !=} or {@code NOT IN} on the first column of an index
+         */
+        NEGATION_ON_KEY,
+        /**
+         * The ORDER BY clause does not match the order of an index
+         */
+        ORDER_WITHOUT_INDEX,
+        /**
+         * The join does not compare the first column of an index of the joined table
+         */
+        JOIN_WITHOUT_INDEX
+    }
+
+    /**
+     * Finding is a part of a query that cannot use an index
+     */
+    public static final class Finding {
+        private final Rule rule;
+        private final String table;
+        private final String sql;
+        private final String message;
+
+        private Finding(Rule rule, String table, String sql, String message) {
+            this.rule = rule;
+            this.table = table;
+            this.sql = sql;
+            this.message = message;
+        }
+
+        public Rule getRule() {
+            return this.rule;
+        }
+
+        /**
+         * @return the table, in lower case, or null when the finding is not about a single table
+         */
+        public String getTable() {
+            return this.table;
+        }
+
+        /**
+         * @return the SQL of the criterion, join or ORDER BY clause
+         */
+        public String getSql() {
+            return this.sql;
+        }
+
+        public String getMessage() {
+            return this.message;
+        }
+
+        @Override
+        public String toString() {
+            return this.rule + ": " + this.message;
+        }
+    }
+
+    /**
+     * Reference is a column resolved to its table
+     */
+    private static final class Reference {
+        private final String qualifier;
+        private final String table;
+        private final String column;
+
+        private Reference(String qualifier, String table, String column) {
+            this.qualifier = qualifier;
+            this.table = table;
+            this.column = column;
+        }
+
+        @Override
+        public String toString() {
+            return this.table + "." + this.column;
+        }
+    }
+
+    /**
+     * Scope maps the table names and aliases of a query to the tables
+     */
+    private static final class Scope {
+        private final Map<String, String> tables;
+        private final int sources;
+
+        private Scope(Sequel.Select select) {
+            this.tables = new LinkedHashMap<>();
+            select.getFrom().stream()
+                    .filter(table -> !select.getDerived().containsKey(table))
+                    .forEach(this::add);
+            select.getJoins().forEach(join -> this.add(join.getTable()));
+            this.sources = select.getFrom().size() + select.getJoins().size();
+        }
+
+        private void add(String expression) {
+            String table = IndexMetadata.name(Expressions.table(expression));
+            this.tables.put(Expressions.alias(expression).toLowerCase(Locale.ROOT), table);
+        }
+
+        /**
+         * Returns the table of a column, or null if the text is not a column or its table is unknown
+         */
+        private Reference resolve(String text) {
+            Matcher matcher = COLUMN.matcher(text.trim());
+            if (!matcher.matches()) {
+                return null;
+            }
+
+            String column = matcher.group(2).toLowerCase(Locale.ROOT);
+            if (Objects.isNull(matcher.group(1))) {
+                if (this.sources != 1 || this.tables.size() != 1) {
+                    return null;
+                }
+
+                Map.Entry<String, String> entry = this.tables.entrySet().iterator().next();
+                return new Reference(entry.getKey(), entry.getValue(), column);
+            }
+
+            String qualifier = matcher.group(1).toLowerCase(Locale.ROOT);
+            String table = this.tables.get(qualifier);
+
+            return Objects.isNull(table) ? null : new Reference(qualifier, table, column);
+        }
+
+        /**
+         * Returns the columns of the table identified by the qualifier compared with equality to values not coming
+         * from the same table
+         */
+        private Set<String> equalities(List<Criterion> criteria, String qualifier) {
+            Set<String> columns = new HashSet<>();
+            for (Criterion criterion : criteria) {
+                if (criterion.isGroup() || !Objects.equals(criterion.getOperator(), Criterion.EQ)
+                        || Objects.nonNull(criterion.getSubquery())) {
+                    continue;
+                }
+
+                String left = criterion.getColumn();
+                String right = criterion.getValues().get(0);
+                this.equality(left, right, qualifier, columns);
+                this.equality(right, left, qualifier, columns);
+            }
+
+            return columns;
+        }
+
+        private void equality(String column, String value, String qualifier, Set<String> columns) {
+            Reference reference = this.resolve(column);
+            if (Objects.nonNull(reference) && reference.qualifier.equals(qualifier)) {
+                Reference other = this.resolve(value);
+                if (Objects.isNull(other) ? !Expressions.references(value, qualifier) : !other.qualifier.equals(qualifier)) {
+                    columns.add(reference.column);
+                }
+            }
+        }
+    }
+}
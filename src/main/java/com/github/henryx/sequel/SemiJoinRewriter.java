@@ -0,0 +1,133 @@
+package com.github.henryx.sequel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * SemiJoinRewriter rewrites IN and NOT IN subqueries in correlated EXISTS and NOT EXISTS subqueries:
+ * <p>
+ * {@code o.id IN (SELECT order_id FROM lines WHERE qty > 1)}
+ * <p>
+ * becomes
+ * <p>
+ * {@code EXISTS (SELECT 1 FROM lines WHERE qty > 1 AND order_id = o.id)}
+ * <p>
+ * NOT IN returns no rows when the filtered column or a value returned by the subquery is NULL, while NOT EXISTS keeps
+ * them, so NOT IN is rewritten only when both columns are declared NOT NULL by the passed tables
+ */
+final class SemiJoinRewriter {
+    private static final Pattern QUALIFIED = Pattern.compile("[A-Za-z_][\\w$]*\\.[A-Za-z_][\\w$]*");
+    private static final Pattern COLUMN = Pattern.compile("(?:[A-Za-z_][\\w$]*\\.)?[A-Za-z_][\\w$]*");
+    private static final Pattern DISTINCT = Pattern.compile("(?i)^DISTINCT\\s+");
+
+    private SemiJoinRewriter() {
+    }
+
+    static List<Criterion> rewrite(Sequel.Select select, List<Criterion> criteria, List<Table> tables) {
+        List<Criterion> result = new ArrayList<>();
+        criteria.forEach(criterion -> result.add(rewrite(select, criterion, tables)));
+
+        return result;
+    }
+
+    private static Criterion rewrite(Sequel.Select select, Criterion criterion, List<Table> tables) {
+        if (criterion.isGroup()) {
+            return Criterion.group(criterion.getOperator(), rewrite(select, criterion.getChildren(), tables))
+                    .withMethod(criterion.getMethod());
+        }
+
+        boolean in = Criterion.IN.equals(criterion.getOperator());
+        if (!(in || Criterion.NOT_IN.equals(criterion.getOperator())) || !isRewritable(criterion)) {
+            return criterion;
+        }
+
+        Sequel.Select subquery = criterion.getSubquery().copy();
+        String inner = column(subquery);
+        if (!in && !(isNotNull(select, criterion.getColumn(), tables) && isNotNull(subquery, inner, tables))) {
+            return criterion;
+        }
+
+        List<Criterion> where = new ArrayList<>(subquery.getWhereCriteria());
+        subquery.getWhereCriteria().clear();
+        if (where.stream().skip(1).anyMatch(c -> Criterion.OR.equalsIgnoreCase(c.getMethod()))) {
+            subquery.where(Criterion.disjunction(where));
+        } else {
+            where.forEach(subquery::where);
+        }
+        subquery.where(Criterion.eq(inner, criterion.getColumn()));
+        subquery.getOrderBy().clear();
+        subquery.select("1");
+
+        Criterion rewritten = in ? Criterion.exists(subquery) : Criterion.notExists(subquery);
+        return rewritten.withMethod(criterion.getMethod());
+    }
+
+    private static boolean isRewritable(Criterion criterion) {
+        Sequel.Select subquery = criterion.getSubquery();
+        String column = criterion.getColumn();
+
+        if (Objects.isNull(subquery) || !QUALIFIED.matcher(column).matches()) {
+            return false;
+        }
+
+        if (subquery.getColumns().size() != 1 || Objects.isNull(column(subquery))
+                || !subquery.getGroupBy().isEmpty() || !subquery.getHavingCriteria().isEmpty()
+                || Objects.nonNull(subquery.getLimit()) || Objects.nonNull(subquery.getOffset())
+                || subquery.hasSetOperations()) {
+            return false;
+        }
+
+        // The outer column must not be shadowed by a table of the subquery
+        String qualifier = column.substring(0, column.indexOf('.'));
+        boolean shadowed = subquery.getFrom().stream().anyMatch(table -> Expressions.matches(table, qualifier))
+                || subquery.getJoins().stream().anyMatch(join -> Expressions.matches(join.getTable(), qualifier));
+
+        return !shadowed;
+    }
+
+    /**
+     * Returns the column selected by the subquery without DISTINCT and alias, that don't change the rows matched by
+     * EXISTS, or null if the subquery selects an expression
+     */
+    private static String column(Sequel.Select subquery) {
+        String column = DISTINCT.matcher(subquery.getColumns().get(0).trim()).replaceFirst("");
+        column = Expressions.expression(column);
+
+        return COLUMN.matcher(column).matches() ? column : null;
+    }
+
+    /**
+     * Checks if the column belongs to a table of the query declared with the column NOT NULL. Unqualified columns are
+     * resolved only when the query reads a single table
+     */
+    private static boolean isNotNull(Sequel.Select select, String column, List<Table> tables) {
+        List<String> expressions = new ArrayList<>();
+        select.getFrom().stream().filter(table -> !select.getDerived().containsKey(table)).forEach(expressions::add);
+        select.getJoins().stream().filter(join -> Objects.isNull(join.getSubquery())).forEach(join -> expressions.add(join.getTable()));
+
+        int separator = column.lastIndexOf('.');
+        String name = column.substring(separator + 1);
+        String expression = null;
+        if (separator < 0) {
+            if (expressions.size() == 1 && select.getFrom().size() + select.getJoins().size() == 1) {
+                expression = expressions.get(0);
+            }
+        } else {
+            String qualifier = column.substring(0, separator);
+            expression = expressions.stream().filter(e -> Expressions.alias(e).equals(qualifier)).findFirst().orElse(null);
+        }
+
+        if (Objects.isNull(expression)) {
+            return false;
+        }
+
+        String table = unquote(IndexMetadata.name(Expressions.table(expression)));
+        return tables.stream().anyMatch(t -> unquote(IndexMetadata.name(t.getName())).equals(table) && t.isNotNull(name));
+    }
+
+    private static String unquote(String identifier) {
+        return identifier.replaceAll("[\"`\\[\\]]", "");
+    }
+}
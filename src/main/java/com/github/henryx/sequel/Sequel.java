@@ -1,6 +1,8 @@
 package com.github.henryx.sequel;
 
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class Sequel {
@@ -14,6 +16,16 @@ public class Sequel {
         return new Select(Arrays.stream(tables).filter(e -> !Objects.equals(e, "")).toArray(String[]::new));
     }
 
+    /**
+     * Sets the tables where we select data. This is the entry point
+     *
+     * @param tables Sets a list of tables used to generate the query
+     * @return a Select builder instance of the class
+     */
+    public static Select from(Table... tables) {
+        return from(Arrays.stream(tables).map(Table::getSql).toArray(String[]::new));
+    }
+
     /**
      * Sets the subquery used to select data. This is the entry point
      *
@@ -22,11 +34,10 @@ public class Sequel {
      * @return a Select builder instance of the class
      */
     public static Select from(Select subquery, String alias) {
-        StringJoiner joiner = new StringJoiner("", "(", ")");
-        joiner.add(subquery.getSql());
-        String str = joiner + " AS " + alias;
+        Select select = new Select(alias);
+        select.derived.put(alias, subquery);
 
-        return new Select(str);
+        return select;
     }
 
     /**
@@ -40,19 +51,32 @@ public class Sequel {
     }
 
     public static class Select {
+        private static final Pattern DIRECTION = Pattern.compile("(?i)\\s+(ASC|DESC)(?:\\s+NULLS\\s+(?:FIRST|LAST))?$");
+
         private final List<String> from;
         private final List<Criterion> whereCriteria;
         private final List<Criterion> havingCriteria;
         private final List<Join> joins;
         private final List<String> groupBy;
         private final List<String> orderBy;
-        private final List<String> union;
-        private final List<String> intersect;
-        private final List<String> except;
+        private final List<Select> union;
+        private final List<Select> intersect;
+        private final List<Select> except;
+        private final List<Hint> hints;
+        private final Map<String, List<IndexHint>> indexHints;
+        private final Map<String, TableSample> samples;
+        private final Map<String, Select> derived;
+        private final List<Table> notNullTables;
         private List<String> columns;
         private Integer limit;
         private Integer offset;
         private Boolean unionAll;
+        private Dialect dialect;
+        private Guardrails guardrails;
+        private boolean simplify;
+        private boolean semiJoins;
+        private boolean eliminateJoins;
+        private boolean optimizeDerivedTables;
 
         public Select(String... tables) {
             this.from = Arrays.asList(tables);
@@ -66,37 +90,26 @@ public class Sequel {
             this.intersect = new ArrayList<>();
             this.except = new ArrayList<>();
             this.unionAll = Boolean.FALSE;
+
+            this.hints = new ArrayList<>();
+            this.indexHints = new LinkedHashMap<>();
+            this.samples = new LinkedHashMap<>();
+            this.derived = new LinkedHashMap<>();
+            this.notNullTables = new ArrayList<>();
+            this.dialect = Dialect.STANDARD;
         }
 
-        private String build() {
+        private String build(Dialect dialect) {
             if (this.from.isEmpty() || this.columns.isEmpty()) {
                 return "";
             }
 
-            String query = this.columns.stream().collect(Collectors.joining(", ", "SELECT ", " FROM "));
-            query += String.join(", ", this.from);
-
-            if (!this.joins.isEmpty()) {
-                StringJoiner joiner = new StringJoiner(" ");
-                this.joins.forEach(join -> joiner.add(join.getSql()));
-
-                query += " " + joiner;
+            if (this.optimizeDerivedTables && !this.derived.isEmpty()) {
+                return DerivedTableOptimizer.optimize(this).build(dialect);
             }
 
-            if (!this.whereCriteria.isEmpty()) {
-                StringJoiner joiner = new StringJoiner(" ");
-                this.whereCriteria.forEach(criterion -> {
-                    if (joiner.length() == 0) {
-                        joiner.add(" WHERE");
-                    } else {
-                        joiner.add(criterion.getMethod());
-                    }
-
-                    joiner.add(criterion.getSql());
-                });
-
-                query += joiner.toString();
-            }
+            String query = this.buildHead(dialect);
+            query += this.buildCriteria(" WHERE", this.whereCriteria);
 
             if (!this.groupBy.isEmpty()) {
                 StringJoiner joiner = new StringJoiner(", ", " GROUP BY ", "");
@@ -104,54 +117,194 @@ public class Sequel {
                 query += joiner.toString();
             }
 
-            if (!this.havingCriteria.isEmpty()) {
-                StringJoiner joiner = new StringJoiner(" ");
-                this.havingCriteria.forEach(criterion -> {
-                    if (joiner.length() == 0) {
-                        joiner.add(" HAVING");
-                    } else {
-                        joiner.add(criterion.getMethod());
-                    }
-                    joiner.add(criterion.getSql());
-                });
-
-                query += joiner.toString();
-            }
+            query += this.buildCriteria(" HAVING", this.havingCriteria);
 
             if (!this.orderBy.isEmpty()) {
                 StringJoiner joiner = new StringJoiner(", ", " ORDER BY ", "");
                 this.orderBy.forEach(joiner::add);
                 query += joiner.toString();
+            } else if (Objects.equals(dialect, Dialect.SQLSERVER) && this.isPaginated()) {
+                // SQL Server accepts OFFSET and FETCH only after an ORDER BY clause
+                query += " ORDER BY (SELECT NULL)";
             }
 
-            if (Objects.nonNull(this.offset) && this.offset > 0) {
-                StringJoiner joiner = new StringJoiner("", " OFFSET ", " ROWS");
-                joiner.add(this.offset.toString());
-                query += joiner.toString();
-            }
-
-            if (Objects.nonNull(this.limit) && this.limit > 0) {
-                StringJoiner joiner = new StringJoiner("", " FETCH FIRST ", " ROWS ONLY");
-                joiner.add(this.limit.toString());
-                query += joiner.toString();
-            }
+            query += this.buildPagination(dialect);
 
             if (!this.union.isEmpty()) {
-                String prefix = this.unionAll ? " UNION ALL " : " UNION ";
-                StringJoiner joiner = new StringJoiner(" ", prefix, "");
-                this.union.forEach(joiner::add);
+                String operator = this.unionAll ? " UNION ALL " : " UNION ";
+                StringJoiner joiner = new StringJoiner(" ", operator, "");
+                this.union.forEach(select -> joiner.add(select.build(dialect)));
                 query += joiner.toString();
             }
 
             if (!this.intersect.isEmpty()) {
                 StringJoiner joiner = new StringJoiner(" ", " INTERSECT ", "");
-                this.intersect.forEach(joiner::add);
+                this.intersect.forEach(select -> joiner.add(select.build(dialect)));
                 query += joiner.toString();
             }
 
             if (!this.except.isEmpty()) {
                 StringJoiner joiner = new StringJoiner(" ", " EXCEPT ", "");
-                this.except.forEach(joiner::add);
+                this.except.forEach(select -> joiner.add(select.build(dialect)));
+                query += joiner.toString();
+            }
+
+            StringJoiner options = new StringJoiner(", ", " OPTION (", ")");
+            options.setEmptyValue("");
+            this.hints.stream()
+                    .map(hint -> hint.getOption(dialect))
+                    .filter(Objects::nonNull)
+                    .forEach(options::add);
+            query += options.toString();
+
+            return query;
+        }
+
+        /**
+         * Returns the SELECT, FROM and JOIN clauses of the query
+         */
+        private String buildHead(Dialect dialect) {
+            List<Join> joins = this.eliminateJoins ? JoinEliminator.eliminate(this) : this.joins;
+            String comment = this.buildComment(dialect, joins);
+            String prefix = "SELECT ";
+            if (!comment.isEmpty()) {
+                prefix = Objects.equals(dialect, Dialect.POSTGRESQL) ? comment + " SELECT " : "SELECT " + comment + " ";
+            }
+
+            String query = this.columns.stream().collect(Collectors.joining(", ", prefix, " FROM "));
+            query += this.from.stream().map(table -> {
+                if (this.derived.containsKey(table)) {
+                    StringJoiner joiner = new StringJoiner("", "(", ")");
+                    joiner.add(this.derived.get(table).build(dialect));
+
+                    return joiner + " AS " + table;
+                }
+
+                TableSample sample = this.samples.get(table);
+                String expression = Objects.isNull(sample) ? table : sample.render(table, dialect);
+                String hints = IndexHint.render(this.indexHints.getOrDefault(table, Collections.emptyList()), dialect);
+                return hints.isEmpty() ? expression : expression + " " + hints;
+            }).collect(Collectors.joining(", "));
+
+            if (!joins.isEmpty()) {
+                StringJoiner joiner = new StringJoiner(" ");
+                joins.forEach(join -> joiner.add(join.getSql(dialect)));
+
+                query += " " + joiner;
+            }
+
+            return query;
+        }
+
+        /**
+         * Returns the top level criteria of the WHERE clause as rendered, after the rewrites enabled on the query
+         */
+        List<Criterion> getRenderedWhereCriteria() {
+            if (this.optimizeDerivedTables && !this.derived.isEmpty()) {
+                return DerivedTableOptimizer.optimize(this).getRenderedWhereCriteria();
+            }
+
+            return this.rewrite(this.whereCriteria);
+        }
+
+        /**
+         * Returns the number of parameters rendered before the WHERE clause
+         */
+        int getWhereOffset() {
+            if (this.optimizeDerivedTables && !this.derived.isEmpty()) {
+                return DerivedTableOptimizer.optimize(this).getWhereOffset();
+            }
+
+            return this.from.isEmpty() || this.columns.isEmpty() ? 0 : Expressions.parameters(this.buildHead(this.dialect));
+        }
+
+        private String buildCriteria(String clause, List<Criterion> criteria) {
+            if (criteria.isEmpty()) {
+                return "";
+            }
+
+            StringJoiner joiner = new StringJoiner(" ");
+            this.rewrite(criteria).forEach(criterion -> {
+                if (joiner.length() == 0) {
+                    joiner.add(clause);
+                } else {
+                    joiner.add(criterion.getMethod());
+                }
+
+                joiner.add(criterion.getSql());
+            });
+
+            return joiner.toString();
+        }
+
+        private List<Criterion> rewrite(List<Criterion> criteria) {
+            List<Criterion> rewritten = this.semiJoins ? SemiJoinRewriter.rewrite(this, criteria, this.notNullTables) : criteria;
+
+            return this.simplify ? CriteriaSimplifier.simplify(rewritten) : rewritten;
+        }
+
+        private String buildComment(Dialect dialect, List<Join> joins) {
+            StringJoiner joiner = new StringJoiner(" ", "/*+ ", " */");
+            joiner.setEmptyValue("");
+
+            this.hints.stream()
+                    .map(hint -> hint.getComment(dialect))
+                    .filter(Objects::nonNull)
+                    .forEach(joiner::add);
+            this.indexHints.forEach((table, hints) -> hints.stream()
+                    .map(hint -> hint.getComment(dialect, table))
+                    .filter(Objects::nonNull)
+                    .forEach(joiner::add));
+            joins.forEach(join -> join.getComments(dialect).forEach(joiner::add));
+
+            return joiner.toString();
+        }
+
+        private boolean isPaginated() {
+            return (Objects.nonNull(this.offset) && this.offset > 0) || (Objects.nonNull(this.limit) && this.limit > 0);
+        }
+
+        private String buildPagination(Dialect dialect) {
+            boolean hasOffset = Objects.nonNull(this.offset) && this.offset > 0;
+            boolean hasLimit = Objects.nonNull(this.limit) && this.limit > 0;
+            String query = "";
+
+            if (Objects.equals(dialect, Dialect.MYSQL) || Objects.equals(dialect, Dialect.SQLITE)) {
+                if (hasLimit) {
+                    query += " LIMIT " + this.limit;
+                } else if (hasOffset) {
+                    // Both MySQL and SQLite require LIMIT when OFFSET is used
+                    query += Objects.equals(dialect, Dialect.MYSQL) ? " LIMIT 18446744073709551615" : " LIMIT -1";
+                }
+
+                if (hasOffset) {
+                    query += " OFFSET " + this.offset;
+                }
+
+                return query;
+            }
+
+            if (Objects.equals(dialect, Dialect.SQLSERVER)) {
+                if (hasLimit || hasOffset) {
+                    query += " OFFSET " + (hasOffset ? this.offset : 0) + " ROWS";
+                }
+
+                if (hasLimit) {
+                    query += " FETCH NEXT " + this.limit + " ROWS ONLY";
+                }
+
+                return query;
+            }
+
+            if (hasOffset) {
+                StringJoiner joiner = new StringJoiner("", " OFFSET ", " ROWS");
+                joiner.add(this.offset.toString());
+                query += joiner.toString();
+            }
+
+            if (hasLimit) {
+                StringJoiner joiner = new StringJoiner("", " FETCH FIRST ", " ROWS ONLY");
+                joiner.add(this.limit.toString());
                 query += joiner.toString();
             }
 
@@ -171,6 +324,16 @@ public class Sequel {
             return this;
         }
 
+        /**
+         * Select add columns in SELECT query
+         *
+         * @param columns Sets the columns used to select data
+         * @return a builder instance of the class
+         */
+        public Select select(Column... columns) {
+            return this.select(sql(columns));
+        }
+
         /**
          * Where sets the query filters conditions
          *
@@ -195,6 +358,16 @@ public class Sequel {
             return this;
         }
 
+        /**
+         * GroupBy sets columns used to aggregate data
+         *
+         * @param columns sets columns used to aggregate data
+         * @return a builder instance of the class
+         */
+        public Select groupBy(Column... columns) {
+            return this.groupBy(sql(columns));
+        }
+
         /**
          * Having sets criteria for HAVING clause
          *
@@ -219,6 +392,16 @@ public class Sequel {
             return this;
         }
 
+        /**
+         * OrderBy sets columns used to order result data
+         *
+         * @param columns sets columns used to order result data
+         * @return a builder instance of the class
+         */
+        public Select orderBy(Column... columns) {
+            return this.orderBy(sql(columns));
+        }
+
         /**
          * Limit fetch n rows from the result data.
          * According to {@code SQL:2008}, clause of limit is:
@@ -253,7 +436,7 @@ public class Sequel {
          * @return a builder instance of the class
          */
         public Select union(Select select) {
-            this.union.add(select.getSql());
+            this.union.add(select);
 
             return this;
         }
@@ -278,7 +461,7 @@ public class Sequel {
          * @return a builder instance of the class
          */
         public Select intersect(Select select) {
-            this.intersect.add(select.getSql());
+            this.intersect.add(select);
 
             return this;
         }
@@ -290,7 +473,7 @@ public class Sequel {
          * @return a builder instance of the class
          */
         public Select except(Select select) {
-            this.except.add(select.getSql());
+            this.except.add(select);
 
             return this;
         }
@@ -307,18 +490,535 @@ public class Sequel {
             return this;
         }
 
+        /**
+         * hint sets a statement level optimizer hint
+         *
+         * @param hint sets the optimizer hint
+         * @return a builder instance of the class
+         */
+        public Select hint(Hint hint) {
+            this.hints.add(hint);
+
+            return this;
+        }
+
+        /**
+         * indexHint sets an index hint on a table used in FROM clause
+         *
+         * @param table the table, identified by name or alias
+         * @param hint  sets the index hint
+         * @return a builder instance of the class
+         */
+        public Select indexHint(String table, IndexHint hint) {
+            String expression = this.from.stream()
+                    .filter(e -> Expressions.matches(e, table))
+                    .findFirst()
+                    .orElseThrow(() -> new ValueMismatchException("Cannot set index hint. Table " + table + " is not in FROM clause"));
+            this.indexHints.computeIfAbsent(expression, e -> new ArrayList<>()).add(hint);
+
+            return this;
+        }
+
+        /**
+         * tableSample reads a random sample of the rows of a table used in FROM clause, instead of the whole table
+         *
+         * @param table  the table, identified by name or alias
+         * @param sample sets the sampling method and the percentage of the table to read
+         * @return a builder instance of the class
+         */
+        public Select tableSample(String table, TableSample sample) {
+            String expression = this.from.stream()
+                    .filter(e -> !this.derived.containsKey(e))
+                    .filter(e -> Expressions.matches(e, table))
+                    .findFirst()
+                    .orElseThrow(() -> new ValueMismatchException("Cannot set table sample. Table " + table + " is not in FROM clause"));
+            this.samples.put(expression, Objects.requireNonNull(sample));
+
+            return this;
+        }
+
+        /**
+         * simplify enables the rewrite of WHERE and HAVING criteria before rendering. Duplicated predicates are
+         * removed, equality OR chains are merged in IN, ranges are folded in BETWEEN and single value IN are turned
+         * in equality
+         *
+         * @return a builder instance of the class
+         */
+        public Select simplify() {
+            this.simplify = true;
+
+            return this;
+        }
+
+        /**
+         * semiJoins enables the rewrite of IN and NOT IN subqueries in EXISTS and NOT EXISTS subqueries, that
+         * planners execute as semi-joins and anti-joins. The rewrite is applied when the filtered column is qualified
+         * with a table name or alias not used by the subquery and the subquery selects a single column without
+         * aggregations, limits or set operations. Since NOT IN returns no rows when a NULL value is compared, NOT IN
+         * subqueries are rewritten only when the columns are declared NOT NULL, see {@link #semiJoins(Table...)}
+         *
+         * @return a builder instance of the class
+         */
+        public Select semiJoins() {
+            this.semiJoins = true;
+
+            return this;
+        }
+
+        /**
+         * semiJoins enables the rewrite of IN and NOT IN subqueries in EXISTS and NOT EXISTS subqueries, like
+         * {@link #semiJoins()}. NOT IN subqueries are rewritten too when both the filtered column and the column
+         * selected by the subquery are declared NOT NULL, or are part of the primary key, by the passed tables
+         *
+         * @param tables the tables used by the query and by its subqueries
+         * @return a builder instance of the class
+         */
+        public Select semiJoins(Table... tables) {
+            this.semiJoins = true;
+            this.notNullTables.addAll(Arrays.asList(tables));
+
+            return this;
+        }
+
+        /**
+         * eliminateJoins enables the removal of LEFT joins declared unique with {@link Join#unique()} whose table
+         * name or alias is not used as column qualifier in the query. Since unique LEFT joins cannot add or remove
+         * rows, the result of the query is unchanged
+         *
+         * @return a builder instance of the class
+         */
+        public Select eliminateJoins() {
+            this.eliminateJoins = true;
+
+            return this;
+        }
+
+        /**
+         * optimizeDerivedTables enables the optimization of subqueries used in FROM clause. Criteria of the WHERE
+         * clause that only reference columns of a subquery are moved into the subquery, when it doesn't aggregate,
+         * limit or combine rows, and the columns of the subquery never used by the outer query are removed
+         *
+         * @return a builder instance of the class
+         */
+        public Select optimizeDerivedTables() {
+            this.optimizeDerivedTables = true;
+
+            return this;
+        }
+
+        /**
+         * dialect sets the SQL dialect used to render the query. Default dialect is STANDARD
+         *
+         * @param dialect sets the dialect
+         * @return a builder instance of the class
+         */
+        public Select dialect(Dialect dialect) {
+            this.dialect = dialect;
+
+            return this;
+        }
+
+        /**
+         * toCountQuery returns a query that counts the rows returned by this query, ignoring ORDER BY, OFFSET and
+         * FETCH FIRST. Queries with GROUP BY, HAVING or set operations are counted as a derived table
+         *
+         * @return a Select object that represents the count query
+         */
+        public Select toCountQuery() {
+            return this.buildCountQuery("COUNT(*)");
+        }
+
+        /**
+         * toCountQuery returns a query that counts the distinct values of the key in the rows returned by this
+         * query, ignoring ORDER BY, OFFSET and FETCH FIRST. Queries with GROUP BY, HAVING or set operations are
+         * counted as a derived table, so the key must be part of the selected columns
+         *
+         * @param key the column, or the expression, that identifies a row
+         * @return a Select object that represents the count query
+         */
+        public Select toCountQuery(String key) {
+            return this.buildCountQuery("COUNT(DISTINCT " + key + ")");
+        }
+
+        private Select buildCountQuery(String count) {
+            Select select = this.withoutPagination();
+            select.eliminateJoins = true;
+            if (select.isDistinct() || !select.groupBy.isEmpty() || !select.havingCriteria.isEmpty() || select.hasSetOperations()) {
+                select.hints.clear();
+                return Sequel.from(select, "count_query")
+                        .select(count)
+                        .dialect(this.dialect)
+                        .hints(this.hints);
+            }
+
+            return select.select(count);
+        }
+
+        /**
+         * withTotalCount returns a query that adds to every row the total number of rows, ignoring OFFSET and FETCH
+         * FIRST, using the {@code COUNT(*) OVER ()} window function. This permits to retrieve a page and the total
+         * count in a single query. Since the window function is computed before DISTINCT and set operations, queries
+         * using them are counted as a derived table
+         *
+         * @param alias the name of the column that contains the total count
+         * @return a Select object that represents the query
+         */
+        public Select withTotalCount(String alias) {
+            String total = "COUNT(*) OVER () AS " + alias;
+            boolean distinct = this.isDistinct();
+
+            if (!distinct && !this.hasSetOperations()) {
+                Select select = this.copy();
+                select.columns = new ArrayList<>(this.getColumns());
+                select.columns.add(total);
+
+                return select;
+            }
+
+            Select select = this.withoutPagination();
+            select.hints.clear();
+
+            Select outer = Sequel.from(select, "count_query")
+                    .select("count_query.*", total)
+                    .dialect(this.dialect)
+                    .hints(this.hints);
+            this.orderBy.forEach(term -> outer.orderBy.add(distinct ? this.outerTerm(term, "count_query") : term));
+            outer.limit = this.limit;
+            outer.offset = this.offset;
+
+            return outer;
+        }
+
+        /**
+         * withRowNumber returns a query that also selects the position of every row in the order of the query, using
+         * the {@code ROW_NUMBER()} window function, so the order is kept when the query is read as a derived table.
+         * ORDER BY terms referencing a selected column by alias or position are replaced by its expression. Queries
+         * using DISTINCT are numbered as a derived table, and queries without ORDER BY select 0
+         *
+         * @param alias the name of the column that contains the position
+         * @return a Select object that represents the query
+         */
+        Select withRowNumber(String alias) {
+            if (this.orderBy.isEmpty()) {
+                Select select = this.copy();
+                select.columns = new ArrayList<>(this.getColumns());
+                select.columns.add("0 AS " + alias);
+
+                return select;
+            }
+
+            boolean paginated = Objects.nonNull(this.limit) || Objects.nonNull(this.offset);
+            if (!this.isDistinct()) {
+                StringJoiner terms = new StringJoiner(", ");
+                this.orderBy.forEach(term -> terms.add(this.windowTerm(term)));
+
+                Select select = paginated ? this.copy() : this.withoutPagination();
+                select.columns = new ArrayList<>(this.getColumns());
+                select.columns.add("ROW_NUMBER() OVER (ORDER BY " + terms + ") AS " + alias);
+
+                return select;
+            }
+
+            StringJoiner terms = new StringJoiner(", ");
+            this.orderBy.forEach(term -> terms.add(this.outerTerm(term, "row_query")));
+
+            Select select = paginated ? this.copy() : this.withoutPagination();
+            select.hints.clear();
+
+            return Sequel.from(select, "row_query")
+                    .select("row_query.*", "ROW_NUMBER() OVER (ORDER BY " + terms + ") AS " + alias)
+                    .dialect(this.dialect)
+                    .hints(this.hints);
+        }
+
+        /**
+         * Returns the ORDER BY term with the selected column referenced by alias or position replaced by its
+         * expression, since window functions cannot reference them
+         */
+        private String windowTerm(String term) {
+            Matcher matcher = DIRECTION.matcher(term.trim());
+            String direction = matcher.find() ? matcher.group() : "";
+            String expression = term.trim().substring(0, term.trim().length() - direction.length());
+
+            if (expression.matches("\\d+")) {
+                int position = Integer.parseInt(expression);
+                if (position >= 1 && position <= this.columns.size()) {
+                    return Expressions.expression(this.columns.get(position - 1)) + direction;
+                }
+            }
+
+            for (String column : this.columns) {
+                String name = Expressions.outputName(column);
+                if (expression.equalsIgnoreCase(name) && !name.equalsIgnoreCase(Expressions.expression(column))) {
+                    return Expressions.expression(column) + direction;
+                }
+            }
+
+            return term;
+        }
+
+        private boolean isDistinct() {
+            return Objects.nonNull(this.columns) && this.columns.stream().findFirst()
+                    .map(column -> column.trim().toUpperCase(Locale.ROOT).startsWith("DISTINCT "))
+                    .orElse(false);
+        }
+
+        /**
+         * Returns the ORDER BY term referencing the selected column by its name in the derived table, since the
+         * qualifiers of the query are not visible outside it
+         */
+        private String outerTerm(String term, String alias) {
+            Matcher matcher = DIRECTION.matcher(term.trim());
+            String direction = matcher.find() ? matcher.group() : "";
+            String expression = term.trim().substring(0, term.trim().length() - direction.length());
+
+            for (String column : this.columns) {
+                String selected = column.trim().replaceFirst("(?i)^DISTINCT\\s+", "");
+                String name = Expressions.outputName(selected);
+                if (Objects.nonNull(name) && (expression.equalsIgnoreCase(name)
+                        || expression.equalsIgnoreCase(Expressions.expression(selected)))) {
+                    return alias + "." + name + direction;
+                }
+            }
+
+            return term;
+        }
+
+        private Select withoutPagination() {
+            Select select = this.copy();
+            select.orderBy.clear();
+            select.limit = null;
+            select.offset = null;
+
+            return select;
+        }
+
+        private Select hints(List<Hint> hints) {
+            this.hints.addAll(hints);
+
+            return this;
+        }
+
+        /**
+         * explain returns the statement used to show the execution plan of the query, according to the dialect. SQL
+         * Server shows plans only for statements executed after SET SHOWPLAN_XML ON, in a separate batch, so the
+         * dialect is not supported
+         *
+         * @return a String that represents the EXPLAIN statement
+         * @throws ValueMismatchException if the dialect cannot show the plan with a single statement
+         */
+        public String explain() {
+            switch (this.dialect) {
+                case ORACLE:
+                    return "EXPLAIN PLAN FOR " + this.getSql();
+                case SQLITE:
+                    return "EXPLAIN QUERY PLAN " + this.getSql();
+                case SQLSERVER:
+                    throw new ValueMismatchException("Cannot build EXPLAIN statement. " + this.dialect + " dialect is not supported");
+                default:
+                    return "EXPLAIN " + this.getSql();
+            }
+        }
+
+        /**
+         * explainAnalyze returns the statement used to execute the query and show the execution plan with the
+         * collected statistics, according to the dialect. Oracle, SQLite and SQL Server cannot execute the query and
+         * return the plan with a single statement, so the dialects are not supported
+         *
+         * @return a String that represents the EXPLAIN ANALYZE statement
+         * @throws ValueMismatchException if the dialect cannot execute and show the plan with a single statement
+         */
+        public String explainAnalyze() {
+            switch (this.dialect) {
+                case ORACLE:
+                case SQLITE:
+                case SQLSERVER:
+                    throw new ValueMismatchException("Cannot build EXPLAIN ANALYZE statement. " + this.dialect + " dialect is not supported");
+                default:
+                    return "EXPLAIN ANALYZE " + this.getSql();
+            }
+        }
+
+        /**
+         * guardrails sets the guardrails checked when the query is rendered, instead of the default ones
+         *
+         * @param guardrails the guardrails
+         * @return a builder instance of the class
+         */
+        public Select guardrails(Guardrails guardrails) {
+            this.guardrails = guardrails;
+
+            return this;
+        }
+
         /**
          * getSql returns generated query
          *
          * @return a String that represents the generated query
          */
         public String getSql() {
-            return this.build();
+            Guardrails guardrails = Objects.isNull(this.guardrails) ? Guardrails.getDefault() : this.guardrails;
+            if (Objects.isNull(guardrails)) {
+                return this.build(this.dialect);
+            }
+
+            String sql = guardrails.check(this).build(this.dialect);
+            guardrails.check(sql);
+
+            return sql;
+        }
+
+        /**
+         * Returns the generated query without checking the guardrails, used when the query is part of another one
+         */
+        String render() {
+            return this.build(this.dialect);
+        }
+
+        /**
+         * Returns the generated query rendered for the passed dialect, without checking the guardrails
+         */
+        String render(Dialect dialect) {
+            return this.build(dialect);
+        }
+
+        /**
+         * Returns a copy of the query that can be changed without affecting this instance
+         */
+        Select copy() {
+            Select select = new Select(this.from.toArray(new String[0]));
+
+            select.whereCriteria.addAll(this.whereCriteria);
+            select.havingCriteria.addAll(this.havingCriteria);
+            select.joins.addAll(this.joins);
+            select.groupBy.addAll(this.groupBy);
+            select.orderBy.addAll(this.orderBy);
+            select.union.addAll(this.union);
+            select.intersect.addAll(this.intersect);
+            select.except.addAll(this.except);
+            select.hints.addAll(this.hints);
+            this.indexHints.forEach((table, hints) -> select.indexHints.put(table, new ArrayList<>(hints)));
+            select.samples.putAll(this.samples);
+            select.derived.putAll(this.derived);
+            select.columns = Objects.isNull(this.columns) ? null : new ArrayList<>(this.columns);
+            select.limit = this.limit;
+            select.offset = this.offset;
+            select.unionAll = this.unionAll;
+            select.dialect = this.dialect;
+            select.guardrails = this.guardrails;
+            select.simplify = this.simplify;
+            select.semiJoins = this.semiJoins;
+            select.notNullTables.addAll(this.notNullTables);
+            select.eliminateJoins = this.eliminateJoins;
+            select.optimizeDerivedTables = this.optimizeDerivedTables;
+
+            return select;
+        }
+
+        List<String> getFrom() {
+            return from;
+        }
+
+        Map<String, Select> getDerived() {
+            return derived;
+        }
+
+        void setOptimizeDerivedTables(boolean optimizeDerivedTables) {
+            this.optimizeDerivedTables = optimizeDerivedTables;
+        }
+
+        void setColumns(List<String> columns) {
+            this.columns = columns;
+        }
+
+        List<String> getColumns() {
+            return Objects.isNull(columns) ? Collections.emptyList() : columns;
+        }
+
+        List<Criterion> getWhereCriteria() {
+            return whereCriteria;
+        }
+
+        List<Criterion> getHavingCriteria() {
+            return havingCriteria;
+        }
+
+        List<Join> getJoins() {
+            return joins;
+        }
+
+        List<String> getGroupBy() {
+            return groupBy;
+        }
+
+        List<String> getOrderBy() {
+            return orderBy;
+        }
+
+        Integer getLimit() {
+            return limit;
+        }
+
+        Integer getOffset() {
+            return offset;
+        }
+
+        /**
+         * Returns the names of the tables read by the query, including joins, subqueries and queries combined with set
+         * operations, normalized by {@link Quoting#tableName(String)}
+         */
+        Set<String> getTables() {
+            Set<String> tables = new LinkedHashSet<>();
+
+            this.from.forEach(table -> {
+                if (this.derived.containsKey(table)) {
+                    tables.addAll(this.derived.get(table).getTables());
+                } else {
+                    tables.add(Quoting.tableName(Expressions.table(table)));
+                }
+            });
+            this.joins.forEach(join -> {
+                if (Objects.isNull(join.getSubquery())) {
+                    tables.add(Quoting.tableName(Expressions.table(join.getTable())));
+                } else {
+                    tables.addAll(join.getSubquery().getTables());
+                }
+                join.getCriteria().forEach(criterion -> tables.addAll(criterion.getTables()));
+            });
+            this.whereCriteria.forEach(criterion -> tables.addAll(criterion.getTables()));
+            this.havingCriteria.forEach(criterion -> tables.addAll(criterion.getTables()));
+            this.union.forEach(select -> tables.addAll(select.getTables()));
+            this.intersect.forEach(select -> tables.addAll(select.getTables()));
+            this.except.forEach(select -> tables.addAll(select.getTables()));
+
+            return tables;
+        }
+
+        /**
+         * Checks if the query is combined with other queries using UNION, INTERSECT or EXCEPT
+         */
+        boolean hasSetOperations() {
+            return !this.union.isEmpty() || !this.intersect.isEmpty() || !this.except.isEmpty();
+        }
+
+        /**
+         * Returns the queries combined with UNION, INTERSECT or EXCEPT
+         */
+        List<Select> getSetOperations() {
+            List<Select> selects = new ArrayList<>(this.union);
+            selects.addAll(this.intersect);
+            selects.addAll(this.except);
+
+            return selects;
+        }
+
+        private static String[] sql(Column... columns) {
+            return Arrays.stream(columns).map(Column::getSql).toArray(String[]::new);
         }
 
         @Override
         public String toString() {
-            return this.build();
+            return this.getSql();
         }
     }
 
@@ -326,23 +1026,34 @@ public class Sequel {
         private final String table;
         private final List<String> columns;
         private final List<String> values;
+        private final List<List<String>> rows;
+        private final List<String> returning;
         private Select query;
+        private Guardrails guardrails;
+        private Dialect dialect;
 
         public Insert(String table) {
             this.table = table;
             this.values = new ArrayList<>();
+            this.rows = new ArrayList<>();
             this.columns = new ArrayList<>();
+            this.returning = new ArrayList<>();
+            this.dialect = Dialect.STANDARD;
         }
 
-        private String build() {
+        private String build(boolean returning) {
             if (this.values.isEmpty() && Objects.isNull(this.query)) {
                 throw new ValueMismatchException("Cannot build INSERT statement. No query or no values are passed");
             }
 
-            if (!this.columns.isEmpty() && this.columns.size() != this.values.size()) {
+            if (!this.columns.isEmpty() && !this.values.isEmpty() && this.columns.size() != this.values.size()) {
                 throw new ValueMismatchException("Cannot build INSERT statement. Columns number differs from values number");
             }
 
+            if (this.rows.stream().anyMatch(row -> row.size() != this.values.size())) {
+                throw new ValueMismatchException("Cannot build INSERT statement. Rows have a different number of values");
+            }
+
             StringJoiner insert = new StringJoiner(" ")
                     .add("INSERT INTO")
                     .add(this.table);
@@ -353,14 +1064,31 @@ public class Sequel {
                 insert.add(joiner.toString());
             }
 
+            boolean clause = returning && this.hasReturningClause();
+            if (clause && Objects.equals(this.dialect, Dialect.SQLSERVER)) {
+                insert.add(this.returning.stream().map(column -> "inserted." + column)
+                        .collect(Collectors.joining(", ", "OUTPUT ", "")));
+            }
+
             if (Objects.isNull(this.query)) {
                 insert.add("VALUES");
 
-                StringJoiner joiner = new StringJoiner(", ", "(", ")");
-                this.values.forEach(joiner::add);
-                insert.add(joiner.toString());
+                StringJoiner rows = new StringJoiner(", ");
+                rows.add(this.values.stream().collect(Collectors.joining(", ", "(", ")")));
+                this.rows.forEach(row -> rows.add(row.stream().collect(Collectors.joining(", ", "(", ")"))));
+                insert.add(rows.toString());
             } else {
-                insert.add(this.query.getSql());
+                insert.add(this.query.render());
+            }
+
+            if (clause && !Objects.equals(this.dialect, Dialect.SQLSERVER)) {
+                insert.add("RETURNING").add(String.join(", ", this.returning));
+            }
+
+            Guardrails guardrails = Objects.isNull(this.guardrails) ? Guardrails.getDefault() : this.guardrails;
+            if (Objects.nonNull(guardrails)) {
+                guardrails.check(this);
+                guardrails.check(insert.toString());
             }
 
             return insert.toString();
@@ -390,24 +1118,132 @@ public class Sequel {
             return this;
         }
 
+        /**
+         * row adds a row of values, to insert many rows with a single statement. When no values are set, the row is
+         * the first one
+         *
+         * @param values A list of the values of the row
+         * @return a builder instance of the class
+         */
+        public Insert row(String... values) {
+            if (this.values.isEmpty()) {
+                this.values.addAll(Arrays.asList(values));
+            } else {
+                this.rows.add(Arrays.asList(values));
+            }
+
+            return this;
+        }
+
+        /**
+         * returning sets the columns of the inserted rows returned by the statement, e.g. generated keys. The columns
+         * are rendered as RETURNING clause with PostgreSQL and SQLite dialects and as OUTPUT clause with SQL Server
+         * dialect. With other dialects they are not rendered and the executor reads them as generated keys
+         *
+         * @param columns the returned columns
+         * @return a builder instance of the class
+         */
+        public Insert returning(String... columns) {
+            this.returning.addAll(Arrays.asList(columns));
+
+            return this;
+        }
+
+        /**
+         * dialect sets the SQL dialect used to render the statement. Default is {@link Dialect#STANDARD}
+         *
+         * @param dialect the dialect
+         * @return a builder instance of the class
+         */
+        public Insert dialect(Dialect dialect) {
+            this.dialect = dialect;
+
+            return this;
+        }
+
         public Insert select(Select query) {
             this.query = query;
 
             return this;
         }
 
+        /**
+         * guardrails sets the guardrails checked when the statement is rendered, instead of the default ones
+         *
+         * @param guardrails the guardrails
+         * @return a builder instance of the class
+         */
+        public Insert guardrails(Guardrails guardrails) {
+            this.guardrails = guardrails;
+
+            return this;
+        }
+
+        Select getQuery() {
+            return this.query;
+        }
+
+        List<String> getReturning() {
+            return this.returning;
+        }
+
+        /**
+         * Checks if the returned columns are rendered in the statement, instead of being read as generated keys
+         */
+        boolean hasReturningClause() {
+            if (this.returning.isEmpty()) {
+                return false;
+            }
+
+            switch (this.dialect) {
+                case POSTGRESQL:
+                case SQLITE:
+                case SQLSERVER:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Returns the generated insert, without the RETURNING or OUTPUT clause
+         */
+        String getSqlWithoutReturning() {
+            return this.build(false);
+        }
+
+        /**
+         * Returns the name of the table where data are inserted, normalized by {@link Quoting#tableName(String)}
+         */
+        String getTable() {
+            return Quoting.tableName(Expressions.table(this.table));
+        }
+
+        /**
+         * Returns the names of the table where data are inserted and of the tables read by the query
+         */
+        Set<String> getTables() {
+            Set<String> tables = new LinkedHashSet<>();
+            tables.add(this.getTable());
+            if (Objects.nonNull(this.query)) {
+                tables.addAll(this.query.getTables());
+            }
+
+            return tables;
+        }
+
         /**
          * getSql returns generated insert
          *
          * @return a String that represents the generated insert
          */
         public String getSql() {
-            return this.build();
+            return this.build(true);
         }
 
         @Override
         public String toString() {
-            return this.build();
+            return this.build(true);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,698 @@
+package com.github.henryx.sequel;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ShardedExecutor executes queries on data split in shards by the value of a column. A query filtering the shard
+ * column of a table in its FROM clause with equality or IN on literals or parameters is executed only on the shards
+ * holding the values, every other query is executed on all the shards and the results are merged:
+ * <ul>
+ * <li>ordered rows are merged keeping the ORDER BY, that must reference selected columns</li>
+ * <li>limit and offset are applied to the merged rows</li>
+ * <li>COUNT, SUM, MIN, MAX and AVG of the same group are combined. AVG is computed from the sum and the count of
+ * every shard</li>
+ * </ul>
+ * HAVING, set operations and aggregates of DISTINCT values are not supported on more than one shard, and throw a
+ * {@link ValueMismatchException}. NULL values are sorted first in ascending order, unless the ORDER BY sets NULLS
+ * FIRST or NULLS LAST
+ */
+public class ShardedExecutor {
+    private static final Pattern AGGREGATE = Pattern.compile("(?i)^(COUNT|SUM|MIN|MAX|AVG)\\s*\\(([^()]*)\\)$");
+    private static final Pattern ANY_AGGREGATE = Pattern.compile("(?i)\\b(COUNT|SUM|AVG|MIN|MAX)\\s*\\(|\\bOVER\\s*\\(");
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("[+-]?\\d+(?:\\.\\d+)?");
+    private static final Pattern ORDER = Pattern.compile("(?i)^(.+?)(?:\\s+(ASC|DESC))?(?:\\s+NULLS\\s+(FIRST|LAST))?$");
+
+    private final String column;
+    private final List<Executor> shards;
+    private final ToIntFunction<String> locator;
+    private java.util.concurrent.Executor runner;
+
+    /**
+     * Creates an executor that assigns a value of the shard column to the shard at the index of its hash code
+     *
+     * @param column the shard column
+     * @param shards the executors of the shards
+     */
+    public ShardedExecutor(String column, List<Executor> shards) {
+        this(column, shards, key -> Math.floorMod(key.hashCode(), shards.size()));
+    }
+
+    /**
+     * Creates an executor that assigns a value of the shard column to a shard with the passed function. Values are
+     * passed as text, without quotes, whether they are literals in the query or bound parameters
+     *
+     * @param column  the shard column
+     * @param shards  the executors of the shards
+     * @param locator the function that returns the shard index of a value
+     */
+    public ShardedExecutor(String column, List<Executor> shards, ToIntFunction<String> locator) {
+        this.column = column;
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.locator = locator;
+        this.runner = Runnable::run;
+    }
+
+    /**
+     * Sets the executor used to run a query on several shards. By default shards are queried one at a time by the
+     * calling thread
+     *
+     * @param runner the executor
+     * @return a builder instance of the class
+     */
+    public ShardedExecutor runOn(java.util.concurrent.Executor runner) {
+        this.runner = runner;
+
+        return this;
+    }
+
+    /**
+     * Returns the executor of the shard holding the value, used for statements
+     *
+     * @param key the value of the shard column
+     * @return the executor of the shard
+     */
+    public Executor shard(Object key) {
+        return this.shards.get(this.locator.applyAsInt(String.valueOf(key)));
+    }
+
+    /**
+     * Executes the query on the shards holding its rows and maps every merged row
+     *
+     * @param select the query
+     * @param mapper the mapper used for every row
+     * @param params values bound to the query parameters
+     * @param <T>    the type of the mapped rows
+     * @return the list of mapped rows
+     * @throws SQLException if the query fails on a shard
+     */
+    public <T> List<T> query(Sequel.Select select, RowMapper<T> mapper, Object... params) throws SQLException {
+        Set<Integer> targets = this.route(select, params);
+        if (targets.isEmpty()) {
+            return new ArrayList<>();
+        } else if (targets.size() == 1) {
+            return this.shards.get(targets.iterator().next()).query(select, mapper, params);
+        }
+
+        if (select.hasSetOperations() || !select.getHavingCriteria().isEmpty()) {
+            throw new ValueMismatchException("Cannot merge rows from several shards. HAVING and set operations are not supported");
+        }
+
+        boolean aggregate = !select.getGroupBy().isEmpty()
+                || select.getColumns().stream().anyMatch(c -> ANY_AGGREGATE.matcher(c).find());
+
+        List<Object[]> rows;
+        Row.Meta meta;
+        if (aggregate) {
+            Aggregation aggregation = new Aggregation(select);
+            List<List<Row>> results = this.scatter(targets, aggregation.shardQuery, params);
+            meta = aggregation.meta(meta(results));
+            rows = aggregation.merge(results);
+            rows.sort(this.comparator(select, meta));
+            rows = paginate(rows, select.getOffset(), select.getLimit());
+        } else {
+            Sequel.Select shardQuery = select.copy();
+            if (Objects.nonNull(select.getLimit())) {
+                shardQuery.limit(select.getLimit() + (Objects.isNull(select.getOffset()) ? 0 : select.getOffset()));
+            }
+            shardQuery.offset(null);
+
+            List<List<Row>> results = this.scatter(targets, shardQuery, params);
+            meta = meta(results);
+            rows = this.merge(results, select, meta);
+        }
+
+        List<T> mapped = new ArrayList<>();
+        if (Objects.isNull(meta)) {
+            return mapped;
+        }
+
+        ResultSet rs = ArrayResultSet.of(meta.labels, meta.types, rows);
+        RowMapper<T> bound = RowMappers.bind(mapper, rs);
+        while (rs.next()) {
+            mapped.add(bound.map(rs));
+        }
+
+        return mapped;
+    }
+
+    /**
+     * Returns the indexes of the shards holding the rows of the query. A shard key must be filtered by a top level
+     * criterion joined with AND, comparing the shard column of a table in the FROM clause with literals or parameters,
+     * otherwise all the shards are returned. Criteria and parameters are read as rendered, after the rewrites enabled
+     * on the query
+     */
+    Set<Integer> route(Sequel.Select select, Object... params) {
+        Set<Integer> all = new TreeSet<>();
+        for (int i = 0; i < this.shards.size(); i++) {
+            all.add(i);
+        }
+
+        List<Criterion> where = select.getRenderedWhereCriteria();
+        if (where.stream().skip(1).anyMatch(criterion -> Criterion.OR.equalsIgnoreCase(criterion.getMethod()))) {
+            return all;
+        }
+
+        int parameter = select.getWhereOffset();
+        Set<Integer> targets = all;
+        for (Criterion criterion : where) {
+            Set<Integer> located = this.locate(select, criterion, parameter, params);
+            if (Objects.nonNull(located)) {
+                targets = new TreeSet<>(targets);
+                targets.retainAll(located);
+            }
+            parameter += Expressions.parameters(criterion.getSql());
+        }
+
+        return targets;
+    }
+
+    private Set<Integer> locate(Sequel.Select select, Criterion criterion, int parameter, Object... params) {
+        if (criterion.isGroup() || criterion.hasSubquery() || Objects.isNull(criterion.getColumn())
+                || !(Criterion.EQ.equals(criterion.getOperator()) || Criterion.IN.equals(criterion.getOperator()))
+                || !this.isShardColumn(select, criterion.getColumn().trim())) {
+            return null;
+        }
+
+        Set<Integer> located = new HashSet<>();
+        int index = parameter;
+        for (String value : criterion.getValues()) {
+            String trimmed = value.trim();
+            String key;
+            if ("?".equals(trimmed)) {
+                if (index >= params.length) {
+                    return null;
+                }
+                key = String.valueOf(params[index++]);
+            } else if (STRING.matcher(trimmed).matches()) {
+                key = unquote(trimmed);
+            } else if (NUMBER.matcher(trimmed).matches()) {
+                key = trimmed;
+            } else {
+                // Columns and expressions can match rows of every shard
+                return null;
+            }
+
+            located.add(this.locator.applyAsInt(key));
+        }
+
+        return located;
+    }
+
+    /**
+     * Checks if the column is the shard column of a table in the FROM clause. An unqualified column is the shard
+     * column only when the query reads a single table
+     */
+    private boolean isShardColumn(Sequel.Select select, String column) {
+        int separator = column.lastIndexOf('.');
+        if (!column.substring(separator + 1).equalsIgnoreCase(this.column)) {
+            return false;
+        }
+
+        List<String> tables = new ArrayList<>();
+        select.getFrom().stream().filter(table -> !select.getDerived().containsKey(table)).forEach(tables::add);
+        if (separator < 0) {
+            return tables.size() == 1 && select.getFrom().size() == 1 && select.getJoins().isEmpty();
+        }
+
+        String qualifier = column.substring(0, separator);
+        return tables.stream().anyMatch(table -> Expressions.alias(table).equalsIgnoreCase(qualifier));
+    }
+
+    private List<List<Row>> scatter(Set<Integer> targets, Sequel.Select select, Object... params) throws SQLException {
+        List<CompletableFuture<List<Row>>> futures = new ArrayList<>();
+        for (Integer target : targets) {
+            Executor shard = this.shards.get(target);
+            // Every task reads its own ResultSet, so it gets its own reader
+            RowReader reader = new RowReader();
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return shard.query(select, reader, params);
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                }
+            }, this.runner));
+        }
+
+        List<List<Row>> results = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<Row>> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
+        }
+
+        return results;
+    }
+
+    /**
+     * Merges the ordered results of the shards, removing duplicated rows of a DISTINCT query, and applies limit and
+     * offset
+     */
+    private List<Object[]> merge(List<List<Row>> results, Sequel.Select select, Row.Meta meta) {
+        if (Objects.isNull(meta)) {
+            return new ArrayList<>();
+        }
+
+        Comparator<Object[]> comparator = this.comparator(select, meta);
+        PriorityQueue<Cursor> queue = new PriorityQueue<>((a, b) -> {
+            int comparison = comparator.compare(a.current().values, b.current().values);
+            return comparison != 0 ? comparison : Integer.compare(a.shard, b.shard);
+        });
+        for (int i = 0; i < results.size(); i++) {
+            if (!results.get(i).isEmpty()) {
+                queue.add(new Cursor(i, results.get(i)));
+            }
+        }
+
+        boolean distinct = select.getColumns().get(0).trim().toUpperCase(Locale.ROOT).startsWith("DISTINCT ");
+        Set<List<Object>> seen = new HashSet<>();
+        int skip = Objects.isNull(select.getOffset()) ? 0 : select.getOffset();
+        int limit = Objects.isNull(select.getLimit()) || select.getLimit() <= 0 ? Integer.MAX_VALUE : select.getLimit();
+
+        List<Object[]> rows = new ArrayList<>();
+        while (!queue.isEmpty() && rows.size() < limit) {
+            Cursor cursor = queue.poll();
+            Object[] values = cursor.current().values;
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+
+            if (distinct && !seen.add(Arrays.asList(values))) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            rows.add(values);
+        }
+
+        return rows;
+    }
+
+    /**
+     * Returns the comparator of the ORDER BY clause. Order columns are resolved to result columns by position, label
+     * or expression
+     */
+    private Comparator<Object[]> comparator(Sequel.Select select, Row.Meta meta) {
+        Comparator<Object[]> comparator = (a, b) -> 0;
+        if (Objects.isNull(meta)) {
+            return comparator;
+        }
+
+        for (String order : select.getOrderBy()) {
+            Matcher matcher = ORDER.matcher(order.trim());
+            if (!matcher.matches()) {
+                throw new ValueMismatchException("Cannot merge rows from several shards. ORDER BY " + order + " is not supported");
+            }
+
+            int index = resolve(select, meta, matcher.group(1).trim());
+            boolean descending = "DESC".equalsIgnoreCase(matcher.group(2));
+            boolean nullsFirst = Objects.isNull(matcher.group(3)) ? !descending : "FIRST".equalsIgnoreCase(matcher.group(3));
+
+            comparator = comparator.thenComparing((a, b) -> {
+                Object left = a[index];
+                Object right = b[index];
+                if (Objects.isNull(left) || Objects.isNull(right)) {
+                    int nulls = Objects.isNull(left) ? (Objects.isNull(right) ? 0 : -1) : 1;
+                    return nullsFirst ? nulls : -nulls;
+                }
+
+                int comparison = compare(left, right);
+                return descending ? -comparison : comparison;
+            });
+        }
+
+        return comparator;
+    }
+
+    private static int resolve(Sequel.Select select, Row.Meta meta, String expression) {
+        if (expression.matches("\\d+")) {
+            return Integer.parseInt(expression) - 1;
+        }
+
+        String name = expression.substring(expression.lastIndexOf('.') + 1);
+        for (int i = 0; i < meta.labels.length; i++) {
+            if (meta.labels[i].equalsIgnoreCase(name) || meta.labels[i].equalsIgnoreCase(expression)) {
+                return i;
+            }
+        }
+
+        List<String> columns = select.getColumns();
+        if (columns.stream().noneMatch(column -> column.trim().endsWith("*"))) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (Expressions.expression(columns.get(i)).equalsIgnoreCase(expression)
+                        || name.equalsIgnoreCase(Expressions.outputName(columns.get(i)))) {
+                    return i;
+                }
+            }
+        }
+
+        throw new ValueMismatchException("Cannot merge rows from several shards. ORDER BY " + expression
+                + " must reference a selected column");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number && left.getClass() != right.getClass()) {
+            return new BigDecimal(left.toString()).compareTo(new BigDecimal(right.toString()));
+        } else if (left instanceof Comparable && left.getClass() == right.getClass()) {
+            return ((Comparable) left).compareTo(right);
+        }
+
+        return left.toString().compareTo(right.toString());
+    }
+
+    private static List<Object[]> paginate(List<Object[]> rows, Integer offset, Integer limit) {
+        int from = Math.min(rows.size(), Objects.isNull(offset) || offset < 0 ? 0 : offset);
+        int to = Objects.isNull(limit) || limit <= 0 ? rows.size() : (int) Math.min(rows.size(), (long) from + limit);
+
+        return new ArrayList<>(rows.subList(from, to));
+    }
+
+    private static Row.Meta meta(List<List<Row>> results) {
+        for (List<Row> result : results) {
+            if (!result.isEmpty()) {
+                return result.get(0).meta;
+            }
+        }
+
+        return null;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("'") && value.endsWith("'")) {
+            return value.substring(1, value.length() - 1).replace("''", "'");
+        }
+
+        return value;
+    }
+
+    /**
+     * Aggregation rewrites an aggregate query for the shards and combines the partial groups
+     */
+    private static final class Aggregation {
+        private final Sequel.Select shardQuery;
+        private final String[] functions;
+        private final String[] labels;
+        private final int[] counts;
+        private final int[] groups;
+        private final int size;
+
+        private Aggregation(Sequel.Select select) {
+            List<String> columns = select.getColumns();
+            this.size = columns.size();
+            this.functions = new String[this.size];
+            this.labels = new String[this.size];
+            this.counts = new int[this.size];
+
+            List<String> shardColumns = new ArrayList<>();
+            List<String> extra = new ArrayList<>();
+            for (int i = 0; i < this.size; i++) {
+                String column = columns.get(i);
+                String expression = Expressions.expression(column);
+                Matcher matcher = AGGREGATE.matcher(expression);
+
+                if (!matcher.matches()) {
+                    if (ANY_AGGREGATE.matcher(column).find()) {
+                        throw new ValueMismatchException("Cannot combine groups from several shards. " + column + " is not supported");
+                    }
+                    shardColumns.add(column);
+                    continue;
+                }
+
+                String function = matcher.group(1).toUpperCase(Locale.ROOT);
+                String argument = matcher.group(2).trim();
+                if (argument.toUpperCase(Locale.ROOT).startsWith("DISTINCT ") && !"MIN".equals(function) && !"MAX".equals(function)) {
+                    throw new ValueMismatchException("Cannot combine groups from several shards. " + column + " is not supported");
+                }
+
+                this.functions[i] = function;
+                if ("AVG".equals(function)) {
+                    String alias = Expressions.outputName(column);
+                    this.labels[i] = Objects.isNull(alias) ? expression : alias;
+                    this.counts[i] = this.size + extra.size();
+                    shardColumns.add("SUM(" + argument + ")");
+                    extra.add("COUNT(" + argument + ")");
+                } else {
+                    shardColumns.add(column);
+                }
+            }
+            shardColumns.addAll(extra);
+
+            // Groups not selected are read as hidden columns, so rows of different groups are not combined
+            List<Integer> hidden = new ArrayList<>();
+            for (String group : select.getGroupBy()) {
+                if (!isSelected(columns, group)) {
+                    if (group.indexOf('?') >= 0) {
+                        throw new ValueMismatchException("Cannot combine groups from several shards. GROUP BY " + group
+                                + " must be selected");
+                    }
+                    hidden.add(shardColumns.size());
+                    shardColumns.add(group);
+                }
+            }
+            this.groups = hidden.stream().mapToInt(Integer::intValue).toArray();
+
+            this.shardQuery = select.copy();
+            this.shardQuery.setColumns(shardColumns);
+            this.shardQuery.getOrderBy().clear();
+            this.shardQuery.limit(null);
+            this.shardQuery.offset(null);
+        }
+
+        private List<Object[]> merge(List<List<Row>> results) {
+            Map<List<Object>, Object[]> groups = new LinkedHashMap<>();
+
+            for (List<Row> result : results) {
+                for (Row row : result) {
+                    List<Object> key = new ArrayList<>();
+                    for (int i = 0; i < this.size; i++) {
+                        if (Objects.isNull(this.functions[i])) {
+                            key.add(row.values[i]);
+                        }
+                    }
+                    for (int group : this.groups) {
+                        key.add(row.values[group]);
+                    }
+
+                    Object[] group = groups.get(key);
+                    if (Objects.isNull(group)) {
+                        groups.put(key, row.values.clone());
+                        continue;
+                    }
+
+                    for (int i = 0; i < this.size; i++) {
+                        if (Objects.nonNull(this.functions[i])) {
+                            group[i] = combine(this.functions[i], group[i], row.values[i]);
+                            if ("AVG".equals(this.functions[i])) {
+                                group[this.counts[i]] = add(group[this.counts[i]], row.values[this.counts[i]]);
+                            }
+                        }
+                    }
+                }
+            }
+
+            List<Object[]> rows = new ArrayList<>();
+            for (Object[] group : groups.values()) {
+                Object[] values = Arrays.copyOf(group, this.size);
+                for (int i = 0; i < this.size; i++) {
+                    if ("AVG".equals(this.functions[i])) {
+                        values[i] = average(group[i], group[this.counts[i]]);
+                    }
+                }
+                rows.add(values);
+            }
+
+            return rows;
+        }
+
+        /**
+         * Checks if the GROUP BY expression is a selected column, referenced by position, alias or expression
+         */
+        private static boolean isSelected(List<String> columns, String group) {
+            String expression = group.trim();
+            if (expression.matches("\\d+")) {
+                return true;
+            }
+
+            return columns.stream().anyMatch(column -> Expressions.expression(column).equalsIgnoreCase(expression)
+                    || expression.equalsIgnoreCase(Expressions.outputName(column)) && !ANY_AGGREGATE.matcher(column).find());
+        }
+
+        /**
+         * Returns the metadata of the merged rows, without the counts added for averages and the hidden groups
+         */
+        private Row.Meta meta(Row.Meta shard) {
+            if (Objects.isNull(shard)) {
+                return null;
+            }
+
+            String[] labels = Arrays.copyOf(shard.labels, this.size);
+            int[] types = Arrays.copyOf(shard.types, this.size);
+            for (int i = 0; i < this.size; i++) {
+                if (Objects.nonNull(this.labels[i])) {
+                    labels[i] = this.labels[i];
+                    types[i] = java.sql.Types.NUMERIC;
+                }
+            }
+
+            return new Row.Meta(labels, types);
+        }
+
+        private static Object combine(String function, Object left, Object right) {
+            if (Objects.isNull(left)) {
+                return right;
+            } else if (Objects.isNull(right)) {
+                return left;
+            }
+
+            switch (function) {
+                case "MIN":
+                    return compare(left, right) <= 0 ? left : right;
+                case "MAX":
+                    return compare(left, right) >= 0 ? left : right;
+                default:
+                    return add(left, right);
+            }
+        }
+
+        private static Object add(Object left, Object right) {
+            if (Objects.isNull(left) || Objects.isNull(right)) {
+                return Objects.isNull(left) ? right : left;
+            }
+
+            if (left instanceof BigDecimal || right instanceof BigDecimal) {
+                return new BigDecimal(left.toString()).add(new BigDecimal(right.toString()));
+            } else if (left instanceof Double || left instanceof Float || right instanceof Double || right instanceof Float) {
+                return ((Number) left).doubleValue() + ((Number) right).doubleValue();
+            } else if (left instanceof Integer && right instanceof Integer) {
+                return (long) (Integer) left + (Integer) right;
+            }
+
+            return ((Number) left).longValue() + ((Number) right).longValue();
+        }
+
+        private static Object average(Object sum, Object count) {
+            if (Objects.isNull(sum) || Objects.isNull(count) || ((Number) count).longValue() == 0) {
+                return null;
+            }
+
+            return new BigDecimal(sum.toString()).divide(new BigDecimal(count.toString()), MathContext.DECIMAL64);
+        }
+    }
+
+    /**
+     * Cursor iterates the ordered rows of a shard during the merge
+     */
+    private static final class Cursor {
+        private final int shard;
+        private final List<Row> rows;
+        private int position;
+
+        private Cursor(int shard, List<Row> rows) {
+            this.shard = shard;
+            this.rows = rows;
+        }
+
+        private Row current() {
+            return this.rows.get(this.position);
+        }
+
+        private boolean advance() {
+            return ++this.position < this.rows.size();
+        }
+    }
+
+    /**
+     * Row holds the values of a row read from a shard
+     */
+    private static final class Row {
+        private final Object[] values;
+        private final Meta meta;
+
+        private Row(Object[] values, Meta meta) {
+            this.values = values;
+            this.meta = meta;
+        }
+
+        private static final class Meta {
+            private final String[] labels;
+            private final int[] types;
+
+            private Meta(String[] labels, int[] types) {
+                this.labels = labels;
+                this.types = types;
+            }
+        }
+    }
+
+    /**
+     * RowReader reads all the columns of a row, reading the metadata once for every ResultSet. A reader is used by a
+     * single shard execution
+     */
+    private static final class RowReader implements RowMapper<Row> {
+        private Current current;
+
+        @Override
+        public Row map(ResultSet rs) throws SQLException {
+            Current resolved = this.current;
+            if (Objects.isNull(resolved) || resolved.rs != rs) {
+                ResultSetMetaData metadata = rs.getMetaData();
+                String[] labels = new String[metadata.getColumnCount()];
+                int[] types = new int[labels.length];
+                for (int i = 0; i < labels.length; i++) {
+                    labels[i] = metadata.getColumnLabel(i + 1);
+                    types[i] = metadata.getColumnType(i + 1);
+                }
+
+                resolved = new Current(rs, new Row.Meta(labels, types));
+                this.current = resolved;
+            }
+
+            Object[] values = new Object[resolved.meta.labels.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getObject(i + 1);
+            }
+
+            return new Row(values, resolved.meta);
+        }
+
+        private static final class Current {
+            private final ResultSet rs;
+            private final Row.Meta meta;
+
+            private Current(ResultSet rs, Row.Meta meta) {
+                this.rs = rs;
+                this.meta = meta;
+            }
+        }
+    }
+}
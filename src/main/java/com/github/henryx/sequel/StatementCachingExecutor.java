@@ -0,0 +1,264 @@
+package com.github.henryx.sequel;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * StatementCachingExecutor keeps the prepared statements of compiled queries open, in a cache for every physical
+ * connection, so executing a query again on the same connection skips the prepare round trip. Statements are looked
+ * up by the identity of the compiled query, without hashing the SQL. The least recently used statement is closed
+ * when the cache of a connection is full.
+ * <p>
+ * Connections of a pool are unwrapped to the physical connection, and statements are prepared on it: pools close the
+ * statements prepared on their connections when they are released, while the physical connection stays open in the
+ * pool. The physical connection must not be shared by concurrent executions. Without a pool, or with a pool whose
+ * connections cannot be unwrapped, statements are closed with their connection and every execution prepares them again.
+ * Registered queries are prepared when a physical connection is used for the first time
+ */
+public class StatementCachingExecutor extends Executor {
+    private final int capacity;
+    private final Map<Connection, Map<CompiledQuery, PreparedStatement>> statements;
+    private final List<CompiledQuery> registered;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates an executor
+     *
+     * @param dataSource the DataSource
+     * @param capacity   the maximum number of prepared statements kept for every connection
+     */
+    public StatementCachingExecutor(DataSource dataSource, int capacity) {
+        super(dataSource);
+
+        if (capacity <= 0) {
+            throw new ValueMismatchException("Cannot build statement cache. Capacity must be greater than zero");
+        }
+
+        this.capacity = capacity;
+        this.statements = new IdentityHashMap<>();
+        this.registered = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Registers queries prepared on every connection used for the first time
+     *
+     * @param queries the queries
+     * @return a builder instance of the class
+     */
+    public StatementCachingExecutor register(CompiledQuery... queries) {
+        this.registered.addAll(Arrays.asList(queries));
+
+        return this;
+    }
+
+    /**
+     * Executes the query and maps every returned row
+     *
+     * @param query  the compiled query
+     * @param mapper the mapper used for every row
+     * @param params values bound to the query parameters
+     * @param <T>    the type of the mapped rows
+     * @return the list of mapped rows
+     * @throws SQLException if the query fails
+     */
+    public <T> List<T> query(CompiledQuery query, RowMapper<T> mapper, Object... params) throws SQLException {
+        Connection connection = this.getConnection(false);
+        try {
+            PreparedStatement statement = this.prepare(connection, query);
+            try {
+                bind(statement, params);
+
+                List<T> rows = new ArrayList<>();
+                try (ResultSet rs = statement.executeQuery()) {
+                    RowMapper<T> bound = RowMappers.bind(mapper, rs);
+                    while (rs.next()) {
+                        rows.add(bound.map(rs));
+                    }
+                }
+                statement.clearParameters();
+
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                this.discard(connection, query);
+                throw e;
+            }
+        } finally {
+            this.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Executes an INSERT, UPDATE or DELETE statement
+     *
+     * @param query  the compiled statement
+     * @param params values bound to the statement parameters
+     * @return the number of changed rows
+     * @throws SQLException if the statement fails
+     */
+    public int update(CompiledQuery query, Object... params) throws SQLException {
+        Connection connection = this.getConnection(true);
+        try {
+            PreparedStatement statement = this.prepare(connection, query);
+            try {
+                bind(statement, params);
+                int count = statement.executeUpdate();
+                statement.clearParameters();
+
+                return count;
+            } catch (SQLException | RuntimeException e) {
+                this.discard(connection, query);
+                throw e;
+            }
+        } finally {
+            this.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Returns the number of executions that found the statement prepared
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of executions that prepared the statement
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of statements closed because the cache of the connection was full
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    private PreparedStatement prepare(Connection connection, CompiledQuery query) throws SQLException {
+        Connection physical = physical(connection);
+        Map<CompiledQuery, PreparedStatement> cache = this.cache(physical);
+
+        synchronized (cache) {
+            PreparedStatement statement = cache.get(query);
+            if (Objects.nonNull(statement) && !statement.isClosed()) {
+                synchronized (this) {
+                    this.hits++;
+                }
+                return statement;
+            }
+
+            synchronized (this) {
+                this.misses++;
+            }
+            statement = physical.prepareStatement(query.getSql());
+            cache.put(query, statement);
+
+            return statement;
+        }
+    }
+
+    /**
+     * Returns the physical connection wrapped by a connection of a pool
+     */
+    private static Connection physical(Connection connection) throws SQLException {
+        return connection.isWrapperFor(Connection.class) ? connection.unwrap(Connection.class) : connection;
+    }
+
+    /**
+     * Returns the cache of the physical connection, preparing the registered queries when the connection is new
+     */
+    private Map<CompiledQuery, PreparedStatement> cache(Connection physical) throws SQLException {
+        Map<CompiledQuery, PreparedStatement> cache;
+        synchronized (this.statements) {
+            cache = this.statements.get(physical);
+            if (Objects.nonNull(cache)) {
+                return cache;
+            }
+
+            // Statements reference their connection, so caches of closed connections are removed explicitly
+            this.statements.keySet().removeIf(StatementCachingExecutor::isClosed);
+
+            cache = Collections.synchronizedMap(new Statements());
+            this.statements.put(physical, cache);
+        }
+
+        synchronized (cache) {
+            for (CompiledQuery query : this.registered) {
+                if (cache.size() < this.capacity) {
+                    cache.put(query, physical.prepareStatement(query.getSql()));
+                }
+            }
+        }
+
+        return cache;
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private void discard(Connection connection, CompiledQuery query) {
+        try {
+            PreparedStatement statement = this.cache(physical(connection)).remove(query);
+            if (Objects.nonNull(statement)) {
+                statement.close();
+            }
+        } catch (SQLException ignored) {
+            // The statement is already unusable
+        }
+    }
+
+    /**
+     * Statements is the cache of a connection, ordered by access. Compiled queries don't override equals and hashCode,
+     * so they are compared by identity
+     */
+    @SuppressWarnings("serial")
+    private final class Statements extends LinkedHashMap<CompiledQuery, PreparedStatement> {
+        private Statements() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CompiledQuery, PreparedStatement> eldest) {
+            if (this.size() <= StatementCachingExecutor.this.capacity) {
+                return false;
+            }
+
+            try {
+                eldest.getValue().close();
+            } catch (SQLException ignored) {
+                // An evicted statement is not used anymore
+            }
+            synchronized (StatementCachingExecutor.this) {
+                StatementCachingExecutor.this.evictions++;
+            }
+
+            return true;
+        }
+    }
+}
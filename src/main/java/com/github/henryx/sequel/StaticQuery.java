@@ -0,0 +1,25 @@
+package com.github.henryx.sequel;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * StaticQuery marks a field initialized with a static query, like
+ * {@code @StaticQuery static final Sequel.Select FIND = Sequel.from("t").select("a").where(Criterion.eq("b", "?"));}
+ * <p>
+ * The annotation processor of the {@code sequel-processor} artifact renders the query at compile time and generates, in
+ * the same package, the class {@code <Enclosing>Queries} holding for every field:
+ * <ul>
+ * <li>{@code FIELD}: the SQL, as a compile time constant</li>
+ * <li>{@code FIELD_PARAMETERS}: the number of positional parameters</li>
+ * <li>{@code FIELD_QUERY}: the compiled query</li>
+ * </ul>
+ * The initializer can contain only calls to the builders of the library with literal arguments, enum constants and
+ * string concatenations
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface StaticQuery {
+}
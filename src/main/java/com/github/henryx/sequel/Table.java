@@ -0,0 +1,306 @@
+package com.github.henryx.sequel;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Table describes a table with its columns and keys. Identifiers are quoted when needed and rendered once, so builders
+ * receiving tables and columns copy the rendered text instead of building it again. Identifiers are quoted with the
+ * quote characters of the dialect, or of the database for tables read from its metadata, when they are not simple SQL
+ * identifiers or are reserved words. Column names read from the metadata are also quoted when their case differs from
+ * the case of unquoted identifiers. Keys let the builders know when a join matches at most one row
+ */
+public final class Table {
+    private final String name;
+    private final String alias;
+    private final Quoting quoting;
+    private final String sql;
+    private final String qualifier;
+    private final Map<String, Column> columns;
+    private final List<String> primaryKey;
+    private final List<List<String>> uniqueKeys;
+
+    /**
+     * Creates a table
+     *
+     * @param name the table name, optionally qualified by the schema
+     */
+    public Table(String name) {
+        this(name, null, Quoting.STANDARD);
+    }
+
+    /**
+     * Creates a table with identifiers quoted for the dialect
+     *
+     * @param name    the table name, optionally qualified by the schema
+     * @param dialect the dialect of the database
+     */
+    public Table(String name, Dialect dialect) {
+        this(name, null, Quoting.of(dialect));
+    }
+
+    private Table(String name, String alias, Quoting quoting) {
+        if (Objects.isNull(name) || name.trim().isEmpty()) {
+            throw new ValueMismatchException("Cannot build table. Name is empty");
+        }
+
+        this.name = name;
+        this.alias = alias;
+        this.quoting = quoting;
+
+        String quoted = Arrays.stream(name.split("\\.")).map(part -> quoting.quote(part, false)).collect(Collectors.joining("."));
+        this.qualifier = (Objects.isNull(alias) ? quoted : quoting.quote(alias, false)).intern();
+        this.sql = (Objects.isNull(alias) ? quoted : quoted + " " + this.qualifier).intern();
+        this.columns = new LinkedHashMap<>();
+        this.primaryKey = new ArrayList<>();
+        this.uniqueKeys = new ArrayList<>();
+    }
+
+    /**
+     * Adds a nullable column to the table
+     *
+     * @param name the column name
+     * @param type the SQL type, as defined in {@link java.sql.Types}
+     * @return a builder instance of the class
+     */
+    public Table column(String name, int type) {
+        return this.column(name, type, true);
+    }
+
+    /**
+     * Adds a column to the table
+     *
+     * @param name     the column name
+     * @param type     the SQL type, as defined in {@link java.sql.Types}
+     * @param nullable true if the column accepts NULL
+     * @return a builder instance of the class
+     */
+    public Table column(String name, int type, boolean nullable) {
+        return this.column(name, type, nullable, this.quoting.quote(name, false));
+    }
+
+    private Table column(String name, int type, boolean nullable, String quoted) {
+        this.columns.put(name.toLowerCase(Locale.ROOT), new Column(name, type, nullable, this.qualifier + "." + quoted));
+
+        return this;
+    }
+
+    /**
+     * Sets the primary key of the table
+     *
+     * @param columns the key columns
+     * @return a builder instance of the class
+     */
+    public Table primaryKey(String... columns) {
+        this.primaryKey.clear();
+        this.primaryKey.addAll(this.names(columns));
+
+        return this;
+    }
+
+    /**
+     * Adds a unique key to the table
+     *
+     * @param columns the key columns
+     * @return a builder instance of the class
+     */
+    public Table unique(String... columns) {
+        this.uniqueKeys.add(this.names(columns));
+
+        return this;
+    }
+
+    /**
+     * Returns the table with an alias. Columns of the returned table are qualified by the alias
+     *
+     * @param alias the alias
+     * @return the aliased table
+     */
+    public Table as(String alias) {
+        Table aliased = new Table(this.name, alias, this.quoting);
+        this.columns.values().forEach(column -> aliased.column(column.getName(), column.getType(), column.isNullable(),
+                column.getSql().substring(this.qualifier.length() + 1)));
+        aliased.primaryKey.addAll(this.primaryKey);
+        this.uniqueKeys.forEach(key -> aliased.uniqueKeys.add(new ArrayList<>(key)));
+
+        return aliased;
+    }
+
+    /**
+     * Returns a column of the table
+     *
+     * @param name the column name, compared ignoring case
+     * @return the column
+     */
+    public Column get(String name) {
+        Column column = this.columns.get(name.toLowerCase(Locale.ROOT));
+        if (Objects.isNull(column)) {
+            throw new ValueMismatchException("Column " + name + " is not defined in table " + this.name);
+        }
+
+        return column;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getAlias() {
+        return this.alias;
+    }
+
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(new ArrayList<>(this.columns.values()));
+    }
+
+    public List<String> getPrimaryKey() {
+        return Collections.unmodifiableList(this.primaryKey);
+    }
+
+    public List<List<String>> getUniqueKeys() {
+        return Collections.unmodifiableList(this.uniqueKeys);
+    }
+
+    /**
+     * getSql returns the table as used in FROM and JOIN clauses, with its alias
+     *
+     * @return a String that represents the table
+     */
+    public String getSql() {
+        return this.sql;
+    }
+
+    @Override
+    public String toString() {
+        return this.sql;
+    }
+
+    /**
+     * Returns the name used to qualify the columns, that is the alias or the table name
+     */
+    String getQualifier() {
+        return this.qualifier;
+    }
+
+    /**
+     * Checks if the columns contain the primary key or a unique key
+     */
+    boolean isKey(Collection<String> columns) {
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        names.addAll(columns);
+
+        List<List<String>> keys = new ArrayList<>(this.uniqueKeys);
+        keys.add(this.primaryKey);
+
+        return keys.stream().anyMatch(key -> !key.isEmpty() && names.containsAll(key));
+    }
+
+    /**
+     * Checks if the column is defined in the table
+     */
+    boolean hasColumn(String column) {
+        return this.columns.containsKey(column.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Checks if the column is declared NOT NULL or is part of the primary key
+     */
+    boolean isNotNull(String column) {
+        Column described = this.columns.get(column.toLowerCase(Locale.ROOT));
+        return (Objects.nonNull(described) && !described.isNullable())
+                || this.primaryKey.stream().anyMatch(key -> key.equalsIgnoreCase(column));
+    }
+
+    /**
+     * Reads the columns and the keys of a table from the database metadata
+     *
+     * @param connection the connection
+     * @param schema     the schema, or null to search in all schemas
+     * @param name       the table name
+     * @return the table
+     * @throws SQLException if the metadata cannot be read or the table does not exist
+     */
+    public static Table read(Connection connection, String schema, String name) throws SQLException {
+        DatabaseMetaData metadata = connection.getMetaData();
+        String storedSchema = stored(metadata, schema);
+        String storedName = stored(metadata, name);
+
+        Quoting quoting = Quoting.of(metadata);
+        Table table = new Table(Objects.isNull(schema) ? name : schema + "." + name, null, quoting);
+        try (ResultSet rs = metadata.getColumns(null, storedSchema, storedName, null)) {
+            while (rs.next()) {
+                String column = rs.getString("COLUMN_NAME");
+                table.column(column, rs.getInt("DATA_TYPE"), rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls,
+                        quoting.quote(column, true));
+            }
+        }
+
+        if (table.columns.isEmpty()) {
+            throw new SQLException("Table " + name + " not found");
+        }
+
+        Map<Short, String> primaryKey = new TreeMap<>();
+        try (ResultSet rs = metadata.getPrimaryKeys(null, storedSchema, storedName)) {
+            while (rs.next()) {
+                primaryKey.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+            }
+        }
+        table.primaryKey.addAll(primaryKey.values());
+
+        Map<String, Map<Short, String>> indexes = new LinkedHashMap<>();
+        try (ResultSet rs = metadata.getIndexInfo(null, storedSchema, storedName, true, true)) {
+            while (rs.next()) {
+                String column = rs.getString("COLUMN_NAME");
+                if (Objects.nonNull(column) && !rs.getBoolean("NON_UNIQUE")) {
+                    indexes.computeIfAbsent(rs.getString("INDEX_NAME"), index -> new TreeMap<>())
+                            .put(rs.getShort("ORDINAL_POSITION"), column);
+                }
+            }
+        }
+        indexes.values().stream()
+                .map(index -> new ArrayList<>(index.values()))
+                .filter(key -> !key.equals(table.primaryKey))
+                .forEach(table.uniqueKeys::add);
+
+        return table;
+    }
+
+    private List<String> names(String... columns) {
+        List<String> names = new ArrayList<>();
+        for (String column : columns) {
+            names.add(this.get(column).getName());
+        }
+
+        return names;
+    }
+
+    /**
+     * Returns the identifier as stored by the database, which converts unquoted identifiers to upper or lower case
+     */
+    static String stored(DatabaseMetaData metadata, String identifier) throws SQLException {
+        if (Objects.isNull(identifier)) {
+            return null;
+        } else if (metadata.storesUpperCaseIdentifiers()) {
+            return identifier.toUpperCase(Locale.ROOT);
+        } else if (metadata.storesLowerCaseIdentifiers()) {
+            return identifier.toLowerCase(Locale.ROOT);
+        }
+
+        return identifier;
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.henryx.sequel;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * TableSample class reads a random sample of the rows of a table used in FROM clause, instead of the whole table.
+ * Samples are rendered as TABLESAMPLE clause for PostgreSQL, SQL Server and the standard dialect and as SAMPLE clause
+ * for Oracle. Dialects without sampling (like MySQL, SQLite and H2) drop the sample and read the whole table
+ */
+public class TableSample {
+    private enum Method {
+        SYSTEM,
+        BERNOULLI
+    }
+
+    private final Method method;
+    private final BigDecimal percent;
+    private Long seed;
+
+    private TableSample(Method method, double percent) {
+        if (Double.isNaN(percent) || percent <= 0 || percent > 100) {
+            throw new ValueMismatchException("Cannot build table sample. Percentage must be greater than 0 and not greater than 100");
+        }
+
+        this.method = method;
+        this.percent = BigDecimal.valueOf(percent).stripTrailingZeros();
+    }
+
+    /**
+     * System samples whole data pages, so it is faster but less random than a row sample
+     *
+     * @param percent the percentage of the table to read
+     * @return a builder instance of the class
+     */
+    public static TableSample system(double percent) {
+        return new TableSample(Method.SYSTEM, percent);
+    }
+
+    /**
+     * Bernoulli samples single rows, every row having the same probability to be read. SQL Server samples only pages,
+     * so it renders a system sample
+     *
+     * @param percent the percentage of the table rows to read
+     * @return a builder instance of the class
+     */
+    public static TableSample bernoulli(double percent) {
+        return new TableSample(Method.BERNOULLI, percent);
+    }
+
+    /**
+     * Repeatable sets the seed of the sample, so that repeated queries read the same rows while the table is not changed
+     *
+     * @param seed the seed
+     * @return a builder instance of the class
+     */
+    public TableSample repeatable(long seed) {
+        this.seed = seed;
+
+        return this;
+    }
+
+    /**
+     * Renders the sample of the table expression, or the table expression alone if the dialect doesn't support
+     * sampling. Oracle places the sample between the table name and the alias, and doesn't accept a sample of the
+     * whole table
+     */
+    String render(String table, Dialect dialect) {
+        String percent = this.percent.toPlainString();
+        String seed = Objects.isNull(this.seed) ? "" : Long.toString(this.seed);
+
+        switch (dialect) {
+            case STANDARD:
+            case POSTGRESQL:
+                return table + " TABLESAMPLE " + this.method + " (" + percent + ")"
+                        + (seed.isEmpty() ? "" : " REPEATABLE (" + seed + ")");
+            case SQLSERVER:
+                return table + " TABLESAMPLE SYSTEM (" + percent + " PERCENT)"
+                        + (seed.isEmpty() ? "" : " REPEATABLE (" + seed + ")");
+            case ORACLE:
+                if (this.percent.compareTo(BigDecimal.valueOf(100)) == 0) {
+                    return table;
+                }
+
+                String name = Expressions.table(table);
+                String alias = Expressions.alias(table);
+                String sample = name + (Objects.equals(this.method, Method.SYSTEM) ? " SAMPLE BLOCK (" : " SAMPLE (")
+                        + percent + ")" + (seed.isEmpty() ? "" : " SEED (" + seed + ")");
+
+                return alias.equals(name) ? sample : sample + " " + alias;
+            default:
+                return table;
+        }
+    }
+}
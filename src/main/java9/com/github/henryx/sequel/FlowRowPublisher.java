@@ -0,0 +1,66 @@
+package com.github.henryx.sequel;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+/**
+ * FlowRowPublisher adapts a {@link RowPublisher} to {@code java.util.concurrent.Flow}, for callers on Java 9 or greater.
+ * Requests and cancellations of the Flow subscription are forwarded to the cursor of the query unchanged
+ *
+ * @param <T> the type of the mapped rows
+ */
+public final class FlowRowPublisher<T> implements Flow.Publisher<T> {
+    private final RowPublisher<T> publisher;
+
+    private FlowRowPublisher(RowPublisher<T> publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * Returns the Flow publisher of the rows
+     *
+     * @param publisher the publisher of the rows
+     * @param <T>       the type of the mapped rows
+     * @return the Flow publisher
+     */
+    public static <T> FlowRowPublisher<T> of(RowPublisher<T> publisher) {
+        return new FlowRowPublisher<>(Objects.requireNonNull(publisher, "publisher"));
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+
+        this.publisher.subscribe(new RowPublisher.Subscriber<T>() {
+            @Override
+            public void onSubscribe(RowPublisher.Subscription subscription) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                        subscription.request(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        subscription.cancel();
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(T item) {
+                subscriber.onNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.henryx.sequel;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ApproximateCountTest {
+    @Rule
+    public final H2Database database = new H2Database("approximate");
+
+    @Before
+    public void setUp() throws Exception {
+        this.database.execute("CREATE TABLE test1 (t1 INTEGER)",
+                "INSERT INTO test1 VALUES (1), (2), (3)");
+    }
+
+    @Test
+    public void testWithoutStatistics() throws Exception {
+        Assert.assertNull(new Executor(this.database.getDataSource()).approximateCount("test1", Dialect.H2));
+        Assert.assertNull(new Executor(this.database.getDataSource()).approximateCount("test1", Dialect.SQLITE));
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        StatisticsExecutor executor = new StatisticsExecutor(this.database.getDataSource(), 1000L);
+
+        Assert.assertEquals(Long.valueOf(1000), executor.approximateCount("app.test1", Dialect.MYSQL));
+        Assert.assertTrue(executor.sql.contains("information_schema.tables"));
+        Assert.assertEquals(Arrays.asList("app", "test1"), executor.params);
+
+        Assert.assertEquals(Long.valueOf(1000), executor.approximateCount("test1", Dialect.MYSQL));
+        Assert.assertEquals(Arrays.asList(null, "test1"), executor.params);
+
+        Assert.assertEquals(Long.valueOf(1000), executor.approximateCount("app.test1", Dialect.POSTGRESQL));
+        Assert.assertTrue(executor.sql.contains("pg_class WHERE oid = to_regclass(?)"));
+        Assert.assertEquals(Collections.singletonList("app.test1"), executor.params);
+
+        Assert.assertEquals(Long.valueOf(1000), executor.approximateCount("dbo.test1", Dialect.SQLSERVER));
+        Assert.assertTrue(executor.sql.contains("sys.partitions WHERE object_id = OBJECT_ID(?)"));
+        Assert.assertEquals(Collections.singletonList("dbo.test1"), executor.params);
+
+        Assert.assertEquals(Long.valueOf(1000), executor.approximateCount("app.test1", Dialect.ORACLE));
+        Assert.assertTrue(executor.sql.contains("all_tables"));
+        Assert.assertEquals(Arrays.asList("app", "test1"), executor.params);
+    }
+
+    @Test
+    public void testUnknownStatistics() throws Exception {
+        // Statistics not collected yet are NULL, or -1 on PostgreSQL, and missing tables return no rows
+        JdbcDataSource ds = this.database.getDataSource();
+        Assert.assertNull(new StatisticsExecutor(ds, (Long) null).approximateCount("test1", Dialect.ORACLE));
+        Assert.assertNull(new StatisticsExecutor(ds, -1L).approximateCount("test1", Dialect.POSTGRESQL));
+        Assert.assertNull(new StatisticsExecutor(ds).approximateCount("test1", Dialect.MYSQL));
+        Assert.assertEquals(Long.valueOf(0), new StatisticsExecutor(ds, 0L).approximateCount("test1", Dialect.SQLSERVER));
+
+        String sql = new StatisticsExecutor(ds, 0L).statistics(Dialect.POSTGRESQL);
+        Assert.assertTrue(sql.contains("reltuples = 0 AND relpages = 0 AND current_setting('server_version_num')::int < 140000"));
+    }
+
+    /**
+     * StatisticsExecutor returns the passed rows for the statistics query, recording the query and its parameters
+     */
+    private static final class StatisticsExecutor extends Executor {
+        private final List<Long> rows;
+        private String sql;
+        private List<Object> params;
+
+        private StatisticsExecutor(JdbcDataSource ds, Long... rows) {
+            super(ds);
+            this.rows = Arrays.asList(rows);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) {
+            this.sql = sql;
+            this.params = Arrays.asList(params);
+
+            return (List<T>) new ArrayList<>(this.rows);
+        }
+
+        private String statistics(Dialect dialect) throws SQLException {
+            this.approximateCount("test1", dialect);
+
+            return this.sql;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncExecutorTest {
+    @Rule
+    public final H2Database database = new H2Database("async");
+
+    @Before
+    public void setUp() throws Exception {
+        this.database.execute("CREATE TABLE test1 (t1 INT)",
+                "INSERT INTO test1 SELECT x FROM SYSTEM_RANGE(1, 30)");
+    }
+
+    @Test
+    public void testFanOut() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        try (AsyncExecutor async = new AsyncExecutor(this.counting(active, peak), 3)) {
+            Sequel.Select q = Sequel.from("test1").select("t1").where(Criterion.eq("t1", "?"));
+            List<CompletableFuture<List<Integer>>> futures = new ArrayList<>();
+            for (int i = 1; i <= 30; i++) {
+                futures.add(async.query(q, rs -> {
+                    sleep();
+                    return rs.getInt(1);
+                }, i));
+            }
+
+            List<List<Integer>> results = AsyncExecutor.allOf(futures).get();
+            Assert.assertEquals(30, results.size());
+            Assert.assertEquals(Arrays.asList(7), results.get(6));
+        }
+
+        Assert.assertTrue(peak.get() <= 3);
+    }
+
+    @Test
+    public void testSharedPermits() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Semaphore permits = new Semaphore(2, true);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        try (AsyncExecutor first = new AsyncExecutor(this.counting(active, peak), permits, pool);
+             AsyncExecutor second = new AsyncExecutor(this.counting(active, peak), permits, pool)) {
+            Sequel.Select q = Sequel.from("test1").select("t1").where(Criterion.eq("t1", "?"));
+            List<CompletableFuture<List<Integer>>> futures = new ArrayList<>();
+            for (int i = 1; i <= 30; i++) {
+                AsyncExecutor async = i % 2 == 0 ? first : second;
+                futures.add(async.query(q, rs -> {
+                    sleep();
+                    return rs.getInt(1);
+                }, i));
+            }
+
+            Assert.assertEquals(30, AsyncExecutor.allOf(futures).get().size());
+        } finally {
+            pool.shutdown();
+        }
+
+        Assert.assertTrue(peak.get() <= 2);
+        Assert.assertEquals(2, permits.availablePermits());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        try (AsyncExecutor async = new AsyncExecutor(new Executor(this.database.getDataSource()), 2)) {
+            CompletableFuture<List<Integer>> ok = async.query(Sequel.from("test1").select("t1"), rs -> rs.getInt(1));
+            CompletableFuture<List<Integer>> failed = async.query(Sequel.from("missing").select("t1"), rs -> rs.getInt(1));
+
+            AsyncExecutor.allOf(Arrays.asList(ok, failed)).join();
+            Assert.fail("Expected failure");
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof SQLException);
+        }
+    }
+
+    private Executor counting(AtomicInteger active, AtomicInteger peak) {
+        return new Executor(this.database.getDataSource()) {
+            @Override
+            protected Connection getConnection(boolean write) throws SQLException {
+                peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                return super.getConnection(write);
+            }
+
+            @Override
+            protected void releaseConnection(Connection connection) throws SQLException {
+                active.decrementAndGet();
+                super.releaseConnection(connection);
+            }
+        };
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class CachingExecutorTest {
+    private static final RowMapper<Integer> FIRST = rs -> rs.getInt(1);
+
+    @Rule
+    public final H2Database database = new H2Database("cache");
+
+    @Before
+    public void setUp() throws Exception {
+        this.database.execute("CREATE TABLE test1 (t1 INT, t2 INT)",
+                "CREATE TABLE test2 (t1 INT)",
+                "INSERT INTO test1 VALUES (1, 10), (2, 20)",
+                "INSERT INTO test2 VALUES (1)");
+    }
+
+    @Test
+    public void testInvalidationQuotedAndQualified() throws Exception {
+        this.database.execute("CREATE TABLE \"order\" (t1 INT)", "INSERT INTO \"order\" VALUES (1)");
+
+        CachingExecutor executor = new CachingExecutor(this.database.getDataSource(),
+                new QueryCache(10, 0, TimeUnit.SECONDS, EvictionPolicy.LRU));
+        Sequel.Select quoted = Sequel.from("\"order\"").select("t1");
+        Sequel.Select qualified = Sequel.from("public.test1").select("t1").orderBy("t1");
+
+        Assert.assertEquals(Arrays.asList(1), executor.query(quoted, FIRST));
+        executor.update("UPDATE \"order\" SET t1 = ?", 2);
+        Assert.assertEquals(Arrays.asList(2), executor.query(quoted, FIRST));
+
+        Assert.assertEquals(Arrays.asList(1, 2), executor.query(qualified, FIRST));
+        executor.update("DELETE FROM test1 WHERE t1 = ?", 2);
+        Assert.assertEquals(Arrays.asList(1), executor.query(qualified, FIRST));
+
+        executor.query(Sequel.from("test1").select("t1"), FIRST);
+        executor.update("UPDATE PUBLIC.\"TEST1\" SET t2 = ?", 0);
+        Assert.assertEquals(1, executor.getCache().size());
+    }
+
+    @Test
+    public void testHit() throws Exception {
+        CachingExecutor executor = new CachingExecutor(this.database.getDataSource(),
+                new QueryCache(10, 0, TimeUnit.SECONDS, EvictionPolicy.LRU));
+        Sequel.Select q = Sequel.from("test1").select("t1").where(Criterion.gt("t2", "?")).orderBy("t1");
+
+        Assert.assertEquals(Arrays.asList(1, 2), executor.query(q, FIRST, 5));
+        Assert.assertEquals(Arrays.asList(1, 2), executor.query(q, FIRST, 5));
+        Assert.assertEquals(Arrays.asList(2), executor.query(q, FIRST, 15));
+
+        Assert.assertEquals(1, executor.getCache().getHits());
+        Assert.assertEquals(2, executor.getCache().getMisses());
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        CachingExecutor executor = new CachingExecutor(this.database.getDataSource(),
+                new QueryCache(10, 0, TimeUnit.SECONDS, EvictionPolicy.LRU));
+        Sequel.Select q1 = Sequel.from("test1 a").select("a.t1")
+                .join(Join.join("test2 b").on(Criterion.eq("a.t1", "b.t1")));
+        Sequel.Select q2 = Sequel.from("test1").select("t1").orderBy("t1");
+
+        Assert.assertEquals(Arrays.asList(1), executor.query(q1, FIRST));
+        Assert.assertEquals(Arrays.asList(1, 2), executor.query(q2, FIRST));
+
+        executor.update(Sequel.into("test2").insert("?"), 2);
+        Assert.assertEquals(1, executor.getCache().size());
+        Assert.assertEquals(Arrays.asList(1, 2), executor.query(q1, FIRST));
+
+        executor.update("DELETE FROM test1 WHERE t1 = ?", 2);
+        Assert.assertEquals(0, executor.getCache().size());
+        Assert.assertEquals(Arrays.asList(1), executor.query(q2, FIRST));
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        QueryCache cache = new QueryCache(2, 0, TimeUnit.SECONDS, EvictionPolicy.LFU);
+        CachingExecutor executor = new CachingExecutor(this.database.getDataSource(), cache);
+        Sequel.Select q = Sequel.from("test1").select("t1").where(Criterion.eq("t1", "?"));
+
+        executor.query(q, FIRST, 1);
+        executor.query(q, FIRST, 1);
+        executor.query(q, FIRST, 2);
+        executor.query(q, FIRST, 3);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictions());
+
+        // The most frequently used result is kept
+        executor.query(q, FIRST, 1);
+        Assert.assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        QueryCache cache = new QueryCache(2, 1, TimeUnit.MILLISECONDS, EvictionPolicy.LRU);
+        CachingExecutor executor = new CachingExecutor(this.database.getDataSource(), cache);
+        Sequel.Select q = Sequel.from("test1").select("t1").where(Criterion.eq("t1", "1"));
+
+        executor.query(q, FIRST);
+        Thread.sleep(5);
+        List<Integer> rows = executor.query(q, FIRST);
+
+        Assert.assertEquals(Arrays.asList(1), rows);
+        Assert.assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testTables() {
+        Sequel.Select q = Sequel.from(Sequel.from("Test1 a").select("t1"), "d")
+                .select("d.t1")
+                .join(Join.join("test2 b").on(Criterion.in("b.t1", Sequel.from("test3").select("t1"))))
+                .where(Criterion.exists(Sequel.from("test4").select("1")))
+                .union(Sequel.from("test5").select("t1"));
+
+        Assert.assertEquals(Arrays.asList("test1", "test2", "test3", "test4", "test5"), Arrays.asList(q.getTables().toArray()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+
+public class ColumnarResultTest {
+    @Rule
+    public final H2Database database = new H2Database("columnar");
+    private Executor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        this.database.execute("CREATE TABLE test1 (t1 INT, t2 DOUBLE)",
+                "INSERT INTO test1 SELECT MOD(x, 3), CASE WHEN x = 5 THEN NULL ELSE x END FROM SYSTEM_RANGE(1, 3000)");
+
+        this.executor = new Executor(this.database.getDataSource());
+    }
+
+    @Test
+    public void testHeap() throws Exception {
+        ColumnarResult result = this.executor.queryColumnar(Sequel.from("test1").select("t1", "t2").orderBy("t2"), false);
+
+        Assert.assertEquals(3000, result.getRowCount());
+        ColumnVector t1 = result.getColumn("t1");
+        ColumnVector t2 = result.getColumn(1);
+        Assert.assertEquals(ColumnVector.Type.INT, t1.getType());
+        Assert.assertEquals(ColumnVector.Type.DOUBLE, t2.getType());
+
+        // NULL sorts first
+        Assert.assertTrue(t2.isNull(0));
+        Assert.assertEquals(0, t2.getDouble(0), 0);
+        Assert.assertFalse(t2.isNull(1));
+        Assert.assertEquals(1, t2.getDouble(1), 0);
+        Assert.assertEquals(1, t1.getInt(1));
+        Assert.assertEquals(3000, t2.getDouble(2999), 0);
+
+        // Capacity grows from 1024 to 4096 values
+        Assert.assertEquals(4096 * 4 + 64 * 8 + 4096 * 8 + 64 * 8, result.memoryUsage());
+    }
+
+    @Test
+    public void testDirect() throws Exception {
+        Sequel.Select q = Sequel.from("test1")
+                .select("t1", Functions.count("*") + " AS n", Functions.sum("t2") + " AS total")
+                .groupBy("t1")
+                .orderBy("t1");
+        ColumnarResult result = this.executor.queryColumnar(q, true);
+
+        Assert.assertEquals(3, result.getRowCount());
+        ColumnVector n = result.getColumn("n");
+        Assert.assertTrue(n.isDirect());
+        Assert.assertEquals(ColumnVector.Type.LONG, n.getType());
+        Assert.assertEquals(1000, n.getLong(0));
+        Assert.assertEquals(1500500 - 5, result.getColumn("total").getDouble(2), 0);
+
+        ByteBuffer buffer = n.getBuffer();
+        Assert.assertEquals(3 * Long.BYTES, buffer.remaining());
+        Assert.assertEquals(1000, buffer.getLong(Long.BYTES));
+    }
+
+    @Test
+    public void testGrow() {
+        Assert.assertEquals(2048, ColumnVector.grow(1024, Long.BYTES, true, "t1"));
+        Assert.assertEquals(Integer.MAX_VALUE / Long.BYTES, ColumnVector.grow(1 << 27, Long.BYTES, true, "t1"));
+        Assert.assertEquals(Integer.MAX_VALUE - 8, ColumnVector.grow(1 << 30, Long.BYTES, false, "t1"));
+
+        try {
+            ColumnVector.grow(Integer.MAX_VALUE / Long.BYTES, Long.BYTES, true, "t1");
+            Assert.fail("Capacity grew beyond the buffer limit");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Cannot store more than 268435455 values in column t1", e.getMessage());
+        }
+    }
+
+    @Test(expected = SQLException.class)
+    public void testNotNumeric() throws Exception {
+        this.executor.queryColumnar(Sequel.from("test1").select("CAST(t1 AS VARCHAR)"), false);
+    }
+}
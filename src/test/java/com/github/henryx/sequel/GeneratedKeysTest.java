@@ -0,0 +1,77 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class GeneratedKeysTest {
+    @Rule
+    public final H2Database database = new H2Database("keys");
+    private Executor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        this.executor = new Executor(this.database.getDataSource());
+
+        this.database.execute("CREATE TABLE test1 (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, t1 VARCHAR(10))");
+    }
+
+    @Test
+    public void testInsert() throws Exception {
+        Sequel.Insert insert = Sequel.into("test1").columns("t1").insert("?").returning("id");
+
+        Assert.assertEquals(Arrays.asList(1L), this.executor.insert(insert, rs -> rs.getLong(1), "a"));
+        Assert.assertEquals(Arrays.asList(2L), this.executor.insert(insert, rs -> rs.getLong(1), "b"));
+    }
+
+    @Test
+    public void testUpdateWithoutReturning() throws Exception {
+        // update() returns the count, so the RETURNING clause rendered for PostgreSQL is left out
+        Sequel.Insert insert = Sequel.into("test1").columns("t1").insert("?").returning("id").dialect(Dialect.POSTGRESQL);
+        Assert.assertTrue(insert.getSql().contains("RETURNING"));
+
+        Assert.assertEquals(1, this.executor.update(insert, "a"));
+
+        CachingExecutor caching = new CachingExecutor(this.database.getDataSource(),
+                new QueryCache(10, 0, TimeUnit.SECONDS, EvictionPolicy.LRU));
+        Assert.assertEquals(1, caching.update(insert, "b"));
+        Assert.assertEquals(Arrays.asList("a", "b"),
+                this.executor.query(Sequel.from("test1").select("t1").orderBy("id"), rs -> rs.getString(1)));
+    }
+
+    @Test
+    public void testInsertRows() throws Exception {
+        Sequel.Insert insert = Sequel.into("test1").columns("t1").row("?").row("?").row("?").returning("id");
+
+        List<Long> keys = this.executor.insert(insert, rs -> rs.getLong(1), "a", "b", "c");
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L), keys);
+        Assert.assertEquals(Arrays.asList("a", "b", "c"),
+                this.executor.query(Sequel.from("test1").select("t1").orderBy("id"), rs -> rs.getString(1)));
+    }
+
+    @Test
+    public void testInsertBatch() throws Exception {
+        Sequel.Insert insert = Sequel.into("test1").columns("t1").insert("?");
+
+        List<Long> keys = this.executor.insertBatch(insert, rs -> rs.getLong(1),
+                Arrays.asList(new Object[]{"a"}, new Object[]{"b"}, new Object[]{"c"}));
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L), keys);
+    }
+
+    @Test
+    public void testCachingExecutorInvalidation() throws Exception {
+        CachingExecutor executor = new CachingExecutor(this.database.getDataSource(),
+                new QueryCache(10, 0, TimeUnit.SECONDS, EvictionPolicy.LRU));
+        RowMapper<Long> count = rs -> rs.getLong(1);
+        Sequel.Select select = Sequel.from("test1").select("COUNT(*)");
+
+        Assert.assertEquals(Arrays.asList(0L), executor.query(select, count));
+        executor.insert(Sequel.into("test1").columns("t1").insert("?").returning("id"), count, "a");
+        Assert.assertEquals(Arrays.asList(1L), executor.query(select, count));
+    }
+}
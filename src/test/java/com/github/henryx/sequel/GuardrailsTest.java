@@ -0,0 +1,168 @@
+package com.github.henryx.sequel;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+public class GuardrailsTest {
+
+    @After
+    public void tearDown() {
+        Guardrails.setDefault(null);
+    }
+
+    private static String[] values(int count) {
+        return Collections.nCopies(count, "?").toArray(new String[0]);
+    }
+
+    @Test
+    public void testMaxInEntries() {
+        Guardrails guardrails = new Guardrails().maxInEntries(3, GuardrailAction.THROW);
+
+        String q = Sequel.from("test").select("t1").where(Criterion.in("t1", values(3))).guardrails(guardrails).getSql();
+        Assert.assertEquals("SELECT t1 FROM test WHERE t1 IN (?, ?, ?)", q);
+
+        Sequel.Select select = Sequel.from("test")
+                .select("t1")
+                .where(Criterion.exists(Sequel.from("test2").select("1")
+                        .where(Criterion.or(Criterion.isNull("t2"), Criterion.nin("t2", values(4))))))
+                .guardrails(guardrails);
+        try {
+            select.getSql();
+            Assert.fail("IN filter with 4 values was rendered");
+        } catch (GuardrailException e) {
+            Assert.assertEquals("NOT IN filter on t2 has 4 values, maximum is 3", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMaxJoinsAndDepth() {
+        Guardrails guardrails = new Guardrails()
+                .maxJoins(1, GuardrailAction.THROW)
+                .maxSubqueryDepth(1, GuardrailAction.THROW);
+
+        Sequel.Select inner = Sequel.from("test3").select("t1").where(Criterion.eq("t2", "?"));
+        Sequel.Select middle = Sequel.from("test2").select("t1").where(Criterion.in("t1", inner));
+        Assert.assertEquals("SELECT t1 FROM test1 WHERE t1 IN (SELECT t1 FROM test2)",
+                Sequel.from("test1").select("t1").where(Criterion.in("t1", Sequel.from("test2").select("t1")))
+                        .guardrails(guardrails).getSql());
+
+        Sequel.Select select = Sequel.from(Sequel.from("test1").select("t1").where(Criterion.in("t1", middle)), "d")
+                .select("d.t1")
+                .guardrails(guardrails);
+        try {
+            select.getSql();
+            Assert.fail("Subqueries nested 2 levels were rendered");
+        } catch (GuardrailException e) {
+            Assert.assertEquals("Subqueries are nested 2 levels, maximum is 1", e.getMessage());
+        }
+
+        select = Sequel.from("test1 a")
+                .select("a.t1")
+                .join(Join.join("test2 b").on(Criterion.eq("a.t1", "b.t1")))
+                .join(Join.join("test3 c").on(Criterion.eq("a.t1", "c.t1")))
+                .guardrails(guardrails);
+        try {
+            select.getSql();
+            Assert.fail("Query with 2 joins was rendered");
+        } catch (GuardrailException e) {
+            Assert.assertEquals("Query has 2 joins, maximum is 1", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMaxLengthWarning() {
+        List<LogRecord> records = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        Logger logger = Logger.getLogger(Guardrails.class.getName());
+        logger.addHandler(handler);
+        logger.setUseParentHandlers(false);
+        try {
+            Guardrails.setDefault(new Guardrails().maxLength(30, GuardrailAction.WARN));
+
+            String q = Sequel.from("test").select("t1").getSql();
+            Assert.assertTrue(records.isEmpty());
+
+            q = Sequel.from("test").select("t1", "t2", "t3").where(Criterion.eq("t1", "?")).getSql();
+            Assert.assertEquals("SELECT t1, t2, t3 FROM test WHERE t1 = ?", q);
+            Assert.assertEquals(1, records.size());
+            Assert.assertEquals("Statement has 40 characters, maximum is 30", records.get(0).getMessage());
+        } finally {
+            logger.setUseParentHandlers(true);
+            logger.removeHandler(handler);
+        }
+    }
+
+    @Test
+    public void testRequireFilter() {
+        Guardrails.setDefault(new Guardrails()
+                .requireFilter(GuardrailAction.APPLY_LIMIT, "events")
+                .requireFilter(GuardrailAction.THROW, "Orders")
+                .defaultLimit(100));
+
+        Sequel.Select select = Sequel.from("events e").select("e.t1");
+        Assert.assertEquals("SELECT e.t1 FROM events e FETCH FIRST 100 ROWS ONLY", select.getSql());
+        Assert.assertEquals("SELECT e.t1 FROM events e FETCH FIRST 100 ROWS ONLY", select.toString());
+        Assert.assertNull(select.getLimit());
+
+        Assert.assertEquals("SELECT e.t1 FROM events e WHERE e.t2 = ?",
+                Sequel.from("events e").select("e.t1").where(Criterion.eq("e.t2", "?")).getSql());
+        Assert.assertEquals("SELECT t1 FROM test WHERE t1 IN (SELECT t1 FROM orders)",
+                Sequel.from("test").select("t1").where(Criterion.in("t1", Sequel.from("orders").select("t1"))).getSql());
+
+        try {
+            Sequel.from("events e").select("e.t1").join(Join.join("orders o").on(Criterion.eq("e.t1", "o.t1"))).getSql();
+            Assert.fail("Query on orders without filter was rendered");
+        } catch (GuardrailException e) {
+            Assert.assertEquals("Query on orders has no WHERE clause and no limit", e.getMessage());
+        }
+
+        Assert.assertEquals("SELECT t1 FROM orders", Sequel.from("orders").select("t1").guardrails(new Guardrails()).getSql());
+    }
+
+    @Test
+    public void testInsert() {
+        Guardrails guardrails = new Guardrails()
+                .maxInEntries(2, GuardrailAction.THROW)
+                .requireFilter(GuardrailAction.THROW, "test2");
+
+        String q = Sequel.into("test1").select(Sequel.from("test2").select("t1")).guardrails(guardrails).getSql();
+        Assert.assertEquals("INSERT INTO test1 SELECT t1 FROM test2", q);
+
+        try {
+            Sequel.into("test1")
+                    .select(Sequel.from("test2").select("t1").where(Criterion.in("t1", values(3))))
+                    .guardrails(guardrails)
+                    .getSql();
+            Assert.fail("IN filter with 3 values was rendered");
+        } catch (GuardrailException e) {
+            Assert.assertEquals("IN filter on t1 has 3 values, maximum is 2", e.getMessage());
+        }
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testApplyLimitOnlyForFilters() {
+        new Guardrails().maxJoins(3, GuardrailAction.APPLY_LIMIT);
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.henryx.sequel;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.rules.ExternalResource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * H2Database is an in-memory H2 database kept alive by an open connection for the duration of a test. Its objects are
+ * dropped after the test, even when executions of the test still hold a connection
+ */
+public class H2Database extends ExternalResource {
+    private final String name;
+    private JdbcDataSource dataSource;
+    private Connection connection;
+
+    public H2Database(String name) {
+        this.name = name;
+    }
+
+    @Override
+    protected void before() throws SQLException {
+        this.dataSource = new JdbcDataSource();
+        this.dataSource.setURL("jdbc:h2:mem:" + this.name);
+        this.connection = this.dataSource.getConnection();
+    }
+
+    @Override
+    protected void after() {
+        try {
+            if (!this.connection.isClosed()) {
+                this.execute("DROP ALL OBJECTS");
+                this.connection.close();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot drop database " + this.name, e);
+        }
+    }
+
+    public JdbcDataSource getDataSource() {
+        return this.dataSource;
+    }
+
+    /**
+     * @return the connection keeping the database alive
+     */
+    public Connection getConnection() {
+        return this.connection;
+    }
+
+    /**
+     * Executes the statements in order, on the connection keeping the database alive
+     */
+    public void execute(String... statements) throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
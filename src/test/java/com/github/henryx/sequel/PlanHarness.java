@@ -0,0 +1,115 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * PlanHarness runs EXPLAIN statements produced by Select against an embedded H2 database and compares the resulting
+ * plan summary with a baseline stored in {@code src/test/resources/plans}. A missing baseline is written when the
+ * {@code sequel.plans.update} system property is set to true, otherwise the comparison fails
+ */
+public class PlanHarness implements AutoCloseable {
+    private static final Path BASELINES = Paths.get("src", "test", "resources", "plans");
+
+    private final Connection connection;
+
+    public PlanHarness(String url) throws SQLException {
+        this.connection = DriverManager.getConnection(url);
+    }
+
+    /**
+     * Executes DDL or DML statements used to prepare the schema and the data
+     *
+     * @param statements the statements to execute
+     * @throws SQLException if a statement fails
+     */
+    public void execute(String... statements) throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Returns the plan summary of the query
+     *
+     * @param select the query
+     * @param params values bound to the query parameters
+     * @return the plan summary
+     * @throws SQLException if the plan cannot be retrieved
+     */
+    public PlanSummary explain(Sequel.Select select, Object... params) throws SQLException {
+        return this.plan(select.copy().dialect(Dialect.H2).explain(), params);
+    }
+
+    /**
+     * Returns the plan summary of the query, with the rows scanned by every table
+     *
+     * @param select the query
+     * @param params values bound to the query parameters
+     * @return the plan summary
+     * @throws SQLException if the plan cannot be retrieved
+     */
+    public PlanSummary explainAnalyze(Sequel.Select select, Object... params) throws SQLException {
+        return this.plan(select.copy().dialect(Dialect.H2).explainAnalyze(), params);
+    }
+
+    /**
+     * Compares the plan summary with the named baseline
+     *
+     * @param name    the baseline name
+     * @param summary the plan summary
+     * @throws IOException if the baseline cannot be read or written
+     */
+    public void assertPlan(String name, PlanSummary summary) throws IOException {
+        Path baseline = BASELINES.resolve(name + ".plan");
+
+        if (!Files.exists(baseline)) {
+            Assert.assertTrue("Missing plan baseline " + baseline + ". Run with -Dsequel.plans.update=true to create it",
+                    Boolean.getBoolean("sequel.plans.update"));
+
+            Files.createDirectories(BASELINES);
+            Files.write(baseline, summary.getEntries(), StandardCharsets.UTF_8);
+            return;
+        }
+
+        List<String> expected = Files.readAllLines(baseline, StandardCharsets.UTF_8);
+        Assert.assertEquals("Plan of " + name + " differs from baseline", expected, summary.getEntries());
+    }
+
+    private PlanSummary plan(String sql, Object... params) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+
+        try (PreparedStatement statement = this.connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append(System.lineSeparator());
+                }
+            }
+        }
+
+        return PlanSummary.parse(plan.toString());
+    }
+
+    @Override
+    public void close() throws SQLException {
+        this.connection.close();
+    }
+}
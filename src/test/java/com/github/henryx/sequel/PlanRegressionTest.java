@@ -0,0 +1,88 @@
+package com.github.henryx.sequel;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PlanRegressionTest {
+    private static PlanHarness harness;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        harness = new PlanHarness("jdbc:h2:mem:plans");
+        harness.execute(
+                "CREATE TABLE test1 (t1 INT PRIMARY KEY, t2 INT, t3 VARCHAR(10))",
+                "CREATE INDEX idx_t2 ON test1 (t2)",
+                "CREATE TABLE test2 (t4 INT, t5 INT)",
+                "INSERT INTO test1 SELECT x, MOD(x, 10), 'a' FROM SYSTEM_RANGE(1, 100)",
+                "INSERT INTO test2 SELECT x, x FROM SYSTEM_RANGE(1, 10)");
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        harness.close();
+    }
+
+    @Test
+    public void testExplain() {
+        Sequel.Select q = Sequel.from("test").select("t1").where(Criterion.eq("t1", "?"));
+
+        Assert.assertEquals("EXPLAIN SELECT t1 FROM test WHERE t1 = ?", q.explain());
+        Assert.assertEquals("EXPLAIN ANALYZE SELECT t1 FROM test WHERE t1 = ?", q.explainAnalyze());
+        Assert.assertEquals("EXPLAIN QUERY PLAN SELECT t1 FROM test WHERE t1 = ?", q.dialect(Dialect.SQLITE).explain());
+        Assert.assertEquals("EXPLAIN PLAN FOR SELECT t1 FROM test WHERE t1 = ?", q.dialect(Dialect.ORACLE).explain());
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testExplainAnalyzeUnsupported() {
+        Sequel.from("test").select("t1").dialect(Dialect.SQLITE).explainAnalyze();
+    }
+
+    @Test
+    public void testExplainUnsupported() {
+        try {
+            Sequel.from("test").select("t1").dialect(Dialect.SQLSERVER).explain();
+            Assert.fail("EXPLAIN was built for SQL Server");
+        } catch (ValueMismatchException e) {
+            Assert.assertEquals("Cannot build EXPLAIN statement. SQLSERVER dialect is not supported", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testIndexSeek() throws Exception {
+        Sequel.Select q = Sequel.from("test1").select("t1").where(Criterion.eq("t2", "?"));
+
+        PlanSummary summary = harness.explain(q, 1);
+        Assert.assertFalse(summary.hasTableScan());
+        harness.assertPlan("index-seek", summary);
+    }
+
+    @Test
+    public void testTableScan() throws Exception {
+        Sequel.Select q = Sequel.from("test1").select("t1").where(Criterion.eq("t3", "'a'"));
+
+        PlanSummary summary = harness.explain(q);
+        Assert.assertTrue(summary.hasTableScan());
+        harness.assertPlan("table-scan", summary);
+    }
+
+    @Test
+    public void testExplainKeepsDialect() throws Exception {
+        Sequel.Select q = Sequel.from("test1").select("t1").limit(1).dialect(Dialect.SQLSERVER);
+        String expected = q.getSql();
+
+        harness.explain(q);
+        Assert.assertEquals(expected, q.getSql());
+    }
+
+    @Test
+    public void testJoinAnalyze() throws Exception {
+        Sequel.Select q = Sequel.from("test1 a")
+                .select("a.t1", "b.t5")
+                .join(Join.join("test2 b").on(Criterion.eq("a.t1", "b.t4")))
+                .where(Criterion.eq("a.t2", "?"));
+
+        harness.assertPlan("join-analyze", harness.explainAnalyze(q, 1));
+    }
+}
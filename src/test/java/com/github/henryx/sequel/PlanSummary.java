@@ -0,0 +1,125 @@
+package com.github.henryx.sequel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PlanSummary extracts from an H2 execution plan how every table is accessed: the scan type, the index used and, for
+ * plans produced by EXPLAIN ANALYZE, the number of scanned rows
+ */
+public class PlanSummary {
+    private static final Pattern TABLE = Pattern.compile("^\\s*(?:FROM|(?:[A-Z ]+ )?JOIN)\\s+\"[^\"]+\"\\.\"([^\"]+)\"(?:\\s+\"([^\"]+)\")?");
+    private static final Pattern ACCESS = Pattern.compile("^\\s*/\\* [^.]+\\.([^:]+?)(?:: .*)? \\*/\\s*$");
+    private static final Pattern ROWS = Pattern.compile("^\\s*/\\* scanCount: (\\d+) \\*/\\s*$");
+
+    private final List<String> entries;
+
+    private PlanSummary(List<String> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Parses the plan returned by H2 EXPLAIN or EXPLAIN ANALYZE statements
+     *
+     * @param plan the plan text
+     * @return the summary of the plan
+     */
+    public static PlanSummary parse(String plan) {
+        List<String> entries = new ArrayList<>();
+        String table = null;
+        String access = null;
+        String rows = null;
+
+        for (String line : plan.split("\\R")) {
+            Matcher matcher = TABLE.matcher(line);
+            if (matcher.find()) {
+                if (Objects.nonNull(table)) {
+                    entries.add(entry(table, access, rows));
+                }
+                table = Objects.isNull(matcher.group(2)) ? matcher.group(1) : matcher.group(1) + " " + matcher.group(2);
+                access = null;
+                rows = null;
+                continue;
+            }
+
+            matcher = ACCESS.matcher(line);
+            if (Objects.nonNull(table) && Objects.isNull(access) && matcher.find()) {
+                access = matcher.group(1);
+                continue;
+            }
+
+            matcher = ROWS.matcher(line);
+            if (Objects.nonNull(table) && matcher.find()) {
+                rows = matcher.group(1);
+            }
+        }
+
+        if (Objects.nonNull(table)) {
+            entries.add(entry(table, access, rows));
+        }
+
+        return new PlanSummary(entries);
+    }
+
+    private static String entry(String table, String access, String rows) {
+        StringJoiner joiner = new StringJoiner(" ");
+        joiner.add(table + ":");
+
+        if (Objects.isNull(access) || access.endsWith(".tableScan")) {
+            joiner.add("SCAN");
+        } else {
+            // Names of the generated primary key indexes depend on the creation order of the objects
+            joiner.add("INDEX").add(access.startsWith("PRIMARY_KEY_") ? "PRIMARY_KEY" : access);
+        }
+
+        if (Objects.nonNull(rows)) {
+            joiner.add("ROWS").add(rows);
+        }
+
+        return joiner.toString();
+    }
+
+    /**
+     * Returns the access of every table in the plan, one per line
+     *
+     * @return the list of table accesses
+     */
+    public List<String> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Checks if at least one table is read with a full scan
+     *
+     * @return true if a full scan is present
+     */
+    public boolean hasTableScan() {
+        return this.entries.stream().anyMatch(entry -> entry.contains(": SCAN"));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PlanSummary)) {
+            return false;
+        }
+        return this.entries.equals(((PlanSummary) o).entries);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.entries.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(System.lineSeparator(), this.entries);
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueryBatchTest {
+    @Rule
+    public final H2Database database = new H2Database("batch");
+    private Executor executor;
+    private AtomicInteger executions;
+
+    @Before
+    public void setUp() throws Exception {
+        this.database.execute("CREATE TABLE test1 (t1 INT, t2 VARCHAR(10))",
+                "INSERT INTO test1 SELECT x, 'v' || x FROM SYSTEM_RANGE(1, 10)");
+
+        this.executions = new AtomicInteger();
+        this.executor = new Executor(this.database.getDataSource()) {
+            @Override
+            protected Connection getConnection(boolean write) throws SQLException {
+                executions.incrementAndGet();
+                return super.getConnection(write);
+            }
+        };
+    }
+
+    @Test
+    public void testUnion() throws Exception {
+        QueryBatch batch = this.executor.batch();
+        QueryBatch.Result<String> names = batch.add(Sequel.from("test1").select("t2")
+                .where(Criterion.gt("t1", "?")).orderBy("t1 DESC").limit(2), rs -> rs.getString("t2"), 5);
+        QueryBatch.Result<Long> count = batch.add(Sequel.from("test1").select(Functions.count("*") + " AS n")
+                .where(Criterion.lte("t1", "?")), rs -> rs.getLong("n"), 3);
+        QueryBatch.Result<String> rows = batch.add(Sequel.from("test1").select("t1", "t2")
+                .where(Criterion.eq("t1", "?")), rs -> rs.getInt("t1") + rs.getString(2), 7);
+        QueryBatch.Result<Integer> empty = batch.add(Sequel.from("test1").select("t1")
+                .where(Criterion.eq("t1", "0")), rs -> rs.getInt(1));
+
+        batch.execute();
+
+        Assert.assertEquals(1, this.executions.get());
+        Assert.assertEquals(Arrays.asList("v10", "v9"), names.get());
+        Assert.assertEquals(Collections.singletonList(3L), count.get());
+        Assert.assertEquals(Collections.singletonList("7v7"), rows.get());
+        Assert.assertEquals(Collections.emptyList(), empty.get());
+    }
+
+    @Test
+    public void testUnionSql() {
+        QueryBatch.Result<?>[] results = {
+                new QueryBatch(this.executor).add(Sequel.from("test1").select("t1"), rs -> rs.getInt(1)),
+                new QueryBatch(this.executor).add(Sequel.from("test1").select("t1", "t2 AS name").orderBy("name DESC"),
+                        rs -> rs.getInt(1))
+        };
+
+        String expected = "SELECT 0 AS batch_query, q0.batch_row, q0.*, NULL AS t1, NULL AS name, NULL AS batch_row_1"
+                + " FROM (SELECT t1, 0 AS batch_row FROM test1) q0"
+                + " UNION ALL SELECT 1, q1.batch_row, NULL, NULL, q1.*"
+                + " FROM (SELECT t1, t2 AS name, ROW_NUMBER() OVER (ORDER BY t2 DESC) AS batch_row FROM test1) q1"
+                + " ORDER BY 1, 2";
+        Assert.assertEquals(expected, QueryBatch.union(Arrays.asList(results)));
+    }
+
+    @Test
+    public void testWildcard() throws Exception {
+        QueryBatch batch = this.executor.batch().mode(BatchMode.UNION_ALL);
+        QueryBatch.Result<String> all = batch.add(Sequel.from("test1").select("*").where(Criterion.eq("t1", "?")),
+                rs -> rs.getString("t2"), 4);
+        QueryBatch.Result<Integer> ids = batch.add(Sequel.from("test1").select("t1").where(Criterion.lt("t1", "?"))
+                .orderBy("t1"), rs -> rs.getInt(1), 3);
+
+        batch.execute();
+
+        Assert.assertEquals(1, this.executions.get());
+        Assert.assertEquals(Collections.singletonList("v4"), all.get());
+        Assert.assertEquals(Arrays.asList(1, 2), ids.get());
+    }
+
+    @Test
+    public void testUnionOrder() throws Exception {
+        QueryBatch batch = this.executor.batch().mode(BatchMode.UNION_ALL);
+        QueryBatch.Result<String> names = batch.add(Sequel.from("test1").select("t2 AS name").orderBy("t1 DESC"),
+                rs -> rs.getString("name"));
+        QueryBatch.Result<Integer> distinct = batch.add(Sequel.from("test1").select("DISTINCT MOD(t1, 3) AS m")
+                .orderBy("m DESC"), rs -> rs.getInt(1));
+
+        batch.execute();
+
+        Assert.assertEquals(Arrays.asList("v10", "v9", "v8", "v7", "v6", "v5", "v4", "v3", "v2", "v1"), names.get());
+        Assert.assertEquals(Arrays.asList(2, 1, 0), distinct.get());
+    }
+
+    @Test
+    public void testSupportsMultipleResults() throws Exception {
+        Assert.assertTrue(QueryBatch.supportsMultipleResults(metadata("PostgreSQL", "jdbc:postgresql://db/test")));
+        Assert.assertFalse(QueryBatch.supportsMultipleResults(metadata("MySQL", "jdbc:mysql://db/test")));
+        Assert.assertFalse(QueryBatch.supportsMultipleResults(metadata("MySQL", "jdbc:mysql://db/test?allowMultiQueries=false")));
+        Assert.assertTrue(QueryBatch.supportsMultipleResults(metadata("MySQL", "jdbc:mysql://db/test?useSSL=false&allowMultiQueries=true")));
+        Assert.assertTrue(QueryBatch.supportsMultipleResults(metadata("MariaDB", "jdbc:mariadb://db/test?allowMultiQueries=true")));
+    }
+
+    private static DatabaseMetaData metadata(String product, String url) {
+        return (DatabaseMetaData) Proxy.newProxyInstance(DatabaseMetaData.class.getClassLoader(),
+                new Class<?>[]{DatabaseMetaData.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "supportsMultipleResultSets":
+                            return true;
+                        case "getDatabaseProductName":
+                            return product;
+                        case "getURL":
+                            return url;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNotExecuted() {
+        this.executor.batch().add(Sequel.from("test1").select("t1"), rs -> rs.getInt(1)).get();
+    }
+}
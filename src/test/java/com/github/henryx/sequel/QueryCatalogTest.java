@@ -0,0 +1,118 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueryCatalogTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void define(QueryCatalog catalog) {
+        catalog.add("byId", Sequel.from("test1 a")
+                        .select("a.t1", "b.t2")
+                        .join(Join.join("test2 b").on(Criterion.eq("a.t1", "b.t1")))
+                        .where(Criterion.eq("a.t1", "?"))
+                        .where(Criterion.neq("a.t3", "'?'")))
+                .add("insert", Sequel.into("test1").columns("t1", "t2").insert("?", "?"));
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        Path file = this.folder.getRoot().toPath().resolve("queries.bin");
+        QueryCatalog catalog = new QueryCatalog("1");
+        define(catalog);
+        catalog.write(file);
+
+        QueryCatalog read = QueryCatalog.read(file);
+        Assert.assertEquals("1", read.getVersion());
+        Assert.assertEquals(2, read.getEntries().size());
+
+        QueryCatalog.Entry entry = read.get("byId");
+        Assert.assertEquals(catalog.get("byId").getSql(), entry.getSql());
+        Assert.assertEquals(1, entry.getParameters());
+        Assert.assertEquals(Arrays.asList("test1", "test2"), entry.getTables());
+        Assert.assertEquals(catalog.get("byId").getFingerprint(), entry.getFingerprint());
+        Assert.assertEquals(entry.getSql(), entry.getQuery().getSql());
+
+        Assert.assertEquals(2, read.get("insert").getParameters());
+        Assert.assertEquals(Collections.singletonList("test1"), read.get("insert").getTables());
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        Path file = this.folder.getRoot().toPath().resolve("queries.bin");
+        AtomicInteger builds = new AtomicInteger();
+
+        QueryCatalog catalog = QueryCatalog.load(file, "1", definitions -> {
+            builds.incrementAndGet();
+            define(definitions);
+        });
+        Assert.assertEquals(1, builds.get());
+        Assert.assertTrue(Files.exists(file));
+
+        QueryCatalog loaded = QueryCatalog.load(file, "1", definitions -> {
+            builds.incrementAndGet();
+            define(definitions);
+        });
+        Assert.assertEquals(1, builds.get());
+        Assert.assertEquals(catalog.get("byId").getSql(), loaded.get("byId").getSql());
+
+        loaded = QueryCatalog.load(file, "2", definitions -> {
+            builds.incrementAndGet();
+            definitions.add("all", Sequel.from("test1").select("*"));
+        });
+        Assert.assertEquals(2, builds.get());
+        Assert.assertEquals("2", loaded.getVersion());
+        Assert.assertEquals("2", QueryCatalog.read(file).getVersion());
+    }
+
+    @Test
+    public void testLoadCorrupted() throws IOException {
+        Path file = this.folder.getRoot().toPath().resolve("queries.bin");
+        QueryCatalog catalog = new QueryCatalog("1");
+        define(catalog);
+        catalog.write(file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        try {
+            QueryCatalog.read(file);
+            Assert.fail("Truncated catalog was read");
+        } catch (IOException e) {
+            // expected
+        }
+
+        bytes[bytes.length - 20] ^= 1;
+        Files.write(file, bytes);
+        try {
+            QueryCatalog.read(file);
+            Assert.fail("Corrupted catalog was read");
+        } catch (IOException e) {
+            // expected
+        }
+
+        AtomicInteger builds = new AtomicInteger();
+        QueryCatalog loaded = QueryCatalog.load(file, "1", definitions -> {
+            builds.incrementAndGet();
+            define(definitions);
+        });
+        Assert.assertEquals(1, builds.get());
+        Assert.assertEquals(2, loaded.getEntries().size());
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testDuplicateName() {
+        new QueryCatalog("1")
+                .add("all", Sequel.from("test1").select("*"))
+                .add("all", Sequel.from("test2").select("*"));
+    }
+}
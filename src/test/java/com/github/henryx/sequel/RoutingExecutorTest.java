@@ -0,0 +1,82 @@
+package com.github.henryx.sequel;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class RoutingExecutorTest {
+    @Rule
+    public final H2Database primaryDatabase = new H2Database("primary");
+    @Rule
+    public final H2Database replicaDatabase = new H2Database("replica");
+    @Rule
+    public final H2Database otherDatabase = new H2Database("replica2");
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+
+    @Before
+    public void setUp() throws Exception {
+        this.primary = this.primaryDatabase.getDataSource();
+        this.replica = this.replicaDatabase.getDataSource();
+
+        this.primaryDatabase.execute("CREATE TABLE test1 (t1 VARCHAR(10))");
+        this.replicaDatabase.execute("CREATE TABLE test1 (t1 VARCHAR(10))", "INSERT INTO test1 VALUES ('replica')");
+    }
+
+    @Test
+    public void testSplit() throws Exception {
+        RoutingExecutor executor = new RoutingExecutor(this.primary, Collections.singletonList(this.replica),
+                LoadBalancing.ROUND_ROBIN);
+        Sequel.Select q = Sequel.from("test1").select("t1");
+
+        executor.update(Sequel.into("test1").insert("?"), "primary");
+
+        Assert.assertEquals(Collections.singletonList("replica"), executor.query(q, rs -> rs.getString(1)));
+        Assert.assertEquals(0, executor.getLoad(0));
+    }
+
+    @Test
+    public void testSession() throws Exception {
+        RoutingExecutor executor = new RoutingExecutor(this.primary, Collections.singletonList(this.replica),
+                LoadBalancing.LEAST_LOADED);
+        Sequel.Select q = Sequel.from("test1").select("t1");
+
+        try (RoutingExecutor.Session session = executor.session()) {
+            Assert.assertEquals(Collections.singletonList("replica"), executor.query(q, rs -> rs.getString(1)));
+
+            executor.update(Sequel.into("test1").insert("?"), "primary");
+
+            Assert.assertTrue(session.isWritten());
+            Assert.assertEquals(Collections.singletonList("primary"), executor.query(q, rs -> rs.getString(1)));
+        }
+
+        Assert.assertEquals(Collections.singletonList("replica"), executor.query(q, rs -> rs.getString(1)));
+    }
+
+    @Test
+    public void testBalancing() throws Exception {
+        JdbcDataSource other = this.otherDatabase.getDataSource();
+        this.otherDatabase.execute("CREATE TABLE test1 (t1 VARCHAR(10))", "INSERT INTO test1 VALUES ('other')");
+
+        RoutingExecutor executor = new RoutingExecutor(this.primary, Arrays.asList(this.replica, other),
+                LoadBalancing.ROUND_ROBIN);
+        Sequel.Select q = Sequel.from("test1").select("t1");
+
+        List<String> first = executor.query(q, rs -> rs.getString(1));
+        List<String> second = executor.query(q, rs -> rs.getString(1));
+        Assert.assertEquals(Collections.singletonList("replica"), first);
+        Assert.assertEquals(Collections.singletonList("other"), second);
+
+        // A replica holding a connection is skipped by least loaded balancing
+        RoutingExecutor leastLoaded = new RoutingExecutor(this.primary, Arrays.asList(this.replica, other),
+                LoadBalancing.LEAST_LOADED);
+        List<List<String>> nested = leastLoaded.query(q, rs -> leastLoaded.query(q, inner -> inner.getString(1)));
+        Assert.assertEquals(Collections.singletonList(Collections.singletonList("other")), nested);
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RowMappersTest {
+    @Rule
+    public final H2Database database = new H2Database("mappers");
+    private Executor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        this.database.execute("CREATE TABLE test1 (t1 INT, first_name VARCHAR(20), score DOUBLE)",
+                "INSERT INTO test1 VALUES (1, 'a', 1.5), (2, 'b', NULL)");
+
+        this.executor = new Executor(this.database.getDataSource());
+    }
+
+    @Test
+    public void testSetters() throws Exception {
+        List<Bean> rows = this.executor.query(Sequel.from("test1").select("t1", "first_name", "score").orderBy("t1"),
+                Bean.class);
+
+        Assert.assertEquals(2, rows.size());
+        Assert.assertEquals(1, rows.get(0).t1);
+        Assert.assertEquals("a", rows.get(0).firstName);
+        Assert.assertEquals(Double.valueOf(1.5), rows.get(0).score);
+        Assert.assertNull(rows.get(1).score);
+    }
+
+    @Test
+    public void testConstructor() throws Exception {
+        List<Value> rows = this.executor.query(Sequel.from("test1").select("t1", "first_name").orderBy("t1"),
+                Value.class);
+
+        Assert.assertEquals(2, rows.get(1).id);
+        Assert.assertEquals("b", rows.get(1).name);
+    }
+
+    @Test
+    public void testColumnLists() throws Exception {
+        // The same class is mapped from different column lists, each with its own plan
+        Bean first = this.executor.query(Sequel.from("test1").select("first_name").where(Criterion.eq("t1", "1")),
+                Bean.class).get(0);
+        Bean second = this.executor.query(Sequel.from("test1").select("score", "t1").where(Criterion.eq("t1", "1")),
+                Bean.class).get(0);
+
+        Assert.assertEquals("a", first.firstName);
+        Assert.assertEquals(0, first.t1);
+        Assert.assertEquals(1, second.t1);
+        Assert.assertEquals(Double.valueOf(1.5), second.score);
+        Assert.assertSame(RowMappers.of(Bean.class), RowMappers.of(Bean.class));
+    }
+
+    @Test
+    public void testInterleavedResultSets() throws Exception {
+        // Two executions share the mapper, each reading the metadata of its ResultSet once
+        AtomicInteger metadata = new AtomicInteger();
+        Connection connection = this.database.getConnection();
+        try (Statement first = connection.createStatement(); Statement second = connection.createStatement()) {
+            ResultSet names = counting(first.executeQuery("SELECT t1, first_name FROM test1 ORDER BY t1"), metadata);
+            ResultSet scores = counting(second.executeQuery("SELECT score, t1 FROM test1 ORDER BY t1"), metadata);
+
+            RowMapper<Bean> byName = RowMappers.bind(RowMappers.of(Bean.class), names);
+            RowMapper<Bean> byScore = RowMappers.bind(RowMappers.of(Bean.class), scores);
+
+            List<Bean> rows = new ArrayList<>();
+            while (names.next() && scores.next()) {
+                rows.add(byName.map(names));
+                rows.add(byScore.map(scores));
+            }
+
+            Assert.assertEquals(4, rows.size());
+            Assert.assertEquals("a", rows.get(0).firstName);
+            Assert.assertEquals(Double.valueOf(1.5), rows.get(1).score);
+            Assert.assertEquals("b", rows.get(2).firstName);
+            Assert.assertEquals(2, rows.get(3).t1);
+            Assert.assertEquals(2, metadata.get());
+        }
+    }
+
+    private static ResultSet counting(ResultSet rs, AtomicInteger metadata) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getMetaData")) {
+                        metadata.incrementAndGet();
+                    }
+
+                    try {
+                        return method.invoke(rs, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @Test(expected = SQLException.class)
+    public void testUnknownColumn() throws Exception {
+        this.executor.query(Sequel.from("test1").select("t1", "first_name", "score", "t1 AS other"), Bean.class);
+    }
+
+    public static class Bean {
+        private int t1;
+        private String firstName;
+        public Double score;
+
+        public void setT1(int t1) {
+            this.t1 = t1;
+        }
+
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+        }
+    }
+
+    public static class Value {
+        private final int id;
+        private final String name;
+
+        public Value(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RowPublisherTest {
+    @Rule
+    public final H2Database database = new H2Database("publisher");
+    private Executor executor;
+    private AtomicInteger active;
+
+    @Before
+    public void setUp() throws Exception {
+        this.database.execute("CREATE TABLE test1 (t1 INT)",
+                "INSERT INTO test1 SELECT x FROM SYSTEM_RANGE(1, 10)");
+
+        this.active = new AtomicInteger();
+        this.executor = new Executor(this.database.getDataSource()) {
+            @Override
+            protected Connection getConnection(boolean write) throws SQLException {
+                active.incrementAndGet();
+                return super.getConnection(write);
+            }
+
+            @Override
+            protected void releaseConnection(Connection connection) throws SQLException {
+                active.decrementAndGet();
+                super.releaseConnection(connection);
+            }
+        };
+    }
+
+    @Test
+    public void testBackpressure() {
+        Recorder recorder = new Recorder();
+        Sequel.Select q = Sequel.from("test1").select("t1").where(Criterion.gt("t1", "?")).orderBy("t1");
+        this.executor.publish(q, rs -> rs.getInt(1), 4).subscribe(recorder);
+
+        Assert.assertEquals(0, this.active.get());
+
+        recorder.subscription.request(2);
+        Assert.assertEquals(2, recorder.rows.size());
+        Assert.assertEquals(1, this.active.get());
+        Assert.assertFalse(recorder.completed);
+
+        recorder.subscription.request(10);
+        Assert.assertEquals(6, recorder.rows.size());
+        Assert.assertEquals(Integer.valueOf(10), recorder.rows.get(5));
+        Assert.assertTrue(recorder.completed);
+        Assert.assertEquals(0, this.active.get());
+    }
+
+    @Test
+    public void testCancel() {
+        Recorder recorder = new Recorder() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                if (this.rows.size() == 3) {
+                    this.subscription.cancel();
+                }
+            }
+        };
+        this.executor.publish(Sequel.from("test1").select("t1"), rs -> rs.getInt(1)).subscribe(recorder);
+
+        recorder.subscription.request(Long.MAX_VALUE);
+        Assert.assertEquals(3, recorder.rows.size());
+        Assert.assertFalse(recorder.completed);
+        Assert.assertNull(recorder.error);
+        Assert.assertEquals(0, this.active.get());
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        Recorder recorder = new Recorder();
+        RowPublisher<Integer> publisher = this.executor.publish(Sequel.from("test1").select("t1"), rs -> rs.getInt(1));
+        publisher.subscribe(recorder);
+
+        recorder.subscription.request(0);
+        Assert.assertTrue(recorder.error instanceof IllegalArgumentException);
+        Assert.assertEquals(0, this.active.get());
+
+        Recorder second = new Recorder();
+        publisher.subscribe(second);
+        Assert.assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    private static class Recorder implements RowPublisher.Subscriber<Integer> {
+        protected final List<Integer> rows = new ArrayList<>();
+        protected RowPublisher.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(RowPublisher.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            this.rows.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+        }
+    }
+}
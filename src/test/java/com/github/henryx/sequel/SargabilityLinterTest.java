@@ -0,0 +1,109 @@
+package com.github.henryx.sequel;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class SargabilityLinterTest {
+    private final SargabilityLinter linter = new SargabilityLinter(new IndexMetadata()
+            .index("orders", "id")
+            .index("orders", "customer_id", "created")
+            .index("customers", "id")
+            .index("lines", "order_id", "position")
+            .index("notes", "created"));
+
+    private static List<SargabilityLinter.Rule> rules(List<SargabilityLinter.Finding> findings) {
+        return findings.stream().map(SargabilityLinter.Finding::getRule).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testSargable() {
+        Sequel.Select select = Sequel.from("orders o")
+                .select("o.id", "c.name")
+                .join(Join.join("customers c").on(Criterion.eq("o.customer_id", "c.id")))
+                .join(Join.join("lines l", JoinType.LEFT).on(Criterion.eq("l.order_id", "o.id")))
+                .where(Criterion.eq("o.customer_id", "?"))
+                .where(Criterion.neq("o.created", "?"))
+                .orderBy("o.created DESC");
+
+        Assert.assertEquals(Collections.emptyList(), this.linter.lint(select));
+    }
+
+    @Test
+    public void testFunctionAndNegation() {
+        Sequel.Select select = Sequel.from("orders")
+                .select("id")
+                .where(Criterion.eq("UPPER(customer_id)", "?"))
+                .where(Criterion.or(Criterion.nin("id", "1", "2"), Criterion.gt("total * 2", "?")))
+                .where(Criterion.in("id", Sequel.from("lines").select("order_id").where(Criterion.neq("order_id", "?"))));
+
+        List<SargabilityLinter.Finding> findings = this.linter.lint(select);
+        Assert.assertEquals(Arrays.asList(SargabilityLinter.Rule.FUNCTION_ON_COLUMN, SargabilityLinter.Rule.NEGATION_ON_KEY,
+                SargabilityLinter.Rule.NEGATION_ON_KEY), rules(findings));
+        Assert.assertEquals("Expression UPPER(customer_id) wraps the indexed column orders.customer_id",
+                findings.get(0).getMessage());
+        Assert.assertEquals("id NOT IN (1, 2)", findings.get(1).getSql());
+        Assert.assertEquals("lines", findings.get(2).getTable());
+    }
+
+    @Test
+    public void testOrderBy() {
+        Assert.assertEquals(Collections.emptyList(), this.linter.lint(Sequel.from("orders")
+                .select("id")
+                .where(Criterion.eq("customer_id", "?"))
+                .orderBy("customer_id", "created")));
+
+        Assert.assertEquals(Collections.singletonList(SargabilityLinter.Rule.ORDER_WITHOUT_INDEX), rules(this.linter.lint(
+                Sequel.from("orders").select("id").orderBy("created"))));
+        Assert.assertEquals(Collections.singletonList(SargabilityLinter.Rule.ORDER_WITHOUT_INDEX), rules(this.linter.lint(
+                Sequel.from("orders").select("id").where(Criterion.eq("customer_id", "?")).orderBy("created ASC", "id DESC"))));
+        Assert.assertEquals(Collections.singletonList(SargabilityLinter.Rule.ORDER_WITHOUT_INDEX), rules(this.linter.lint(
+                Sequel.from("orders").select("id").orderBy("COALESCE(created, id)"))));
+        Assert.assertEquals(Collections.emptyList(), this.linter.lint(
+                Sequel.from("orders").select("id", "total * 2 AS score").orderBy("score")));
+    }
+
+    @Test
+    public void testJoin() {
+        Sequel.Select select = Sequel.from("orders o")
+                .select("o.id")
+                .join(Join.join("lines l").on(Criterion.eq("l.position", "o.id")))
+                .join(Join.join("customers c").on(Criterion.eq("c.id", "o.customer_id")))
+                .join(Join.join("unknown u").on(Criterion.eq("u.code", "o.id")));
+
+        List<SargabilityLinter.Finding> findings = this.linter.lint(select);
+        Assert.assertEquals(Collections.singletonList(SargabilityLinter.Rule.JOIN_WITHOUT_INDEX), rules(findings));
+        Assert.assertEquals("Join on lines compares columns [position] not leading an index", findings.get(0).getMessage());
+    }
+
+    @Test
+    public void testReadIndexes() throws Exception {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:indexes");
+
+        try (Connection connection = ds.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE events (id INTEGER PRIMARY KEY, kind VARCHAR(10), created TIMESTAMP)");
+            statement.execute("CREATE INDEX events_kind ON events (kind, created)");
+            statement.execute("CREATE TABLE logs (message VARCHAR(100))");
+
+            IndexMetadata indexes = IndexMetadata.read(connection, null, "events", "logs");
+            Assert.assertTrue(indexes.getIndexes("events").contains(Arrays.asList("kind", "created")));
+            Assert.assertTrue(indexes.getIndexes("events").contains(Collections.singletonList("id")));
+            Assert.assertEquals(Collections.emptyList(), indexes.getIndexes("logs"));
+
+            List<SargabilityLinter.Finding> findings = new SargabilityLinter(indexes).lint(Sequel.from("events e")
+                    .select("e.id")
+                    .join(Join.join("logs l").on(Criterion.eq("l.message", "e.kind")))
+                    .where(Criterion.eq("LOWER(e.kind)", "?")));
+            Assert.assertEquals(Arrays.asList(SargabilityLinter.Rule.FUNCTION_ON_COLUMN, SargabilityLinter.Rule.JOIN_WITHOUT_INDEX),
+                    rules(findings));
+        }
+    }
+}
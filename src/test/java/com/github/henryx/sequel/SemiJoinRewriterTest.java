@@ -0,0 +1,67 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SemiJoinRewriterTest {
+    @Rule
+    public final H2Database database = new H2Database("semijoins");
+    private Executor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        this.executor = new Executor(this.database.getDataSource());
+
+        this.database.execute("CREATE TABLE orders (id INTEGER NOT NULL, customer INTEGER)",
+                "CREATE TABLE blocked (id INTEGER NOT NULL, customer INTEGER)",
+                "INSERT INTO orders VALUES (1, 10), (2, NULL), (3, 30)",
+                "INSERT INTO blocked VALUES (3, 30), (4, NULL)");
+    }
+
+    private List<Integer> ids(Sequel.Select select) throws Exception {
+        return this.executor.query(select.orderBy("o.id"), rs -> rs.getInt(1));
+    }
+
+    @Test
+    public void testNotInWithNullValues() throws Exception {
+        // NOT IN returns no rows when the subquery returns NULL, and skips rows where the filtered column is NULL
+        Sequel.Select select = Sequel.from("orders o")
+                .select("o.id")
+                .where(Criterion.nin("o.customer", Sequel.from("blocked").select("customer")))
+                .semiJoins();
+        Assert.assertEquals(Collections.emptyList(), this.ids(select));
+
+        select = Sequel.from("orders o")
+                .select("o.id")
+                .where(Criterion.nin("o.customer", Sequel.from("blocked").select("customer").where(Criterion.isNotNull("customer"))))
+                .semiJoins(Table.read(this.database.getConnection(), null, "orders"),
+                        Table.read(this.database.getConnection(), null, "blocked"));
+        Assert.assertTrue(select.getSql().contains("o.customer NOT IN"));
+        Assert.assertEquals(Collections.singletonList(1), this.ids(select));
+    }
+
+    @Test
+    public void testNotInOnNotNullColumns() throws Exception {
+        Sequel.Select select = Sequel.from("orders o")
+                .select("o.id")
+                .where(Criterion.nin("o.id", Sequel.from("blocked").select("id")))
+                .semiJoins(Table.read(this.database.getConnection(), null, "orders"),
+                        Table.read(this.database.getConnection(), null, "blocked"));
+
+        Assert.assertTrue(select.getSql().contains("NOT EXISTS (SELECT 1 FROM blocked WHERE id = o.id)"));
+        Assert.assertEquals(Arrays.asList(1, 2), this.ids(select));
+
+        select = Sequel.from("orders o")
+                .select("o.id")
+                .where(Criterion.nin("o.id", Sequel.from("blocked").select("id")))
+                .semiJoins(new Table("orders").column("id", Types.INTEGER, false));
+        Assert.assertTrue(select.getSql().contains("o.id NOT IN"));
+    }
+}
@@ -3,6 +3,8 @@ package com.github.henryx.sequel;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.sql.Types;
+
 public class SequelTest {
 
     @Test
@@ -570,4 +572,912 @@ public class SequelTest {
 
         Assert.assertEquals(expected, sql);
     }
+
+    @Test
+    public void testHintMySql() {
+        String expected = "SELECT /*+ JOIN_ORDER(a, b) */ a.t1, b.t2 FROM test1 a FORCE INDEX (idx1) JOIN test2 b USE INDEX (idx2) ON a.t1 = b.t1";
+
+        String q = Sequel.from("test1 a")
+                .select("a.t1", "b.t2")
+                .join(Join.join("test2 b")
+                        .indexHint(IndexHint.use("idx2"))
+                        .on(Criterion.eq("a.t1", "b.t1")))
+                .indexHint("a", IndexHint.force("idx1"))
+                .hint(Hint.joinOrder("a", "b"))
+                .hint(Hint.parallel(4))
+                .dialect(Dialect.MYSQL)
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testHintOracle() {
+        String expected = "SELECT /*+ PARALLEL(4) INDEX(a idx1) NO_INDEX(b idx2) */ a.t1 FROM test1 a JOIN test2 b ON a.t1 = b.t1";
+
+        String q = Sequel.from("test1 a")
+                .select("a.t1")
+                .join(Join.join("test2 b")
+                        .indexHint(IndexHint.ignore("idx2"))
+                        .on(Criterion.eq("a.t1", "b.t1")))
+                .indexHint("test1", IndexHint.use("idx1"))
+                .hint(Hint.parallel(4))
+                .dialect(Dialect.ORACLE)
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testHintSqlServer() {
+        String expected = "SELECT t1 FROM test1 WITH (INDEX(idx1)) ORDER BY t1 OPTION (FORCE ORDER, MAXDOP 2)";
+
+        String q = Sequel.from("test1")
+                .select("t1")
+                .orderBy("t1")
+                .indexHint("test1", IndexHint.force("idx1"))
+                .hint(Hint.comment("NO_MERGE"))
+                .hint(Hint.joinOrder("test1"))
+                .hint(Hint.parallel(2))
+                .dialect(Dialect.SQLSERVER)
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testHintPostgreSql() {
+        String expected = "/*+ SeqScan(test1) */ SELECT t1 FROM test1";
+
+        String q = Sequel.from("test1")
+                .select("t1")
+                .hint(Hint.comment("SeqScan(test1)"))
+                .dialect(Dialect.POSTGRESQL)
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testHintStandardDropped() {
+        String expected = "SELECT t1 FROM test1 JOIN test2 ON t3 = t1";
+
+        String q = Sequel.from("test1")
+                .select("t1")
+                .join(Join.join("test2")
+                        .indexHint(IndexHint.force("idx2"))
+                        .on(Criterion.eq("t3", "t1")))
+                .indexHint("test1", IndexHint.force("idx1"))
+                .hint(Hint.comment("NO_MERGE"))
+                .hint(Hint.parallel(2))
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testIndexHintUnknownTable() {
+        Sequel.from("test1")
+                .select("t1")
+                .indexHint("test2", IndexHint.use("idx1"));
+    }
+
+    @Test
+    public void testLimitOffsetMySql() {
+        String expected = "SELECT t1, t2 FROM test LIMIT 10 OFFSET 3";
+        String q = Sequel.from("test")
+                .select("t1", "t2")
+                .limit(10)
+                .offset(3)
+                .dialect(Dialect.MYSQL)
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testLimitOffsetSqlServer() {
+        String q = Sequel.from("test")
+                .select("t1", "t2")
+                .orderBy("t1")
+                .limit(10)
+                .offset(3)
+                .dialect(Dialect.SQLSERVER)
+                .getSql();
+        Assert.assertEquals("SELECT t1, t2 FROM test ORDER BY t1 OFFSET 3 ROWS FETCH NEXT 10 ROWS ONLY", q);
+
+        q = Sequel.from("test")
+                .select("t1", "t2")
+                .limit(10)
+                .dialect(Dialect.SQLSERVER)
+                .getSql();
+        Assert.assertEquals("SELECT t1, t2 FROM test ORDER BY (SELECT NULL) OFFSET 0 ROWS FETCH NEXT 10 ROWS ONLY", q);
+    }
+
+    @Test
+    public void testSimplifyDuplicates() {
+        String expected = "SELECT t1 FROM test WHERE t1 = 1 AND t2 = ? AND t2 = ?";
+        String q = Sequel.from("test")
+                .select("t1")
+                .where(Criterion.eq("t1", "1"))
+                .where(Criterion.eq("t2", "?"))
+                .where(Criterion.eq("t1", "1"))
+                .where(Criterion.eq("t2", "?"))
+                .simplify()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testSimplifyOrChain() {
+        String expected = "SELECT t1 FROM test WHERE t1 IN (1, 2, 3)";
+        String q = Sequel.from("test")
+                .select("t1")
+                .where(Criterion.eq("t1", "1"))
+                .where(Criterion.eq("t1", "2").method(Criterion.OR))
+                .where(Criterion.in("t1", "3", "1").method(Criterion.OR))
+                .simplify()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testSimplifyOrChainParameters() {
+        String expected = "SELECT t1 FROM test WHERE t1 IN (?, ?) OR t2 = ? OR t1 = ?";
+        String q = Sequel.from("test")
+                .select("t1")
+                .where(Criterion.eq("t1", "?"))
+                .where(Criterion.eq("t1", "?").method(Criterion.OR))
+                .where(Criterion.eq("t2", "?").method(Criterion.OR))
+                .where(Criterion.eq("t1", "?").method(Criterion.OR))
+                .simplify()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testSimplifyRanges() {
+        String expected = "SELECT t1 FROM test WHERE t1 BETWEEN 5 AND 10 AND t2 > 3";
+        String q = Sequel.from("test")
+                .select("t1")
+                .where(Criterion.gte("t1", "1"))
+                .where(Criterion.lte("t1", "10"))
+                .where(Criterion.gte("t1", "5"))
+                .where(Criterion.gt("t2", "3"))
+                .where(Criterion.gte("t2", "3"))
+                .where(Criterion.lte("t1", "20"))
+                .simplify()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testSimplifySingleIn() {
+        String expected = "SELECT t1 FROM test WHERE t1 = ? AND t2 != 3 GROUP BY t1 HAVING COUNT(t2) = 1";
+        String q = Sequel.from("test")
+                .select("t1")
+                .where(Criterion.in("t1", "?"))
+                .where(Criterion.nin("t2", "3"))
+                .groupBy("t1")
+                .having(Criterion.in(Functions.count("t2").getSql(), "1"))
+                .simplify()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testGroupOr() {
+        String expected = "SELECT t1 FROM test WHERE (t1 = 1 OR t2 = ?) AND t3 IS NULL";
+        String q = Sequel.from("test")
+                .select("t1")
+                .where(Criterion.or(Criterion.eq("t1", "1"), Criterion.eq("t2", "?")))
+                .where(Criterion.isNull("t3"))
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testGroupNested() {
+        String expected = "SELECT t1 FROM test WHERE t3 = 1 OR ((t1 = 1 OR t1 = 2) AND NOT (t2 IN (3, 4)))";
+        String q = Sequel.from("test")
+                .select("t1")
+                .where(Criterion.eq("t3", "1"))
+                .where(Criterion.and(
+                        Criterion.or(Criterion.eq("t1", "1"), Criterion.eq("t1", "2")),
+                        Criterion.not(Criterion.in("t2", "3", "4"))).method(Criterion.OR))
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testGroupNotGroup() {
+        String expected = "SELECT t1 FROM test GROUP BY t1 HAVING NOT (COUNT(t2) > 1 AND COUNT(t2) < 10)";
+        String q = Sequel.from("test")
+                .select("t1")
+                .groupBy("t1")
+                .having(Criterion.not(Criterion.and(
+                        Criterion.gt(Functions.count("t2").getSql(), "1"),
+                        Criterion.lt(Functions.count("t2").getSql(), "10"))))
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testGroupJoin() {
+        String expected = "SELECT t1 FROM test1 a JOIN test2 b ON a.t1 = b.t1 AND (b.t2 = 1 OR b.t2 IS NULL)";
+        String q = Sequel.from("test1 a")
+                .select("t1")
+                .join(Join.join("test2 b")
+                        .on(Criterion.eq("a.t1", "b.t1"))
+                        .on(Criterion.or(Criterion.eq("b.t2", "1"), Criterion.isNull("b.t2"))))
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testGroupEmpty() {
+        Criterion.or();
+    }
+
+    @Test
+    public void testSimplifyGroup() {
+        String expected = "SELECT t1 FROM test WHERE t1 IN (1, 2) AND t2 = 3";
+        String q = Sequel.from("test")
+                .select("t1")
+                .where(Criterion.or(Criterion.eq("t1", "1"), Criterion.eq("t1", "2"), Criterion.eq("t1", "1")))
+                .where(Criterion.and(Criterion.in("t2", "3")))
+                .simplify()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testExists() {
+        String expected = "SELECT o.t1 FROM test1 o WHERE EXISTS (SELECT 1 FROM test2 l WHERE l.t1 = o.t1)";
+        String q = Sequel.from("test1 o")
+                .select("o.t1")
+                .where(Criterion.exists(Sequel.from("test2 l").select("1").where(Criterion.eq("l.t1", "o.t1"))))
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testNotExists() {
+        String expected = "SELECT o.t1 FROM test1 o WHERE o.t2 = ? AND NOT EXISTS (SELECT 1 FROM test2 l WHERE l.t1 = o.t1)";
+        String q = Sequel.from("test1 o")
+                .select("o.t1")
+                .where(Criterion.eq("o.t2", "?"))
+                .where(Criterion.notExists(Sequel.from("test2 l").select("1").where(Criterion.eq("l.t1", "o.t1"))))
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testSemiJoinRewrite() {
+        String expected = "SELECT o.t1 FROM test1 o WHERE EXISTS (SELECT 1 FROM test2 WHERE (t3 = ? OR t4 = 1) AND t1 = o.t1)"
+                + " AND o.t2 NOT IN (SELECT t1 FROM test3 ORDER BY t1)";
+        Sequel.Select subquery = Sequel.from("test2")
+                .select("t1")
+                .where(Criterion.eq("t3", "?"))
+                .where(Criterion.eq("t4", "1").method(Criterion.OR));
+        String q = Sequel.from("test1 o")
+                .select("o.t1")
+                .where(Criterion.in("o.t1", subquery))
+                .where(Criterion.nin("o.t2", Sequel.from("test3").select("t1").orderBy("t1")))
+                .semiJoins()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+        Assert.assertEquals("SELECT t1 FROM test2 WHERE t3 = ? OR t4 = 1", subquery.getSql());
+    }
+
+    @Test
+    public void testSemiJoinRewriteNotNull() {
+        Table test1 = new Table("test1").column("t1", Types.INTEGER, false).column("t2", Types.INTEGER);
+        Table test3 = new Table("test3").column("t1", Types.INTEGER).column("t2", Types.INTEGER).primaryKey("t2");
+
+        String expected = "SELECT o.t1 FROM test1 o WHERE NOT EXISTS (SELECT 1 FROM test3 WHERE t2 = o.t1)"
+                + " AND o.t1 NOT IN (SELECT t1 FROM test3) AND o.t2 NOT IN (SELECT t2 FROM test3)";
+        String q = Sequel.from("test1 o")
+                .select("o.t1")
+                .where(Criterion.nin("o.t1", Sequel.from("test3").select("t2")))
+                .where(Criterion.nin("o.t1", Sequel.from("test3").select("t1")))
+                .where(Criterion.nin("o.t2", Sequel.from("test3").select("t2")))
+                .semiJoins(test1, test3)
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testSemiJoinRewriteDistinctAndAlias() {
+        String expected = "SELECT o.t1 FROM test1 o WHERE EXISTS (SELECT 1 FROM test2 WHERE t1 = o.t1)"
+                + " AND EXISTS (SELECT 1 FROM test2 b WHERE b.t2 = o.t2) AND o.t3 IN (SELECT t3 + 1 AS t FROM test2)";
+        String q = Sequel.from("test1 o")
+                .select("o.t1")
+                .where(Criterion.in("o.t1", Sequel.from("test2").select("DISTINCT t1")))
+                .where(Criterion.in("o.t2", Sequel.from("test2 b").select("b.t2 AS t")))
+                .where(Criterion.in("o.t3", Sequel.from("test2").select("t3 + 1 AS t")))
+                .semiJoins()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testSemiJoinRewriteSkipped() {
+        String expected = "SELECT t1 FROM test1 o WHERE t1 IN (SELECT t1 FROM test2) AND o.t2 IN (SELECT t2 FROM test2 o)"
+                + " AND o.t3 IN (SELECT MAX(t3) FROM test2)";
+        String q = Sequel.from("test1 o")
+                .select("t1")
+                .where(Criterion.in("t1", Sequel.from("test2").select("t1")))
+                .where(Criterion.in("o.t2", Sequel.from("test2 o").select("t2")))
+                .where(Criterion.in("o.t3", Sequel.from("test2").select(Functions.max("t3").getSql())))
+                .semiJoins()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testCountQuery() {
+        String expected = "SELECT COUNT(*) FROM test1 a LEFT JOIN test2 b ON a.t1 = b.t1 WHERE a.t2 = ?";
+        Sequel.Select q = Sequel.from("test1 a")
+                .select("a.t1", "b.t2")
+                .join(Join.join("test2 b", JoinType.LEFT).on(Criterion.eq("a.t1", "b.t1")))
+                .where(Criterion.eq("a.t2", "?"))
+                .orderBy("a.t1")
+                .limit(10)
+                .offset(20);
+
+        Assert.assertEquals(expected, q.toCountQuery().getSql());
+        Assert.assertEquals("SELECT COUNT(DISTINCT a.t1) FROM test1 a LEFT JOIN test2 b ON a.t1 = b.t1 WHERE a.t2 = ?",
+                q.toCountQuery("a.t1").getSql());
+        Assert.assertTrue(q.getSql().endsWith("OFFSET 20 ROWS FETCH FIRST 10 ROWS ONLY"));
+    }
+
+    @Test
+    public void testCountQueryGroupBy() {
+        String expected = "SELECT COUNT(*) FROM (SELECT t1, SUM(t2) FROM test GROUP BY t1) AS count_query";
+        String q = Sequel.from("test")
+                .select("t1", Functions.sum("t2").getSql())
+                .groupBy("t1")
+                .orderBy("t1")
+                .limit(10)
+                .toCountQuery()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testCountQueryUnion() {
+        String expected = "SELECT COUNT(*) FROM (SELECT t1 FROM test1 UNION SELECT t1 FROM test2) AS count_query";
+        String q = Sequel.from("test1")
+                .select("t1")
+                .union(Sequel.from("test2").select("t1"))
+                .limit(10)
+                .toCountQuery()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testWithTotalCount() {
+        String expected = "SELECT t1, t2, COUNT(*) OVER () AS total FROM test WHERE t1 > ? ORDER BY t1 OFFSET 20 ROWS FETCH FIRST 10 ROWS ONLY";
+        String q = Sequel.from("test")
+                .select("t1", "t2")
+                .where(Criterion.gt("t1", "?"))
+                .orderBy("t1")
+                .limit(10)
+                .offset(20)
+                .withTotalCount("total")
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testWithTotalCountUnion() {
+        String expected = "SELECT count_query.*, COUNT(*) OVER () AS total FROM (SELECT t1 FROM test1 UNION ALL SELECT t1 FROM test2)"
+                + " AS count_query ORDER BY t1 LIMIT 10";
+        String q = Sequel.from("test1")
+                .select("t1")
+                .unionAll(Sequel.from("test2").select("t1"))
+                .orderBy("t1")
+                .limit(10)
+                .dialect(Dialect.MYSQL)
+                .withTotalCount("total")
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testWithTotalCountDistinct() {
+        String expected = "SELECT count_query.*, COUNT(*) OVER () AS total FROM (SELECT DISTINCT a.t1, b.t2 AS t3 FROM test1 a"
+                + " JOIN test2 b ON a.t1 = b.t1) AS count_query ORDER BY count_query.t1 DESC, count_query.t3"
+                + " OFFSET 20 ROWS FETCH FIRST 10 ROWS ONLY";
+        String q = Sequel.from("test1 a")
+                .select("DISTINCT a.t1", "b.t2 AS t3")
+                .join(Join.join("test2 b").on(Criterion.eq("a.t1", "b.t1")))
+                .orderBy("a.t1 DESC", "b.t2")
+                .limit(10)
+                .offset(20)
+                .withTotalCount("total")
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testWithRowNumber() {
+        String expected = "SELECT t1, t2 * 2 AS t3, ROW_NUMBER() OVER (ORDER BY t2 * 2 DESC, t1) AS n FROM test1"
+                + " ORDER BY t3 DESC, 1 LIMIT 5";
+        String q = Sequel.from("test1")
+                .select("t1", "t2 * 2 AS t3")
+                .orderBy("t3 DESC", "1")
+                .limit(5)
+                .dialect(Dialect.MYSQL)
+                .withRowNumber("n")
+                .getSql();
+        Assert.assertEquals(expected, q);
+
+        expected = "SELECT t1, ROW_NUMBER() OVER (ORDER BY t2) AS n FROM test1";
+        q = Sequel.from("test1").select("t1").orderBy("t2").withRowNumber("n").getSql();
+        Assert.assertEquals(expected, q);
+
+        expected = "SELECT row_query.*, ROW_NUMBER() OVER (ORDER BY row_query.t1 DESC) AS n"
+                + " FROM (SELECT DISTINCT t1 FROM test1) AS row_query";
+        q = Sequel.from("test1").select("DISTINCT t1").orderBy("t1 DESC").withRowNumber("n").getSql();
+        Assert.assertEquals(expected, q);
+
+        expected = "SELECT t1, 0 AS n FROM test1";
+        q = Sequel.from("test1").select("t1").withRowNumber("n").getSql();
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testJoinTypeLeftOuter() {
+        String expected = "SELECT t1, t2 FROM test1 LEFT OUTER JOIN test2 ON t3 = t2";
+
+        String q = Sequel.from("test1")
+                .select("t1", "t2")
+                .join(Join.join("test2", JoinType.LEFTOUTER)
+                        .on(Criterion.eq("t3", "t2")))
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testEliminateJoins() {
+        String expected = "SELECT a.t1, c.t2 FROM test1 a LEFT JOIN test3 c ON a.t3 = c.t1 JOIN test4 d ON d.t1 = a.t1 WHERE a.t2 = ?";
+
+        String q = Sequel.from("test1 a")
+                .select("a.t1", "c.t2")
+                .join(Join.join("test2 b", JoinType.LEFT).unique().on(Criterion.eq("a.t2", "b.t1")))
+                .join(Join.join("test3 c", JoinType.LEFT).unique().on(Criterion.eq("a.t3", "c.t1")))
+                .join(Join.join("test4 d").on(Criterion.eq("d.t1", "a.t1")))
+                .join(Join.join("test5 e", JoinType.LEFTOUTER).unique().on(Criterion.eq("a.t4", "e.t1")))
+                .join(Join.join("test6 f", JoinType.LEFTOUTER).unique().on(Criterion.eq("e.t2", "f.t1")))
+                .where(Criterion.eq("a.t2", "?"))
+                .eliminateJoins()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testEliminateJoinsKept() {
+        String expected = "SELECT a.t1 FROM test1 a LEFT JOIN test2 b ON a.t2 = b.t1 LEFT JOIN test3 ON a.t3 = test3.t1"
+                + " WHERE EXISTS (SELECT 1 FROM test4 WHERE test4.t1 = test3.t2) ORDER BY b.t2";
+
+        String q = Sequel.from("test1 a")
+                .select("a.t1")
+                .join(Join.join("test2 b", JoinType.LEFT).unique().on(Criterion.eq("a.t2", "b.t1")))
+                .join(Join.join("test3", JoinType.LEFT).unique().on(Criterion.eq("a.t3", "test3.t1")))
+                .where(Criterion.exists(Sequel.from("test4").select("1").where(Criterion.eq("test4.t1", "test3.t2"))))
+                .orderBy("b.t2")
+                .eliminateJoins()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testEliminateJoinsUnqualified() {
+        String expected = "SELECT a.t1, t5 FROM test1 a LEFT JOIN test2 b ON a.t2 = b.t1";
+        String q = Sequel.from("test1 a")
+                .select("a.t1", "t5")
+                .join(Join.join("test2 b", JoinType.LEFT).unique().on(Criterion.eq("a.t2", "b.t1")))
+                .eliminateJoins()
+                .getSql();
+        Assert.assertEquals(expected, q);
+
+        Table test2 = new Table("test2").column("t1", Types.INTEGER).column("t5", Types.INTEGER).primaryKey("t1").as("b");
+        expected = "SELECT a.t1, a.t2 + 1 AS t3 FROM test1 a LEFT JOIN test2 b ON a.t2 = b.t1 WHERE t5 > ? ORDER BY t3 DESC";
+        q = Sequel.from("test1 a")
+                .select("a.t1", "a.t2 + 1 AS t3")
+                .join(Join.join(test2, JoinType.LEFT).on(Criterion.eq("a.t2", "b.t1")))
+                .where(Criterion.gt("t5", "?"))
+                .orderBy("t3 DESC")
+                .eliminateJoins()
+                .getSql();
+        Assert.assertEquals(expected, q);
+
+        expected = "SELECT a.t1, a.t2 + 1 AS t3 FROM test1 a WHERE t4 > ? ORDER BY t3 DESC";
+        q = Sequel.from("test1 a")
+                .select("a.t1", "a.t2 + 1 AS t3")
+                .join(Join.join(test2, JoinType.LEFT).on(Criterion.eq("a.t2", "b.t1")))
+                .where(Criterion.gt("t4", "?"))
+                .orderBy("t3 DESC")
+                .eliminateJoins()
+                .getSql();
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testCountQueryEliminateJoins() {
+        String expected = "SELECT COUNT(*) FROM test1 a WHERE a.t2 = ?";
+        String q = Sequel.from("test1 a")
+                .select("a.t1", "b.t2")
+                .join(Join.join("test2 b", JoinType.LEFT).unique().on(Criterion.eq("a.t1", "b.t1")))
+                .where(Criterion.eq("a.t2", "?"))
+                .orderBy("b.t2")
+                .toCountQuery()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testDerivedTablePushDown() {
+        String expected = "SELECT d.t1, d.total FROM (SELECT a.t1, a.t2 * 2 AS total FROM test1 a WHERE a.t3 = ? AND a.t1 = ? AND (a.t2 * 2) > 10)"
+                + " AS d WHERE d.t1 != b.t1";
+
+        Sequel.Select inner = Sequel.from("test1 a")
+                .select("a.t1", "a.t2 * 2 AS total", "a.t3", "a.t4 label")
+                .where(Criterion.eq("a.t3", "?"));
+        String q = Sequel.from(inner, "d")
+                .select("d.t1", "d.total")
+                .where(Criterion.eq("d.t1", "?"))
+                .where(Criterion.neq("d.t1", "b.t1"))
+                .where(Criterion.gt("d.total", "10"))
+                .optimizeDerivedTables()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+        Assert.assertEquals("SELECT a.t1, a.t2 * 2 AS total, a.t3, a.t4 label FROM test1 a WHERE a.t3 = ?", inner.getSql());
+    }
+
+    @Test
+    public void testDerivedTablePushDownParameters() {
+        String expected = "SELECT d.t1 FROM (SELECT t1, t2 FROM test WHERE t2 = 1) AS d WHERE d.t2 = t1 + ? AND d.t1 = ?";
+
+        String q = Sequel.from(Sequel.from("test").select("t1", "t2", "t3"), "d")
+                .select("d.t1")
+                .where(Criterion.eq("d.t2", "t1 + ?"))
+                .where(Criterion.eq("d.t1", "?"))
+                .where(Criterion.eq("d.t2", "1"))
+                .optimizeDerivedTables()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testDerivedTableOuterJoin() {
+        // Outer join rows have NULL columns of the subquery, and must be filtered by the outer query
+        String expected = "SELECT d.t1, b.t3 FROM (SELECT t1, t2 FROM test1) AS d RIGHT JOIN test2 b ON d.t2 = b.t2"
+                + " WHERE d.t1 IS NULL";
+        String q = Sequel.from(Sequel.from("test1").select("t1", "t2"), "d")
+                .select("d.t1", "b.t3")
+                .join(Join.join("test2 b", JoinType.RIGHT).on(Criterion.eq("d.t2", "b.t2")))
+                .where(Criterion.isNull("d.t1"))
+                .optimizeDerivedTables()
+                .getSql();
+        Assert.assertEquals(expected, q);
+
+        expected = "SELECT d.t1, b.t3 FROM (SELECT t1, t2 FROM test1) AS d FULL OUTER JOIN test2 b ON d.t2 = b.t2"
+                + " WHERE d.t1 = 1";
+        q = Sequel.from(Sequel.from("test1").select("t1", "t2"), "d")
+                .select("d.t1", "b.t3")
+                .join(Join.join("test2 b", JoinType.FULLOUTER).on(Criterion.eq("d.t2", "b.t2")))
+                .where(Criterion.eq("d.t1", "1"))
+                .optimizeDerivedTables()
+                .getSql();
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testDerivedTableLeftJoin() {
+        // The subquery is the preserved side of the LEFT join, so its criteria are moved
+        String expected = "SELECT d.t1, b.t3 FROM (SELECT t1, t2 FROM test1 WHERE t1 = 1) AS d LEFT JOIN test2 b ON d.t2 = b.t2";
+        String q = Sequel.from(Sequel.from("test1").select("t1", "t2"), "d")
+                .select("d.t1", "b.t3")
+                .join(Join.join("test2 b", JoinType.LEFT).on(Criterion.eq("d.t2", "b.t2")))
+                .where(Criterion.eq("d.t1", "1"))
+                .optimizeDerivedTables()
+                .getSql();
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testDerivedTableAggregate() {
+        String expected = "SELECT d.t1 FROM (SELECT t1, SUM(t2) AS total FROM test GROUP BY t1) AS d WHERE d.total > 10";
+
+        String q = Sequel.from(Sequel.from("test").select("t1", "SUM(t2) AS total", "MAX(t3) AS top").groupBy("t1"), "d")
+                .select("d.t1")
+                .where(Criterion.gt("d.total", "10"))
+                .optimizeDerivedTables()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testDerivedTableLateral() {
+        String expected = "SELECT d.t1, l.t3 FROM (SELECT t1, t2 FROM test1) AS d CROSS JOIN LATERAL"
+                + " (SELECT t3 FROM test2 WHERE test2.t1 = d.t2 FETCH FIRST 1 ROWS ONLY) l";
+
+        String q = Sequel.from(Sequel.from("test1").select("t1", "t2", "t4"), "d")
+                .select("d.t1", "l.t3")
+                .join(Join.lateral(Sequel.from("test2").select("t3").where(Criterion.eq("test2.t1", "d.t2")).limit(1), "l"))
+                .optimizeDerivedTables()
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testDerivedTableWildcard() {
+        String q = Sequel.from(Sequel.from("test").select("t1", "t2").where(Criterion.eq("t1", "1")).where(Criterion.eq("t2", "2").method(Criterion.OR)), "d")
+                .select("*")
+                .where(Criterion.eq("d.t3", "'x'"))
+                .getSql();
+
+        Assert.assertEquals("SELECT * FROM (SELECT t1, t2 FROM test WHERE t1 = 1 OR t2 = 2) AS d WHERE d.t3 = 'x'", q);
+
+        q = Sequel.from(Sequel.from("test").select("*").where(Criterion.eq("t1", "1")).where(Criterion.eq("t2", "2").method(Criterion.OR)), "d")
+                .select("*")
+                .where(Criterion.eq("d.t3", "'x'"))
+                .optimizeDerivedTables()
+                .getSql();
+
+        Assert.assertEquals("SELECT * FROM (SELECT * FROM test WHERE (t1 = 1 OR t2 = 2) AND t3 = 'x') AS d", q);
+    }
+
+    @Test
+    public void testTypedTable() {
+        Table orders = new Table("orders")
+                .column("id", Types.INTEGER, false)
+                .column("customer_id", Types.INTEGER)
+                .column("order date", Types.DATE)
+                .primaryKey("id");
+        Table customers = new Table("customers").column("id", Types.INTEGER, false).column("name", Types.VARCHAR)
+                .primaryKey("id").as("c");
+
+        String expected = "SELECT orders.id, c.name FROM orders JOIN customers c ON orders.customer_id = c.id"
+                + " WHERE orders.\"order date\" BETWEEN ? AND ? AND c.name IS NOT NULL"
+                + " GROUP BY orders.id, c.name ORDER BY orders.id";
+        String q = Sequel.from(orders)
+                .select(orders.get("id"), customers.get("name"))
+                .join(Join.join(customers).on(Criterion.eq(orders.get("customer_id"), customers.get("id"))))
+                .where(Criterion.between(orders.get("Order Date"), "?", "?"))
+                .where(Criterion.isNotNull(customers.get("name")))
+                .groupBy(orders.get("id"), customers.get("name"))
+                .orderBy(orders.get("id"))
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+        Assert.assertSame("orders.id", orders.get("ID").getSql());
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testTypedTableUnknownColumn() {
+        new Table("orders").column("id", Types.INTEGER).primaryKey("code");
+    }
+
+    @Test
+    public void testEliminateJoinsOnKey() {
+        Table orders = new Table("orders").column("id", Types.INTEGER).column("customer_id", Types.INTEGER)
+                .column("status", Types.VARCHAR).primaryKey("id").as("o");
+        Table customers = new Table("customers").column("id", Types.INTEGER).column("region", Types.VARCHAR)
+                .column("code", Types.VARCHAR).primaryKey("id").unique("region", "code").as("c");
+
+        String q = Sequel.from(orders)
+                .select(orders.get("id"))
+                .join(Join.join(customers, JoinType.LEFT).on(Criterion.eq(orders.get("customer_id"), customers.get("id"))))
+                .eliminateJoins()
+                .getSql();
+        Assert.assertEquals("SELECT o.id FROM orders o", q);
+
+        q = Sequel.from(orders)
+                .select(orders.get("id"))
+                .join(Join.join(customers, JoinType.LEFT)
+                        .on(Criterion.eq(customers.get("region"), "'EU'"))
+                        .on(Criterion.eq(customers.get("code"), orders.get("status"))))
+                .eliminateJoins()
+                .getSql();
+        Assert.assertEquals("SELECT o.id FROM orders o", q);
+
+        String expected = "SELECT o.id FROM orders o LEFT JOIN customers c ON c.region = 'EU'";
+        q = Sequel.from(orders)
+                .select(orders.get("id"))
+                .join(Join.join(customers, JoinType.LEFT).on(Criterion.eq(customers.get("region"), "'EU'")))
+                .eliminateJoins()
+                .getSql();
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testLateralJoin() {
+        Sequel.Select latest = Sequel.from("orders o")
+                .select("o.id", "o.created")
+                .where(Criterion.eq("o.customer_id", "c.id"))
+                .orderBy("o.created DESC")
+                .limit(5);
+
+        String expected = "SELECT c.name, l.id FROM customers c CROSS JOIN LATERAL (SELECT o.id, o.created FROM orders o"
+                + " WHERE o.customer_id = c.id ORDER BY o.created DESC FETCH FIRST 5 ROWS ONLY) l WHERE c.region = ?";
+        String q = Sequel.from("customers c")
+                .select("c.name", "l.id")
+                .join(Join.lateral(latest, "l"))
+                .where(Criterion.eq("c.region", "?"))
+                .getSql();
+        Assert.assertEquals(expected, q);
+
+        expected = "SELECT c.name, l.id FROM customers c LEFT JOIN LATERAL (SELECT o.id, o.created FROM orders o"
+                + " WHERE o.customer_id = c.id ORDER BY o.created DESC FETCH FIRST 5 ROWS ONLY) l ON TRUE";
+        q = Sequel.from("customers c")
+                .select("c.name", "l.id")
+                .join(Join.lateral(latest, "l", JoinType.LEFT))
+                .dialect(Dialect.POSTGRESQL)
+                .getSql();
+        Assert.assertEquals(expected, q);
+
+        expected = "SELECT c.name, l.id FROM customers c INNER JOIN LATERAL (SELECT o.id, o.created FROM orders o"
+                + " WHERE o.customer_id = c.id ORDER BY o.created DESC FETCH FIRST 5 ROWS ONLY) l ON l.created > ?";
+        q = Sequel.from("customers c")
+                .select("c.name", "l.id")
+                .join(Join.lateral(latest, "l", JoinType.INNER).on(Criterion.gt("l.created", "?")))
+                .getSql();
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test
+    public void testLateralJoinApply() {
+        Sequel.Select latest = Sequel.from("orders o")
+                .select("o.id", "o.created")
+                .where(Criterion.eq("o.customer_id", "c.id"))
+                .orderBy("o.created DESC")
+                .limit(5);
+
+        String expected = "SELECT c.name, l.id FROM customers c CROSS APPLY (SELECT o.id, o.created FROM orders o"
+                + " WHERE o.customer_id = c.id ORDER BY o.created DESC OFFSET 0 ROWS FETCH NEXT 5 ROWS ONLY) l";
+        String q = Sequel.from("customers c")
+                .select("c.name", "l.id")
+                .join(Join.lateral(latest, "l"))
+                .dialect(Dialect.SQLSERVER)
+                .getSql();
+        Assert.assertEquals(expected, q);
+
+        expected = "SELECT c.name, l.id FROM customers c OUTER APPLY (SELECT * FROM (SELECT o.id, o.created FROM orders o"
+                + " WHERE o.customer_id = c.id ORDER BY o.created DESC OFFSET 0 ROWS FETCH NEXT 5 ROWS ONLY) l"
+                + " WHERE l.created > ?) l";
+        q = Sequel.from("customers c")
+                .select("c.name", "l.id")
+                .join(Join.lateral(latest, "l", JoinType.LEFTOUTER).on(Criterion.gt("l.created", "?")))
+                .dialect(Dialect.SQLSERVER)
+                .getSql();
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testLateralJoinUnsupported() {
+        Sequel.from("customers c")
+                .select("c.name", "l.id")
+                .join(Join.lateral(Sequel.from("orders o").select("o.id").where(Criterion.eq("o.customer_id", "c.id")), "l"))
+                .dialect(Dialect.SQLITE)
+                .getSql();
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testLateralJoinRight() {
+        Join.lateral(Sequel.from("orders").select("id"), "l", JoinType.RIGHT);
+    }
+
+    @Test
+    public void testInsertRows() {
+        String expected = "INSERT INTO test1 (t1, t2) VALUES (?, ?), (?, ?), (1, 'x')";
+        String q = Sequel.into("test1")
+                .columns("t1", "t2")
+                .row("?", "?")
+                .row("?", "?")
+                .row("1", "'x'")
+                .getSql();
+
+        Assert.assertEquals(expected, q);
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testInsertRowsMismatch() {
+        Sequel.into("test1")
+                .insert("?", "?")
+                .row("?")
+                .getSql();
+    }
+
+    @Test
+    public void testInsertReturning() {
+        Sequel.Insert insert = Sequel.into("test1")
+                .columns("t1", "t2")
+                .row("?", "?")
+                .row("?", "?")
+                .returning("id", "created");
+
+        Assert.assertEquals("INSERT INTO test1 (t1, t2) VALUES (?, ?), (?, ?)", insert.getSql());
+        Assert.assertEquals("INSERT INTO test1 (t1, t2) VALUES (?, ?), (?, ?) RETURNING id, created",
+                insert.dialect(Dialect.POSTGRESQL).getSql());
+        Assert.assertEquals("INSERT INTO test1 (t1, t2) OUTPUT inserted.id, inserted.created VALUES (?, ?), (?, ?)",
+                insert.dialect(Dialect.SQLSERVER).getSql());
+
+        String q = Sequel.into("test1")
+                .columns("t1")
+                .select(Sequel.from("test2").select("t1").where(Criterion.eq("t2", "?")))
+                .returning("*")
+                .dialect(Dialect.SQLSERVER)
+                .getSql();
+        Assert.assertEquals("INSERT INTO test1 (t1) OUTPUT inserted.* SELECT t1 FROM test2 WHERE t2 = ?", q);
+    }
+
+    @Test
+    public void testTableSample() {
+        Sequel.Select select = Sequel.from("orders o", "customers")
+                .select("o.id", "customers.name")
+                .where(Criterion.eq("o.customer_id", "customers.id"))
+                .tableSample("o", TableSample.bernoulli(10).repeatable(42))
+                .tableSample("customers", TableSample.system(2.5));
+
+        Assert.assertEquals("SELECT o.id, customers.name FROM orders o TABLESAMPLE BERNOULLI (10) REPEATABLE (42), "
+                + "customers TABLESAMPLE SYSTEM (2.5) WHERE o.customer_id = customers.id", select.getSql());
+        Assert.assertEquals("SELECT o.id, customers.name FROM orders SAMPLE (10) SEED (42) o, "
+                + "customers SAMPLE BLOCK (2.5) WHERE o.customer_id = customers.id", select.dialect(Dialect.ORACLE).getSql());
+        Assert.assertEquals("SELECT o.id, customers.name FROM orders o, customers WHERE o.customer_id = customers.id",
+                select.dialect(Dialect.MYSQL).getSql());
+
+        String q = Sequel.from("orders")
+                .select("id")
+                .tableSample("orders", TableSample.bernoulli(1).repeatable(7))
+                .indexHint("orders", IndexHint.use("idx1"))
+                .dialect(Dialect.SQLSERVER)
+                .getSql();
+        Assert.assertEquals("SELECT id FROM orders TABLESAMPLE SYSTEM (1 PERCENT) REPEATABLE (7) WITH (INDEX(idx1))", q);
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testTableSampleUnknownTable() {
+        Sequel.from(Sequel.from("orders").select("id"), "o")
+                .select("o.id")
+                .tableSample("o", TableSample.system(10));
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testTableSamplePercentage() {
+        TableSample.system(120);
+    }
 }
@@ -0,0 +1,167 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ShardedExecutorTest {
+    private final List<H2Database> databases = Arrays.asList(
+            new H2Database("shard0"), new H2Database("shard1"), new H2Database("shard2"));
+    @Rule
+    public final RuleChain chain = RuleChain.outerRule(this.databases.get(0))
+            .around(this.databases.get(1))
+            .around(this.databases.get(2));
+    private final List<Executor> shards = new ArrayList<>();
+    private final AtomicInteger executions = new AtomicInteger();
+    private ShardedExecutor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        for (H2Database database : this.databases) {
+            database.execute("CREATE TABLE orders (customer_id INT, amount INT, region VARCHAR(10))");
+
+            this.shards.add(new Executor(database.getDataSource()) {
+                @Override
+                protected Connection getConnection(boolean write) throws SQLException {
+                    if (!write) {
+                        executions.incrementAndGet();
+                    }
+                    return super.getConnection(write);
+                }
+            });
+        }
+
+        this.executor = new ShardedExecutor("customer_id", this.shards, key -> Integer.parseInt(key) % 3);
+
+        // Customers 1 to 9, with amounts 10 * customer and 10 * customer + 1
+        for (int customer = 1; customer <= 9; customer++) {
+            for (int amount : new int[]{customer * 10, customer * 10 + 1}) {
+                this.executor.shard(customer).update(Sequel.into("orders").insert("?", "?", "?"),
+                        customer, amount, customer % 2 == 0 ? "even" : "odd");
+            }
+        }
+        this.executions.set(0);
+    }
+
+    @Test
+    public void testRouting() throws Exception {
+        Sequel.Select q = Sequel.from("orders").select("amount")
+                .where(Criterion.gt("amount", "?"))
+                .where(Criterion.eq("customer_id", "?"))
+                .orderBy("amount");
+
+        Assert.assertEquals(Arrays.asList(40, 41), this.executor.query(q, rs -> rs.getInt(1), 0, 4));
+        Assert.assertEquals(1, this.executions.get());
+
+        Sequel.Select in = Sequel.from("orders o").select("o.amount")
+                .where(Criterion.in("o.customer_id", "1", "4", "2"))
+                .orderBy("o.amount DESC");
+        Assert.assertEquals(Arrays.asList(41, 40, 21, 20, 11, 10), this.executor.query(in, rs -> rs.getInt(1)));
+        Assert.assertEquals(3, this.executions.get());
+    }
+
+    @Test
+    public void testRoutingParameters() throws Exception {
+        // The ? in the literal is not a parameter, so the customer is the second parameter
+        Sequel.Select q = Sequel.from("orders o")
+                .select("o.amount", "CASE WHEN o.region = '?' THEN 1 END AS flag")
+                .where(Criterion.gt("o.amount", "?"))
+                .where(Criterion.eq("o.customer_id", "?"))
+                .orderBy("o.amount");
+
+        Assert.assertEquals(Collections.singleton(1), this.executor.route(q, 0, 4));
+        Assert.assertEquals(Arrays.asList(40, 41), this.executor.query(q, rs -> rs.getInt(1), 0, 4));
+    }
+
+    @Test
+    public void testRoutingBroadcast() {
+        Set<Integer> all = new TreeSet<>(Arrays.asList(0, 1, 2));
+
+        // Columns compared with other columns can match rows of every shard
+        Sequel.Select comma = Sequel.from("orders o", "orders c").select("o.amount")
+                .where(Criterion.eq("o.customer_id", "c.customer_id"))
+                .where(Criterion.eq("c.region", "'odd'"));
+        Assert.assertEquals(all, this.executor.route(comma));
+
+        // Only the shard column of the tables in the FROM clause routes the query
+        Sequel.Select joined = Sequel.from("orders o").select("o.amount")
+                .join(Join.join("customers x").on(Criterion.eq("x.id", "o.customer_id")))
+                .where(Criterion.eq("x.customer_id", "?"));
+        Assert.assertEquals(all, this.executor.route(joined, 4));
+
+        Sequel.Select unqualified = Sequel.from("orders o").select("o.amount")
+                .join(Join.join("customers x").on(Criterion.eq("x.id", "o.customer_id")))
+                .where(Criterion.eq("customer_id", "?"));
+        Assert.assertEquals(all, this.executor.route(unqualified, 4));
+
+        Sequel.Select qualified = Sequel.from("orders o").select("o.amount")
+                .join(Join.join("customers x").on(Criterion.eq("x.id", "o.customer_id")))
+                .where(Criterion.eq("o.customer_id", "'5'"));
+        Assert.assertEquals(Collections.singleton(2), this.executor.route(qualified));
+    }
+
+    @Test
+    public void testMergeOrder() throws Exception {
+        Sequel.Select q = Sequel.from("orders").select("customer_id", "amount")
+                .orderBy("amount DESC")
+                .limit(3)
+                .offset(2);
+
+        Assert.assertEquals(Arrays.asList(81, 80, 71), this.executor.query(q, rs -> rs.getInt("amount")));
+        Assert.assertEquals(3, this.executions.get());
+    }
+
+    @Test
+    public void testAggregates() throws Exception {
+        Sequel.Select q = Sequel.from("orders")
+                .select("region", Functions.count("*") + " AS n", Functions.sum("amount") + " AS total",
+                        Functions.min("amount") + " AS low", Functions.max("amount") + " AS high",
+                        Functions.avg("amount") + " AS average")
+                .groupBy("region")
+                .orderBy("total DESC");
+
+        List<Object[]> rows = this.executor.query(q, rs -> new Object[]{rs.getString("region"), rs.getLong("n"),
+                rs.getLong("total"), rs.getInt("low"), rs.getInt("high"), rs.getBigDecimal("average")});
+
+        Assert.assertEquals(2, rows.size());
+        Assert.assertArrayEquals(new Object[]{"odd", 10L, 505L, 10, 91, new BigDecimal("50.5")}, rows.get(0));
+        Assert.assertArrayEquals(new Object[]{"even", 8L, 404L, 20, 81, new BigDecimal("50.5")}, rows.get(1));
+
+        Sequel.Select total = Sequel.from("orders").select(Functions.avg("amount").getSql());
+        Assert.assertEquals(Arrays.asList(50.5), this.executor.query(total, rs -> rs.getDouble(1)));
+    }
+
+    @Test
+    public void testAggregatesGroupNotSelected() throws Exception {
+        // region is not selected, but the rows of the two regions must not be combined
+        Sequel.Select q = Sequel.from("orders")
+                .select(Functions.count("*") + " AS n", Functions.sum("amount") + " AS total")
+                .groupBy("region")
+                .orderBy("total DESC");
+
+        List<Object[]> rows = this.executor.query(q, rs -> new Object[]{rs.getLong("n"), rs.getLong("total"),
+                rs.getMetaData().getColumnCount()});
+
+        Assert.assertEquals(2, rows.size());
+        Assert.assertArrayEquals(new Object[]{10L, 505L, 2}, rows.get(0));
+        Assert.assertArrayEquals(new Object[]{8L, 404L, 2}, rows.get(1));
+    }
+
+    @Test(expected = ValueMismatchException.class)
+    public void testUnsupportedOrder() throws Exception {
+        this.executor.query(Sequel.from("orders").select("amount").orderBy("region"), rs -> rs.getInt(1));
+    }
+}
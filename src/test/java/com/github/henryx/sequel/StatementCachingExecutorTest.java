@@ -0,0 +1,135 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class StatementCachingExecutorTest {
+    private static final CompiledQuery SELECT = CompiledQuery.of(Sequel.from("test1").select("t1").where(Criterion.eq("t1", "?")));
+    private static final CompiledQuery COUNT = CompiledQuery.of(Sequel.from("test1").select(Functions.count("*").getSql()));
+    private static final CompiledQuery INSERT = CompiledQuery.of(Sequel.into("test1").insert("?"));
+
+    @Rule
+    public final H2Database database = new H2Database("statements");
+    private StatementCachingExecutor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        this.database.execute("CREATE TABLE test1 (t1 INT)",
+                "INSERT INTO test1 SELECT x FROM SYSTEM_RANGE(1, 10)");
+
+        // A single physical connection, as handed out by a pool of size one
+        this.executor = new StatementCachingExecutor(this.database.getDataSource(), 2) {
+            @Override
+            protected Connection getConnection(boolean write) {
+                return database.getConnection();
+            }
+
+            @Override
+            protected void releaseConnection(Connection connection) {
+            }
+        };
+    }
+
+    @Test
+    public void testHitsAndEvictions() throws Exception {
+        Assert.assertEquals(Collections.singletonList(3), this.executor.query(SELECT, rs -> rs.getInt(1), 3));
+        Assert.assertEquals(Collections.singletonList(4), this.executor.query(SELECT, rs -> rs.getInt(1), 4));
+        Assert.assertEquals(1, this.executor.getMisses());
+        Assert.assertEquals(1, this.executor.getHits());
+
+        Assert.assertEquals(1, this.executor.update(INSERT, 11));
+        Assert.assertEquals(Collections.singletonList(11L), this.executor.query(COUNT, rs -> rs.getLong(1)));
+        Assert.assertEquals(1, this.executor.getEvictions());
+        Assert.assertEquals(3, this.executor.getMisses());
+
+        // An equal SQL compiled again is a different query
+        CompiledQuery other = CompiledQuery.of(SELECT.getSql());
+        Assert.assertEquals(Collections.singletonList(5), this.executor.query(other, rs -> rs.getInt(1), 5));
+        Assert.assertEquals(4, this.executor.getMisses());
+    }
+
+    @Test
+    public void testPrewarm() throws Exception {
+        this.executor.register(SELECT, COUNT);
+
+        Assert.assertEquals(Collections.singletonList(10L), this.executor.query(COUNT, rs -> rs.getLong(1)));
+        Assert.assertEquals(Arrays.asList(1), this.executor.query(SELECT, rs -> rs.getInt(1), 1));
+        Assert.assertEquals(2, this.executor.getHits());
+        Assert.assertEquals(0, this.executor.getMisses());
+    }
+
+    @Test
+    public void testPooledDataSource() throws Exception {
+        StatementCachingExecutor pooled = new StatementCachingExecutor(pool(this.database.getConnection()), 2);
+
+        Assert.assertEquals(Collections.singletonList(3), pooled.query(SELECT, rs -> rs.getInt(1), 3));
+        Assert.assertEquals(Collections.singletonList(4), pooled.query(SELECT, rs -> rs.getInt(1), 4));
+        Assert.assertEquals(1, pooled.getMisses());
+        Assert.assertEquals(1, pooled.getHits());
+    }
+
+    @Test
+    public void testFailedStatementIsDiscarded() throws Exception {
+        try {
+            this.executor.query(SELECT, rs -> rs.getInt(1), "not a number");
+            Assert.fail("Expected failure");
+        } catch (SQLException e) {
+            Assert.assertEquals(Collections.singletonList(2), this.executor.query(SELECT, rs -> rs.getInt(1), 2));
+            Assert.assertEquals(2, this.executor.getMisses());
+        }
+    }
+
+    /**
+     * Returns a DataSource handing out a single physical connection in handles that close the statements prepared on
+     * them when they are closed, like the connections of a pool
+     */
+    private static DataSource pool(Connection physical) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (source, getConnection, none) -> {
+                    List<Statement> statements = new ArrayList<>();
+                    boolean[] closed = {false};
+
+                    return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                            (proxy, method, args) -> {
+                                switch (method.getName()) {
+                                    case "close":
+                                        for (Statement statement : statements) {
+                                            statement.close();
+                                        }
+                                        closed[0] = true;
+                                        return null;
+                                    case "isClosed":
+                                        return closed[0];
+                                    case "isWrapperFor":
+                                        return args[0] == Connection.class;
+                                    case "unwrap":
+                                        return physical;
+                                    default:
+                                        try {
+                                            Object result = method.invoke(physical, args);
+                                            if (result instanceof Statement) {
+                                                statements.add((Statement) result);
+                                            }
+                                            return result;
+                                        } catch (InvocationTargetException e) {
+                                            throw e.getCause();
+                                        }
+                                }
+                            });
+                });
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+public class TableTest {
+    @Rule
+    public final H2Database database = new H2Database("tables");
+
+    @Before
+    public void setUp() throws Exception {
+        this.database.execute("CREATE TABLE customers (id INTEGER PRIMARY KEY, region VARCHAR(2) NOT NULL,"
+                        + " code VARCHAR(10) NOT NULL, name VARCHAR(50), UNIQUE (region, code))",
+                "CREATE TABLE orders (id BIGINT PRIMARY KEY, customer_id INTEGER, total DECIMAL(10, 2))",
+                "INSERT INTO customers VALUES (1, 'EU', 'A', 'Alice'), (2, 'US', 'B', 'Bob')",
+                "INSERT INTO orders VALUES (10, 1, 5.50), (11, 2, 7.25)");
+    }
+
+    @Test
+    public void testRead() throws SQLException {
+        Table customers = Table.read(this.database.getConnection(), null, "customers");
+
+        Assert.assertEquals(Arrays.asList("ID", "REGION", "CODE", "NAME"),
+                customers.getColumns().stream().map(Column::getName).collect(Collectors.toList()));
+        Assert.assertEquals(Collections.singletonList("ID"), customers.getPrimaryKey());
+        Assert.assertEquals(Collections.singletonList(Arrays.asList("REGION", "CODE")), customers.getUniqueKeys());
+        Assert.assertEquals(Types.VARCHAR, customers.get("region").getType());
+        Assert.assertFalse(customers.get("region").isNullable());
+        Assert.assertTrue(customers.get("name").isNullable());
+        Assert.assertEquals("customers.ID", customers.get("id").getSql());
+    }
+
+    @Test(expected = SQLException.class)
+    public void testReadMissing() throws SQLException {
+        Table.read(this.database.getConnection(), null, "missing");
+    }
+
+    @Test
+    public void testQuoteDialect() {
+        Assert.assertEquals("`order items`.`user`", new Table("order items", Dialect.MYSQL).column("user", Types.INTEGER)
+                .get("user").getSql());
+        Assert.assertEquals("[order items].[user]", new Table("order items", Dialect.SQLSERVER).column("user", Types.INTEGER)
+                .get("user").getSql());
+        Assert.assertEquals("\"user\"", new Table("user", Dialect.POSTGRESQL).getSql());
+        Assert.assertEquals("\"USER\"", new Table("user", Dialect.ORACLE).getSql());
+        Assert.assertEquals("\"user\"", new Table("user").getSql());
+        Assert.assertEquals("orders o", new Table("orders", Dialect.ORACLE).as("o").getSql());
+    }
+
+    @Test
+    public void testQuoteStored() throws SQLException {
+        this.database.execute("CREATE TABLE events (\"Id\" INTEGER, \"ORDER\" INTEGER, amount INTEGER)",
+                "INSERT INTO events VALUES (1, 2, 3)");
+
+        Table events = Table.read(this.database.getConnection(), null, "events").as("e");
+        Assert.assertEquals("e.\"Id\"", events.get("id").getSql());
+        Assert.assertEquals("e.\"ORDER\"", events.get("order").getSql());
+        Assert.assertEquals("e.AMOUNT", events.get("amount").getSql());
+
+        Sequel.Select select = Sequel.from(events).select(events.get("id"), events.get("order"), events.get("amount"));
+        Assert.assertEquals(Collections.singletonList(Arrays.asList(1, 2, 3)),
+                new Executor(this.database.getDataSource()).query(select,
+                        rs -> Arrays.asList(rs.getInt(1), rs.getInt(2), rs.getInt(3))));
+    }
+
+    @Test
+    public void testQuery() throws SQLException {
+        Table orders = Table.read(this.database.getConnection(), "public", "orders").as("o");
+        Table customers = Table.read(this.database.getConnection(), null, "customers").as("c");
+
+        Sequel.Select select = Sequel.from(orders)
+                .select(orders.get("id"), orders.get("total"))
+                .join(Join.join(customers, JoinType.LEFT).on(Criterion.eq(customers.get("id"), orders.get("customer_id"))))
+                .where(Criterion.gt(orders.get("total"), "?"))
+                .eliminateJoins();
+
+        Assert.assertEquals("SELECT o.ID, o.TOTAL FROM public.orders o WHERE o.TOTAL > ?", select.getSql());
+
+        Executor executor = new Executor(this.database.getDataSource());
+        Assert.assertEquals(Collections.singletonList(11L),
+                executor.query(select, rs -> rs.getLong(1), 6));
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.henryx.sequel;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+public class FlowRowPublisherTest {
+    @Rule
+    public final H2Database database = new H2Database("flow");
+    private Executor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        this.database.execute("CREATE TABLE test1 (t1 INT)", "INSERT INTO test1 SELECT x FROM SYSTEM_RANGE(1, 10)");
+
+        this.executor = new Executor(this.database.getDataSource());
+    }
+
+    @Test
+    public void testBackpressure() {
+        List<Integer> rows = new ArrayList<>();
+        boolean[] completed = new boolean[1];
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+
+        Sequel.Select q = Sequel.from("test1").select("t1").where(Criterion.gt("t1", "?")).orderBy("t1");
+        FlowRowPublisher.of(this.executor.publish(q, rs -> rs.getInt(1), 4)).subscribe(new Flow.Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(Integer item) {
+                rows.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                Assert.fail(throwable.getMessage());
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+
+        subscription[0].request(2);
+        Assert.assertEquals(2, rows.size());
+        Assert.assertFalse(completed[0]);
+
+        subscription[0].request(10);
+        Assert.assertEquals(6, rows.size());
+        Assert.assertTrue(completed[0]);
+    }
+}